@@ -0,0 +1,26 @@
+package ua.cn.stu.pixelbattle.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Past board configuration (rebuild concurrency limit, recent board cache and back-off hint).
+ *
+ * <p>Every rebuild reads a checkpoint and replays history on a pooled database connection,
+ * so {@code maxConcurrentRebuilds} must stay well below the connection pool size.</p>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "history.board")
+public class BoardHistoryProperties {
+
+  /** Maximum number of past boards rebuilt at the same time. */
+  private int maxConcurrentRebuilds = 2;
+
+  /** How long a board within the unsettled history is cached, in milliseconds. */
+  private long recentCacheMs = 5_000;
+
+  /** Value of the {@code Retry-After} header when the limit is reached, in seconds. */
+  private int retryAfterSeconds = 5;
+}
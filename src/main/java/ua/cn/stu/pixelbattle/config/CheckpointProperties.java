@@ -0,0 +1,26 @@
+package ua.cn.stu.pixelbattle.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Canvas checkpoint configuration (checkpoint interval and retention).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "checkpoint")
+public class CheckpointProperties {
+
+  /** Interval between checkpoints, in milliseconds. */
+  private long intervalMs = 300_000;
+
+  /** Number of newest checkpoints all kept in the database. */
+  private int retained = 48;
+
+  /**
+   * Period, in milliseconds, for which older checkpoints are thinned to one per hour.
+   * Beyond it one checkpoint per day is kept.
+   */
+  private long hourlyRetentionMs = 604_800_000;
+}
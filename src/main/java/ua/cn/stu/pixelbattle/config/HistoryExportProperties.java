@@ -0,0 +1,26 @@
+package ua.cn.stu.pixelbattle.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pixel history export configuration (concurrency limit, timeout and back-off hint).
+ *
+ * <p>Every running export holds a pooled database connection, so {@code maxConcurrent}
+ * must stay well below the connection pool size.</p>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "history.export")
+public class HistoryExportProperties {
+
+  /** Maximum number of exports streamed at the same time. */
+  private int maxConcurrent = 2;
+
+  /** Maximum duration of one export, in milliseconds. */
+  private long timeoutMs = 600_000;
+
+  /** Value of the {@code Retry-After} header when the limit is reached, in seconds. */
+  private int retryAfterSeconds = 30;
+}
@@ -0,0 +1,26 @@
+package ua.cn.stu.pixelbattle.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pixel history partitioning configuration (partition size, lookahead and retention).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "history.partitions")
+public class HistoryPartitionProperties {
+
+  /** Number of history IDs covered by one partition. */
+  private long size = 10_000_000;
+
+  /** Number of empty partitions kept ready beyond the newest history ID. */
+  private int premake = 2;
+
+  /** Number of partitions below the newest history ID kept in the hot table. */
+  private int hotPartitions = 3;
+
+  /** Interval between maintenance runs, in milliseconds. */
+  private long maintenanceMs = 3_600_000;
+}
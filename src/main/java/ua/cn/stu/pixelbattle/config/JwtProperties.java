@@ -26,4 +26,8 @@ public class JwtProperties {
   @Value("${jwt.refresh-token-duration-ms:604800000}")
   private long  refreshTokenDurationMs;
 
+  /** Lifetime of the cached session lookup for a refresh token, in milliseconds. */
+  @Value("${jwt.session-cache-ttl-ms:60000}")
+  private long sessionCacheTtlMs;
+
 }
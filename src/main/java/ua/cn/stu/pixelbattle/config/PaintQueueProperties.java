@@ -0,0 +1,20 @@
+package ua.cn.stu.pixelbattle.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Server-side paint queue configuration (queue size limit and worker pool size).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "paint-queue")
+public class PaintQueueProperties {
+
+  /** Maximum number of queued placements per user. */
+  private int maxSize = 1000;
+
+  /** Number of threads that apply queued placements. */
+  private int workerThreads = 4;
+}
@@ -0,0 +1,30 @@
+package ua.cn.stu.pixelbattle.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Password hashing executor configuration (pool size, queue limit, wait limit and back-off
+ * hint).
+ *
+ * <p>Callers block a request thread while they wait, so {@code queueCapacity} must stay
+ * well below {@code server.tomcat.threads.max}.</p>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+
+  /** Number of threads that run BCrypt. */
+  private int threads = 2;
+
+  /** Maximum number of hashing jobs waiting for a thread. */
+  private int queueCapacity = 16;
+
+  /** Maximum time a caller waits for its hash before giving up, in milliseconds. */
+  private long maxWaitMs = 2000;
+
+  /** Value of the {@code Retry-After} header when the queue is full, in seconds. */
+  private int retryAfterSeconds = 2;
+}
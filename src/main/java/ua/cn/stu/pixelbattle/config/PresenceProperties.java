@@ -0,0 +1,26 @@
+package ua.cn.stu.pixelbattle.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live cursor presence configuration (sampling rate, region size and bandwidth budget).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "presence")
+public class PresenceProperties {
+
+  /** Interval between presence frames, in milliseconds. */
+  private long tickMs = 200;
+
+  /** Side length of a square presence region, in pixels. */
+  private int regionSize = 100;
+
+  /** Maximum number of cursors published for a single region per tick. */
+  private int maxCursorsPerRegion = 64;
+
+  /** Maximum number of cursors published across all regions per tick. */
+  private int maxCursorsPerTick = 2048;
+}
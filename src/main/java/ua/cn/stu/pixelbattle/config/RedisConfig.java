@@ -5,7 +5,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import ua.cn.stu.pixelbattle.model.Pixel;
 
@@ -13,28 +15,42 @@ import ua.cn.stu.pixelbattle.model.Pixel;
  * Configuration class for Redis beans.
  *
  * <p>Provides {@link RedisTemplate} for storing {@link Pixel} objects
- * and {@link StringRedisTemplate} for general String operations.
+ * and {@link StringRedisTemplate} for general String operations, and the
+ * {@link RedisMessageListenerContainer} used for pub/sub between nodes.
  */
 @Configuration
 public class RedisConfig {
 
+  /**
+   * Creates the JSON serializer of {@link Pixel} values.
+   *
+   * <p>Shared with Lua scripts that write pixels, so they store the same format as
+   * {@link #redisTemplate}.</p>
+   *
+   * @return the pixel serializer
+   */
+  @Bean
+  public RedisSerializer<Pixel> pixelSerializer() {
+    return new Jackson2JsonRedisSerializer<>(Pixel.class);
+  }
+
   /**
    * Creates a {@link RedisTemplate} for storing {@link Pixel} objects in Redis.
    *
    * <p>Configures JSON serialization for values and String serialization for keys.
    *
-   * @param factory the Redis connection factory
+   * @param factory         the Redis connection factory
+   * @param pixelSerializer the serializer of pixel values
    * @return configured RedisTemplate
    */
   @Bean
-  public RedisTemplate<String, Pixel> redisTemplate(RedisConnectionFactory factory) {
+  public RedisTemplate<String, Pixel> redisTemplate(RedisConnectionFactory factory,
+                                                    RedisSerializer<Pixel> pixelSerializer) {
     RedisTemplate<String, Pixel> template = new RedisTemplate<>();
     template.setConnectionFactory(factory);
 
     // values
-    Jackson2JsonRedisSerializer<Pixel> valueSerializer =
-        new Jackson2JsonRedisSerializer<>(Pixel.class);
-    template.setValueSerializer(valueSerializer);
+    template.setValueSerializer(pixelSerializer);
 
     // keys
     StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
@@ -52,4 +68,20 @@ public class RedisConfig {
   public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
     return new StringRedisTemplate(redisConnectionFactory);
   }
+
+  /**
+   * Creates the container that dispatches Redis pub/sub messages to listeners.
+   *
+   * <p>Listeners register themselves with the container.</p>
+   *
+   * @param redisConnectionFactory the Redis connection factory
+   * @return the listener container
+   */
+  @Bean
+  public RedisMessageListenerContainer redisMessageListenerContainer(
+      RedisConnectionFactory redisConnectionFactory) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    return container;
+  }
 }
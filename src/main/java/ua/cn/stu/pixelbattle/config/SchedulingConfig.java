@@ -0,0 +1,13 @@
+package ua.cn.stu.pixelbattle.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's {@code @Scheduled} support for periodic background jobs
+ * (presence frames, notification batching, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
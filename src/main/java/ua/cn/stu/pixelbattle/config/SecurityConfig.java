@@ -33,9 +33,15 @@ public class SecurityConfig {
       "/api/v1/auth/login",
       "/api/v1/auth/refresh",
       "/actuator/health",
+      "/actuator/health/**",
       "/api/v1/pixels",
       "/api/v1/history",
+      "/api/v1/history/blocks/**",
       "/api/v1/info",
+      "/api/v1/gameinfo/stats",
+      "/api/v1/teams/leaderboard",
+      "/api/v1/teams/territory",
+      "/api/v1/leaderboard",
       "/ws/**",
       "/topic/**",
       "/app/**",
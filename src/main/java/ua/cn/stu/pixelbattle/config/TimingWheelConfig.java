@@ -0,0 +1,34 @@
+package ua.cn.stu.pixelbattle.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel;
+
+/**
+ * Configuration of the shared in-process timer used for per-user deadlines
+ * (cooldown expiry and similar short delays).
+ *
+ * <p>With the default 100 ms tick and four levels of 64 slots the wheel covers
+ * about 19 days before deadlines have to be re-cascaded.</p>
+ */
+@Configuration
+public class TimingWheelConfig {
+
+  private static final int WHEEL_BITS = 6;
+  private static final int LEVELS = 4;
+
+  /**
+   * Creates the application timing wheel. It is closed on context shutdown.
+   *
+   * @param tickMs        timer resolution in milliseconds
+   * @param workerThreads number of threads that run expired tasks
+   * @return the {@link HierarchicalTimingWheel}
+   */
+  @Bean(destroyMethod = "close")
+  public HierarchicalTimingWheel timingWheel(
+      @Value("${timer.tick-ms:100}") long tickMs,
+      @Value("${timer.worker-threads:2}") int workerThreads) {
+    return new HierarchicalTimingWheel("timer", tickMs, WHEEL_BITS, LEVELS, workerThreads);
+  }
+}
@@ -2,25 +2,39 @@ package ua.cn.stu.pixelbattle.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import ua.cn.stu.pixelbattle.security.StompAuthChannelInterceptor;
 
 /**
  * WebSocket configuration class for production.
  *
  * <p>Enables STOMP message broker and configures endpoints for WebSocket communication.
+ * STOMP sessions are authenticated on CONNECT by {@link StompAuthChannelInterceptor}.
  */
 @Configuration
 @Profile("prod")
 @EnableWebSocketMessageBroker()
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+  private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+  /**
+   * Constructs a WebSocketConfig instance.
+   *
+   * @param stompAuthChannelInterceptor the interceptor that authenticates STOMP sessions
+   */
+  public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor) {
+    this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+  }
 
   @Override
   public void configureMessageBroker(MessageBrokerRegistry config) {
-    config.enableSimpleBroker("/topic");
+    config.enableSimpleBroker("/topic", "/queue");
     config.setApplicationDestinationPrefixes("/app");
+    config.setUserDestinationPrefix("/user");
   }
 
   @Override
@@ -29,4 +43,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         .setAllowedOriginPatterns("https://pixel-battle.zebaro.dev")
         .withSockJS();
   }
+
+  @Override
+  public void configureClientInboundChannel(ChannelRegistration registration) {
+    registration.interceptors(stompAuthChannelInterceptor);
+  }
 }
@@ -11,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ua.cn.stu.pixelbattle.dto.AuthRequest;
@@ -30,6 +31,7 @@ public class AuthController {
   private final AuthService authService;
   private static final String REFRESH_COOKIE_NAME = "refreshToken";
   private static final Duration REFRESH_TOKEN_AGE = Duration.ofDays(7);
+  private static final String BEARER_PREFIX = "Bearer ";
 
   /**
    * Registers a new user and immediately logs them in.
@@ -99,19 +101,26 @@ public class AuthController {
   }
 
   /**
-   * Logs out the current user by deleting the refresh token.
+   * Logs out the current user by deleting the refresh token and revoking the
+   * access token sent in the {@code Authorization} header.
    *
    * <p>The refresh token cookie is cleared on the client, effectively ending the session.</p>
    *
    * @param refreshToken the value of the refresh token cookie (optional)
+   * @param authorization the {@code Authorization} header (optional)
    * @param response the {@link HttpServletResponse} used to clear the cookie
    * @return a {@link ResponseEntity} with HTTP status 200 OK
    */
   @PostMapping("/logout")
   public ResponseEntity<Void> logout(@CookieValue(value = REFRESH_COOKIE_NAME, required = false)
                                        String refreshToken,
+                                     @RequestHeader(value = HttpHeaders.AUTHORIZATION,
+                                         required = false) String authorization,
                                      HttpServletResponse response) {
-    authService.logout(refreshToken);
+    String accessToken = authorization != null && authorization.startsWith(BEARER_PREFIX)
+        ? authorization.substring(BEARER_PREFIX.length())
+        : null;
+    authService.logout(refreshToken, accessToken);
 
     ResponseCookie deleteCookie = ResponseCookie.from(REFRESH_COOKIE_NAME, "")
         .httpOnly(true)
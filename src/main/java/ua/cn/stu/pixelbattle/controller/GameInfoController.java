@@ -5,6 +5,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ua.cn.stu.pixelbattle.dto.GameInfoResponse;
+import ua.cn.stu.pixelbattle.dto.GameStatsResponse;
+import ua.cn.stu.pixelbattle.service.GameStatsService;
 import ua.cn.stu.pixelbattle.service.PixelService;
 
 /**
@@ -17,6 +19,7 @@ import ua.cn.stu.pixelbattle.service.PixelService;
  * <p>Endpoint:</p>
  * <ul>
  *   <li>GET /api/v1/info – returns {@link GameInfoResponse} with the current game settings</li>
+ *   <li>GET /api/v1/gameinfo/stats – returns {@link GameStatsResponse} with live counters</li>
  * </ul>
  */
 @RestController
@@ -24,6 +27,7 @@ import ua.cn.stu.pixelbattle.service.PixelService;
 @RequiredArgsConstructor
 public class GameInfoController {
   private final PixelService pixelService;
+  private final GameStatsService gameStatsService;
 
   /**
    * Returns general information about the game field and configuration.
@@ -38,4 +42,14 @@ public class GameInfoController {
     return pixelService.getGameInfo();
   }
 
+  /**
+   * Returns live statistics: connected viewers and distinct recent players.
+   *
+   * @return a {@link GameStatsResponse} object with the current counters
+   */
+  @GetMapping("/stats")
+  public GameStatsResponse getStats() {
+    return gameStatsService.getStats();
+  }
+
 }
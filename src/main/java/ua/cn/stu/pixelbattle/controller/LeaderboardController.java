@@ -0,0 +1,46 @@
+package ua.cn.stu.pixelbattle.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ua.cn.stu.pixelbattle.dto.PlayerLeaderboardResponse;
+import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+import ua.cn.stu.pixelbattle.service.PlayerLeaderboardService;
+
+/**
+ * REST controller for the player leaderboard.
+ */
+@RestController
+@RequestMapping("/api/v1/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+  private final PlayerLeaderboardService playerLeaderboardService;
+
+  /**
+   * Retrieves a page of the player leaderboard.
+   *
+   * <p>Available without authentication; authenticated callers also get their own
+   * rank and may request the page around it.</p>
+   *
+   * @param offset number of top entries to skip
+   * @param limit page size (max 100)
+   * @param around whether to return the page around the caller instead of the offset
+   * @param userDetails current user, may be null
+   * @return the leaderboard page
+   */
+  @GetMapping
+  public ResponseEntity<PlayerLeaderboardResponse> getLeaderboard(
+      @RequestParam(defaultValue = "0") long offset,
+      @RequestParam(defaultValue = "10") int limit,
+      @RequestParam(defaultValue = "false") boolean around,
+      @AuthenticationPrincipal CustomUserDetails userDetails) {
+    String username = userDetails != null ? userDetails.getUsername() : null;
+    return ResponseEntity.ok(
+        playerLeaderboardService.getLeaderboard(offset, limit, around, username));
+  }
+}
@@ -0,0 +1,67 @@
+package ua.cn.stu.pixelbattle.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ua.cn.stu.pixelbattle.dto.PaintQueueRequest;
+import ua.cn.stu.pixelbattle.dto.PaintQueueResponse;
+import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+import ua.cn.stu.pixelbattle.service.PaintQueueService;
+
+/**
+ * Controller for the authenticated user's server-side paint queue.
+ *
+ * <p>Queued placements are applied by the server at the user's cooldown cadence.
+ */
+@RestController
+@RequestMapping("/api/v1/pixels/queue")
+@RequiredArgsConstructor
+public class PaintQueueController {
+
+  private final PaintQueueService paintQueueService;
+
+  /**
+   * Appends placements to the user's paint queue.
+   *
+   * @param request placements in the order they should be applied
+   * @param user    the authenticated user
+   * @return the queue state after appending
+   */
+  @PostMapping
+  public ResponseEntity<PaintQueueResponse> enqueue(
+      @Valid @RequestBody PaintQueueRequest request,
+      @AuthenticationPrincipal CustomUserDetails user) {
+    return ResponseEntity.ok(paintQueueService.enqueue(user.getId(), request.getPixels()));
+  }
+
+  /**
+   * Returns the state of the user's paint queue.
+   *
+   * @param user the authenticated user
+   * @return the queue state
+   */
+  @GetMapping
+  public ResponseEntity<PaintQueueResponse> getQueue(
+      @AuthenticationPrincipal CustomUserDetails user) {
+    return ResponseEntity.ok(paintQueueService.getQueue(user.getId()));
+  }
+
+  /**
+   * Drops all queued placements of the user.
+   *
+   * @param user the authenticated user
+   * @return HTTP 204 No Content
+   */
+  @DeleteMapping
+  public ResponseEntity<Void> clearQueue(@AuthenticationPrincipal CustomUserDetails user) {
+    paintQueueService.clear(user.getId());
+    return ResponseEntity.noContent().build();
+  }
+}
@@ -1,6 +1,7 @@
 package ua.cn.stu.pixelbattle.controller;
 
 import jakarta.validation.Valid;
+import java.time.Instant;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -10,10 +11,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ua.cn.stu.pixelbattle.dto.PixelChangeRequest;
 import ua.cn.stu.pixelbattle.dto.PixelResponse;
 import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+import ua.cn.stu.pixelbattle.service.BoardHistoryService;
 import ua.cn.stu.pixelbattle.service.PixelService;
 
 /**
@@ -27,6 +30,7 @@ import ua.cn.stu.pixelbattle.service.PixelService;
 public class PixelController {
 
   private final PixelService pixelService;
+  private final BoardHistoryService boardHistoryService;
 
   /**
    * Retrieves all pixels from the pixel board.
@@ -38,6 +42,22 @@ public class PixelController {
     return pixelService.getAllPixels();
   }
 
+  /**
+   * Retrieves the pixel board as it looked at a past moment.
+   *
+   * <p>Exactly one of {@code time} and {@code historyId} must be given.</p>
+   *
+   * @param time      ISO-8601 instant, e.g. {@code 2025-01-01T18:00:00Z}
+   * @param historyId ID of the newest pixel history record to include
+   * @return list of {@link PixelResponse} representing the pixel state at that moment
+   */
+  @GetMapping("/at")
+  public List<PixelResponse> getPixelsAt(
+      @RequestParam(required = false) Instant time,
+      @RequestParam(required = false) Long historyId) {
+    return boardHistoryService.getBoardAt(time, historyId);
+  }
+
 
   /**
    * Changes the color of a specific pixel.
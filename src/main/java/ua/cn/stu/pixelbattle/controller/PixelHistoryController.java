@@ -1,19 +1,29 @@
 package ua.cn.stu.pixelbattle.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import ua.cn.stu.pixelbattle.dto.PixelHistoryDto;
 import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+import ua.cn.stu.pixelbattle.service.PixelHistoryBlockService;
+import ua.cn.stu.pixelbattle.service.PixelHistoryBlockService.HistoryBlock;
 import ua.cn.stu.pixelbattle.service.PixelHistoryService;
+import ua.cn.stu.pixelbattle.service.PixelHistoryService.HistoryExport;
 
 
 /**
@@ -28,7 +38,10 @@ import ua.cn.stu.pixelbattle.service.PixelHistoryService;
 @Validated
 public class PixelHistoryController {
 
+  static final String NDJSON = "application/x-ndjson";
+
   private final PixelHistoryService pixelHistoryService;
+  private final PixelHistoryBlockService pixelHistoryBlockService;
 
   /**
    * Retrieves a list of all pixel history records after a given ID.
@@ -70,4 +83,79 @@ public class PixelHistoryController {
         pixelHistoryService.getUserHistory(currentUser, userId, fromId, limit);
     return ResponseEntity.ok(history);
   }
+
+  /**
+   * Streams all pixel history records in {@code (fromId, toId]} as newline-delimited JSON.
+   *
+   * <p>Intended for full replays and offline analysis: unlike {@link #getAllAfter}, the
+   * range is not limited and is written while it is read from the database. Only a few
+   * exports run at a time (429 with {@code Retry-After} otherwise), each with its own
+   * timeout.</p>
+   *
+   * @param fromId   the ID of the last already retrieved record (exclusive), defaults to 0
+   * @param toId     the ID of the last record to export (inclusive), or {@code null} for all
+   * @param response the response the records are written to
+   * @return the asynchronous task streaming one JSON record per line
+   */
+  @GetMapping(value = "/export", produces = NDJSON)
+  public WebAsyncTask<Void> export(
+      @RequestParam(defaultValue = "0") long fromId,
+      @RequestParam(required = false) Long toId,
+      HttpServletResponse response
+  ) {
+    HistoryExport export = pixelHistoryService.exportRange(fromId, toId);
+    response.setContentType(NDJSON);
+    WebAsyncTask<Void> task = new WebAsyncTask<>(export.getTimeoutMs(), () -> {
+      export.writeTo(response.getOutputStream());
+      return null;
+    });
+    // a running export frees its slot once its query has stopped; this only covers
+    // a request that completed before the callable started
+    task.onCompletion(export::close);
+    return task;
+  }
+
+  /**
+   * Retrieves one fixed, ID-aligned block of pixel history.
+   *
+   * <p>Block {@code index} holds the records with IDs in
+   * {@code (index * 1000, (index + 1) * 1000]}. Sealed blocks never change and are served
+   * as immutable with a stable ETag; the newest, still growing block must be revalidated.
+   * A matching {@code If-None-Match} yields 304 Not Modified.</p>
+   *
+   * @param index       the block index
+   * @param ifNoneMatch the ETag held by the client, if any
+   * @return a {@link ResponseEntity} containing the block as a JSON array of
+   *     {@link PixelHistoryDto} objects
+   */
+  @GetMapping("/blocks/{index}")
+  public ResponseEntity<byte[]> getBlock(
+      @PathVariable long index,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    String sealedEtag = PixelHistoryBlockService.sealedEtag(index);
+    if (sealedEtag.equals(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(sealedEtag)
+          .cacheControl(immutable())
+          .build();
+    }
+    HistoryBlock block = pixelHistoryBlockService.getBlock(index);
+    CacheControl cacheControl = block.isSealed() ? immutable() : CacheControl.noCache();
+    if (block.getEtag().equals(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(block.getEtag())
+          .cacheControl(cacheControl)
+          .build();
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(block.getEtag())
+        .cacheControl(cacheControl)
+        .body(block.getBody());
+  }
+
+  private static CacheControl immutable() {
+    return CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+  }
 }
@@ -0,0 +1,101 @@
+package ua.cn.stu.pixelbattle.controller;
+
+import jakarta.validation.Valid;
+import java.security.Principal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+import ua.cn.stu.pixelbattle.dto.PixelChangeRequest;
+import ua.cn.stu.pixelbattle.dto.PixelResponse;
+import ua.cn.stu.pixelbattle.dto.SocketErrorResponse;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.service.PixelService;
+import ua.cn.stu.pixelbattle.service.WebSocketSessionRegistry;
+
+/**
+ * STOMP controller for pixel placement over an open WebSocket session.
+ *
+ * <p>Authenticated sessions send {@code {"x", "y", "color"}} frames to {@code /app/pixel}
+ * instead of calling {@code POST /api/v1/pixels}. The user is taken from the session
+ * principal, so no token is verified per placement. The placement is acknowledged on
+ * {@code /user/queue/pixel-ack} and failures are reported on {@code /user/queue/errors};
+ * both go only to the sending session.</p>
+ */
+@Controller
+@RequiredArgsConstructor
+public class PixelSocketController {
+
+  private final PixelService pixelService;
+
+  /**
+   * Places a pixel on behalf of the session user.
+   *
+   * @param request   pixel change request containing coordinates and color
+   * @param principal the session principal
+   * @return the placed pixel as acknowledgement
+   * @throws ApiException if the session is anonymous or the cooldown is active
+   */
+  @MessageMapping("/pixel")
+  @SendToUser(destinations = "/queue/pixel-ack", broadcast = false)
+  public PixelResponse placePixel(@Valid @Payload PixelChangeRequest request,
+                                  Principal principal) {
+    Long userId = WebSocketSessionRegistry.resolveUserId(principal);
+    if (userId == null) {
+      throw new ApiException("Authentication required", HttpStatus.UNAUTHORIZED);
+    }
+    pixelService.changePixel(
+        request.getCoordinateX(),
+        request.getCoordinateY(),
+        request.getColor(),
+        userId);
+    return new PixelResponse(
+        request.getCoordinateX(), request.getCoordinateY(), request.getColor());
+  }
+
+  /**
+   * Reports API errors; cooldown errors carry the remaining wait time.
+   *
+   * @param ex        the exception
+   * @param principal the session principal
+   * @return the error sent to the sending session
+   */
+  @MessageExceptionHandler(ApiException.class)
+  @SendToUser(destinations = "/queue/errors", broadcast = false)
+  public SocketErrorResponse handleApiException(ApiException ex, Principal principal) {
+    long retryAfterMs = 0;
+    Long userId = WebSocketSessionRegistry.resolveUserId(principal);
+    if (ex.getStatus() == HttpStatus.TOO_MANY_REQUESTS && userId != null) {
+      retryAfterMs = pixelService.getRemainingCooldownMillis(userId);
+    }
+    return new SocketErrorResponse(ex.getStatus().value(), ex.getMessage(), retryAfterMs);
+  }
+
+  /**
+   * Reports invalid coordinates or a missing user.
+   *
+   * @param ex the exception
+   * @return the error sent to the sending session
+   */
+  @MessageExceptionHandler(IllegalArgumentException.class)
+  @SendToUser(destinations = "/queue/errors", broadcast = false)
+  public SocketErrorResponse handleIllegalArgument(IllegalArgumentException ex) {
+    return new SocketErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage(), 0);
+  }
+
+  /**
+   * Reports payload validation failures.
+   *
+   * @param ex the exception
+   * @return the error sent to the sending session
+   */
+  @MessageExceptionHandler(MethodArgumentNotValidException.class)
+  @SendToUser(destinations = "/queue/errors", broadcast = false)
+  public SocketErrorResponse handleValidation(MethodArgumentNotValidException ex) {
+    return new SocketErrorResponse(HttpStatus.BAD_REQUEST.value(), "Validation failed", 0);
+  }
+}
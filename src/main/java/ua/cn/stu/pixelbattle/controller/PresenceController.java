@@ -0,0 +1,35 @@
+package ua.cn.stu.pixelbattle.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+import ua.cn.stu.pixelbattle.dto.CursorPositionRequest;
+import ua.cn.stu.pixelbattle.service.PresenceService;
+
+/**
+ * STOMP controller for live cursor presence.
+ *
+ * <p>Clients send their cursor position to {@code /app/cursor} and subscribe to
+ * {@code /topic/presence/{regionX}-{regionY}} for the regions they are viewing.</p>
+ */
+@Controller
+@RequiredArgsConstructor
+public class PresenceController {
+
+  private final PresenceService presenceService;
+
+  /**
+   * Records the sender's cursor position; it is published on the next presence tick.
+   *
+   * @param request   the cursor coordinates
+   * @param sessionId the STOMP session id of the sender
+   */
+  @MessageMapping("/cursor")
+  public void updateCursor(@Payload CursorPositionRequest request,
+                           @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+    presenceService.recordCursor(sessionId, request.getCoordinateX(), request.getCoordinateY());
+  }
+}
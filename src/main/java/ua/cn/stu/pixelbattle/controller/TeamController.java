@@ -1,9 +1,7 @@
 package ua.cn.stu.pixelbattle.controller;
 
-
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -11,18 +9,24 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ua.cn.stu.pixelbattle.dto.TeamActionRequest;
 import ua.cn.stu.pixelbattle.dto.TeamInfoResponse;
+import ua.cn.stu.pixelbattle.dto.TeamLeaderboardResponse;
+import ua.cn.stu.pixelbattle.dto.TeamTerritoryDto;
 import ua.cn.stu.pixelbattle.model.Team;
 import ua.cn.stu.pixelbattle.model.User;
 import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+import ua.cn.stu.pixelbattle.service.TeamLeaderboardService;
 import ua.cn.stu.pixelbattle.service.TeamService;
+import ua.cn.stu.pixelbattle.service.TerritoryService;
 import ua.cn.stu.pixelbattle.service.UserService;
 
 /**
  * REST controller for managing teams.
- * Supports creating teams, joining/leaving, and retrieving team info.
+ * Supports creating teams, joining/leaving, retrieving team info, the leaderboard
+ * and the territory held by each team.
  */
 @RestController
 @RequestMapping("/api/v1/teams")
@@ -30,8 +34,12 @@ import ua.cn.stu.pixelbattle.service.UserService;
 public class TeamController {
 
 
+  private static final int DEFAULT_MEMBERS_PAGE_SIZE = 50;
+
   private final TeamService teamService;
   private final UserService userService;
+  private final TeamLeaderboardService teamLeaderboardService;
+  private final TerritoryService territoryService;
 
   /**
    * Creates a new team and adds the current user to it.
@@ -46,7 +54,8 @@ public class TeamController {
     User user = userService.getUserByUsername(userDetails.getUsername())
         .orElseThrow(() -> new IllegalArgumentException("User not found"));
     Team team = teamService.createTeam(request.getName(), user);
-    return ResponseEntity.ok(toDto(team));
+    return ResponseEntity.ok(
+        teamService.getTeamInfo(team, 0, DEFAULT_MEMBERS_PAGE_SIZE));
   }
 
   /**
@@ -86,11 +95,19 @@ public class TeamController {
   /**
    * Retrieves information about the team the current user belongs to.
    *
+   * <p>Members are returned in pages ordered by user ID; pass the returned
+   * {@code nextCursor} as {@code after} to get the next page.</p>
+   *
+   * @param after the cursor of the previous page, 0 for the first page
+   * @param limit the page size (max 100)
    * @param userDetails current user
    * @return team info or message if the user is not in a team
    */
   @GetMapping("/info")
-  public ResponseEntity<?> getMyTeamInfo(@AuthenticationPrincipal CustomUserDetails userDetails) {
+  public ResponseEntity<?> getMyTeamInfo(
+      @RequestParam(defaultValue = "0") long after,
+      @RequestParam(defaultValue = "50") int limit,
+      @AuthenticationPrincipal CustomUserDetails userDetails) {
     User user = userService.getUserByUsername(userDetails.getUsername())
         .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
@@ -99,20 +116,33 @@ public class TeamController {
       return ResponseEntity.ok(Map.of("message", "You are not in a team"));
     }
 
-    return ResponseEntity.ok(toDto(team));
+    return ResponseEntity.ok(teamService.getTeamInfo(team, after, limit));
+  }
+
+  /**
+   * Retrieves the top teams and, for team members, their own team's rank.
+   *
+   * <p>Available without authentication; anonymous callers get no own rank.</p>
+   *
+   * @param limit the number of top teams (max 100)
+   * @param userDetails current user, may be null
+   * @return the team leaderboard
+   */
+  @GetMapping("/leaderboard")
+  public ResponseEntity<TeamLeaderboardResponse> getLeaderboard(
+      @RequestParam(defaultValue = "10") int limit,
+      @AuthenticationPrincipal CustomUserDetails userDetails) {
+    Long userId = userDetails != null ? userDetails.getId() : null;
+    return ResponseEntity.ok(teamLeaderboardService.getLeaderboard(limit, userId));
   }
 
   /**
-   * Converts a Team entity to a DTO for client responses.
+   * Retrieves the number of board cells each team currently owns.
    *
-   * @param team team entity
-   * @return DTO with team information
+   * @return per-team cell counts, largest territory first
    */
-  private TeamInfoResponse toDto(Team team) {
-    List<String> members = team.getMembers()
-        .stream()
-        .map(User::getUsername)
-        .collect(Collectors.toList());
-    return new TeamInfoResponse(team.getName(), team.getCreatedAt(), members);
+  @GetMapping("/territory")
+  public ResponseEntity<List<TeamTerritoryDto>> getTerritory() {
+    return ResponseEntity.ok(territoryService.getTerritory());
   }
 }
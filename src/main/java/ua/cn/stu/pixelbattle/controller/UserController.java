@@ -10,8 +10,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ua.cn.stu.pixelbattle.dto.PixelHistoryDto;
 import ua.cn.stu.pixelbattle.dto.UserResponse;
+import ua.cn.stu.pixelbattle.model.User;
 import ua.cn.stu.pixelbattle.security.CustomUserDetails;
 import ua.cn.stu.pixelbattle.service.PixelHistoryService;
+import ua.cn.stu.pixelbattle.service.UserService;
 
 
 /**
@@ -25,6 +27,7 @@ import ua.cn.stu.pixelbattle.service.PixelHistoryService;
 @RequiredArgsConstructor
 public class UserController {
   private final PixelHistoryService pixelHistoryService;
+  private final UserService userService;
 
   /**
    * Retrieves information about the currently authenticated user.
@@ -39,10 +42,14 @@ public class UserController {
   @GetMapping("/me")
   public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal CustomUserDetails userDetails) {
     if (userDetails != null) {
+      // the principal is built from token claims, so the counter is read from the database
+      int pixelChangesCount = userService.getUserById(userDetails.getId())
+          .map(User::getPixelChangesCount)
+          .orElse(0);
       UserResponse response = new UserResponse(
           userDetails.getId(),
           userDetails.getUsername(),
-          userDetails.getPixelChangesCount()
+          pixelChangesCount
       );
       return ResponseEntity.ok(response);
     }
@@ -0,0 +1,18 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification sent to {@code /user/queue/cooldown} when the user may place
+ * the next pixel.
+ *
+ * <p>{@code readyAt} is the server time (epoch milliseconds) at which the cooldown ended.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CooldownReadyNotification {
+  private long readyAt;
+}
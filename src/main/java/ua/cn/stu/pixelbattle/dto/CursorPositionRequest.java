@@ -0,0 +1,21 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing a cursor position sent by a client over STOMP ({@code /app/cursor}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPositionRequest {
+
+  @JsonProperty("x")
+  private int coordinateX;
+
+  @JsonProperty("y")
+  private int coordinateY;
+}
@@ -0,0 +1,21 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO with live game statistics.
+ *
+ * <p>{@code viewers} is the number of open WebSocket sessions across all nodes,
+ * {@code activePlayers} is the approximate number of distinct users that placed a pixel
+ * during the last {@code windowMinutes} minutes.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameStatsResponse {
+  private long viewers;
+  private long activePlayers;
+  private int windowMinutes;
+}
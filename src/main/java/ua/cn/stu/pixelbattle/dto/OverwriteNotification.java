@@ -0,0 +1,21 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Batched notification sent to {@code /user/queue/overwritten} when
+ * pixels owned by the user have been painted over.
+ *
+ * <p>{@code pixels} holds the new state of (at most a bounded number of) the overwritten
+ * cells, while {@code total} is the number of overwrites that happened during the tick.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverwriteNotification {
+  private List<PixelResponse> pixels;
+  private int total;
+}
@@ -0,0 +1,22 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for appending placements to the user's server-side paint queue.
+ *
+ * <p>Placements are applied in the given order, one per cooldown.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaintQueueRequest {
+
+  @NotEmpty
+  private List<@Valid PixelChangeRequest> pixels;
+}
@@ -0,0 +1,15 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO describing the state of the user's paint queue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaintQueueResponse {
+  private int pending;
+}
@@ -0,0 +1,22 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the player leaderboard.
+ * Contains one page of entries, the caller's own position and the number of ranked players.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayerLeaderboardResponse {
+  private List<PlayerScoreDto> entries;
+
+  // null if the caller is anonymous or has not placed a pixel yet
+  private PlayerScoreDto me;
+
+  private long totalPlayers;
+}
@@ -0,0 +1,19 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing a player's position on the leaderboard.
+ *
+ * <p>The rank is 1-based; the score is the number of pixels the player has placed.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayerScoreDto {
+  private long rank;
+  private String username;
+  private long score;
+}
@@ -0,0 +1,22 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact presence frame published to {@code /topic/presence/{regionX}-{regionY}}.
+ *
+ * <p>{@code cursors} is a flat array of {@code [id, x, y, id, x, y, ...]} triples,
+ * where {@code id} is a short per-connection cursor id that lets clients
+ * animate the same cursor across frames.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceFrame {
+
+  @JsonProperty("c")
+  private int[] cursors;
+}
@@ -0,0 +1,20 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Error sent to {@code /user/queue/errors} when a STOMP request fails.
+ *
+ * <p>{@code status} mirrors the HTTP status the equivalent REST call would return;
+ * {@code retryAfterMs} is set for cooldown errors and is 0 otherwise.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SocketErrorResponse {
+  private int status;
+  private String message;
+  private long retryAfterMs;
+}
@@ -7,7 +7,8 @@ import lombok.Data;
 
 /**
  * DTO representing information about a team.
- * Includes the team name, creation date, and list of member usernames.
+ * Includes the team name, creation date, one page of member usernames ordered by user ID,
+ * the total member count and the cursor for the next page ({@code null} on the last page).
  */
 @Data
 @AllArgsConstructor
@@ -15,4 +16,6 @@ public class TeamInfoResponse {
   private String name;
   private LocalDateTime createdAt;
   private List<String> members;
+  private long memberCount;
+  private Long nextCursor;
 }
@@ -0,0 +1,20 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the team leaderboard.
+ * Contains the top teams and, for members of a team, their own team's position.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeamLeaderboardResponse {
+  private List<TeamScoreDto> top;
+
+  // null if the caller is anonymous or not in a ranked team
+  private TeamScoreDto myTeam;
+}
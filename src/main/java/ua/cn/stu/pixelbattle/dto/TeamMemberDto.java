@@ -0,0 +1,17 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projection of a team member: the user ID, used as the pagination cursor,
+ * and the username.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeamMemberDto {
+  private Long id;
+  private String username;
+}
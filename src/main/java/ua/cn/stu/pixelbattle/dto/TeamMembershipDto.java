@@ -0,0 +1,16 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projection of a team membership: the ID of the user and of the team they belong to.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeamMembershipDto {
+  private Long userId;
+  private Long teamId;
+}
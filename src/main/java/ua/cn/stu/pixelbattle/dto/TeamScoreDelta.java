@@ -0,0 +1,18 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO pushed to {@code /topic/leaderboard/teams} for every team whose score changed
+ * since the previous push.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeamScoreDelta {
+  private Long teamId;
+  private long delta;
+  private long score;
+}
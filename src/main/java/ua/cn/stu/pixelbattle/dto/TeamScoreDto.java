@@ -0,0 +1,20 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing a team's position on the leaderboard.
+ *
+ * <p>The rank is 1-based; the score is the number of pixels placed by team members.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeamScoreDto {
+  private Long teamId;
+  private String name;
+  private long rank;
+  private long score;
+}
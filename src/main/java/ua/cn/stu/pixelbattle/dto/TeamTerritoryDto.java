@@ -0,0 +1,18 @@
+package ua.cn.stu.pixelbattle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing the number of board cells currently owned by a team.
+ * A cell is owned by the team of the user who painted it last.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeamTerritoryDto {
+  private Long teamId;
+  private String name;
+  private long cells;
+}
@@ -0,0 +1,18 @@
+package ua.cn.stu.pixelbattle.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published by {@code PixelService} when a user's placement cooldown
+ * starts, i.e. right after the {@code user:rate:{id}} key has been set.
+ *
+ * <p>It is published even when the placement turns out to be a no-op (same colour),
+ * because the cooldown is consumed either way.</p>
+ */
+@Getter
+@AllArgsConstructor
+public class CooldownStartedEvent {
+  private final Long userId;
+  private final int cooldownSeconds;
+}
@@ -0,0 +1,25 @@
+package ua.cn.stu.pixelbattle.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published by {@code PixelService} after a pixel has been
+ * recolored, recorded in history and broadcast.
+ *
+ * <p>Listeners are invoked synchronously on the placing thread and must stay cheap
+ * (in-memory bookkeeping or a single Redis call).</p>
+ */
+@Getter
+@AllArgsConstructor
+public class PixelChangedEvent {
+  private final int coordinateX;
+  private final int coordinateY;
+  private final String oldColor;
+  private final String newColor;
+  private final Long userId;
+  private final String username;
+
+  // id of the user who owned the pixel before this change, null if unknown
+  private final Long previousOwnerId;
+}
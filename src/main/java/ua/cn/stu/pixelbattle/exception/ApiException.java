@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 public class ApiException extends RuntimeException {
 
   private final HttpStatus status;
+  private final Integer retryAfterSeconds;
 
   /**
    * Constructs a new ApiException with a message and HTTP status.
@@ -17,12 +18,29 @@ public class ApiException extends RuntimeException {
    * @param status HTTP status code
    */
   public ApiException(String message, HttpStatus status) {
+    this(message, status, null);
+  }
+
+  /**
+   * Constructs a new ApiException that tells the client when to retry.
+   *
+   * @param message           error message
+   * @param status            HTTP status code
+   * @param retryAfterSeconds value of the {@code Retry-After} header, may be null
+   */
+  public ApiException(String message, HttpStatus status, Integer retryAfterSeconds) {
     super(message);
     this.status = status;
+    this.retryAfterSeconds = retryAfterSeconds;
   }
 
   /** Returns the HTTP status associated with this exception. */
   public HttpStatus getStatus() {
     return status;
   }
+
+  /** Returns the retry delay in seconds, or null if the client should not be told. */
+  public Integer getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
 }
@@ -5,6 +5,7 @@ import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -26,6 +27,7 @@ public class GlobalExceptionHandler {
 
   /**
    * Handles {@link ApiException}, allowing custom HTTP status and message.
+   * Sets {@code Retry-After} when the exception carries a retry delay.
    */
   @ExceptionHandler(ApiException.class)
   public ResponseEntity<Map<String, Object>> handleApiException(ApiException ex) {
@@ -34,7 +36,11 @@ public class GlobalExceptionHandler {
     body.put("status", ex.getStatus().value());
     body.put("error", ex.getStatus().getReasonPhrase());
     body.put("message", ex.getMessage());
-    return new ResponseEntity<>(body, ex.getStatus());
+    HttpHeaders headers = new HttpHeaders();
+    if (ex.getRetryAfterSeconds() != null) {
+      headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+    }
+    return new ResponseEntity<>(body, headers, ex.getStatus());
   }
 
   /**
@@ -0,0 +1,63 @@
+package ua.cn.stu.pixelbattle.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+
+/**
+ * Entity representing a compressed snapshot of the whole board.
+ *
+ * <p>The snapshot covers every pixel history record up to and including
+ * {@code lastHistoryId}; see {@link ua.cn.stu.pixelbattle.util.CanvasState} for the
+ * data format.</p>
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "canvas_checkpoint")
+public class CanvasCheckpoint {
+
+  /**
+   * Constructs a CanvasCheckpoint.
+   * The ID and timestamp will be set automatically by JPA/Hibernate.
+   *
+   * @param lastHistoryId the ID of the newest history record covered
+   * @param width         board width
+   * @param height        board height
+   * @param data          the compressed board
+   */
+  public CanvasCheckpoint(long lastHistoryId, int width, int height, byte[] data) {
+    this.lastHistoryId = lastHistoryId;
+    this.width = width;
+    this.height = height;
+    this.data = data;
+  }
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "last_history_id", nullable = false, unique = true)
+  private long lastHistoryId;
+
+  @Column(nullable = false)
+  private int width;
+
+  @Column(nullable = false)
+  private int height;
+
+  @Column(nullable = false)
+  private byte[] data;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  @CreationTimestamp
+  private LocalDateTime createdAt;
+}
@@ -9,7 +9,8 @@ import lombok.NoArgsConstructor;
  * Represents a single pixel on the board.
  *
  * <p>Contains the pixel's coordinates, its current color, and the username
- * of the user who last modified it.</p>
+ * and id of the user who last modified it. {@code userId} may be {@code null}
+ * for pixels written before it was tracked.</p>
  */
 @Data
 @NoArgsConstructor
@@ -24,4 +25,5 @@ public class Pixel {
 
   private String color;
   private String username;
-}
\ No newline at end of file
+  private Long userId;
+}
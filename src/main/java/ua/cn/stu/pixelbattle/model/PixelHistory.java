@@ -1,6 +1,7 @@
 package ua.cn.stu.pixelbattle.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -13,13 +14,18 @@ import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 
 /**
  * Entity representing a historical change of a pixel.
  *
- * <p>Stores the coordinates of the pixel, the old and new colors,
- * the user who made the change, and the timestamp of the change.</p>
+ * <p>Stores the coordinates of the pixel, the new color,
+ * the user who made the change, and the timestamp of the change.
+ * Rows use a compact layout: coordinates are {@code SMALLINT} and the color is a packed
+ * RGB {@code INTEGER}. The previous color is not stored; it is the color of the previous
+ * change of the same cell.</p>
  */
 @Data
 @NoArgsConstructor
@@ -28,24 +34,21 @@ import lombok.NoArgsConstructor;
 public class PixelHistory {
 
   /**
-   * Constructs a PixelHistory with coordinates, old and new color, and the user.
+   * Constructs a PixelHistory with coordinates, new color, and the user.
    * The ID and timestamp will be set automatically by JPA/Hibernate.
    *
    * @param coordinateX        the X coordinate of the pixel
    * @param coordinateY        the Y coordinate of the pixel
-   * @param oldColor the previous color of the pixel
    * @param newColor the new color of the pixel
    * @param userId     the id of user who made the change
    */
   public PixelHistory(
       int coordinateX,
       int coordinateY,
-      String oldColor,
       String newColor,
       Long userId) {
     this.coordinateX = coordinateX;
     this.coordinateY = coordinateY;
-    this.oldColor = oldColor;
     this.newColor = newColor;
     this.userId = userId;
   }
@@ -55,13 +58,15 @@ public class PixelHistory {
   private Long id;
 
   @Column(name = "x", nullable = false)
+  @JdbcTypeCode(SqlTypes.SMALLINT)
   private int coordinateX;
 
   @Column(name = "y", nullable = false)
+  @JdbcTypeCode(SqlTypes.SMALLINT)
   private int coordinateY;
-  private String oldColor;
 
-  @Column(name = "new_color", length = 7)
+  @Column(name = "new_color", nullable = false)
+  @Convert(converter = RgbColorConverter.class)
   private String newColor;
 
   @Column(name = "user_id", nullable = false)
@@ -0,0 +1,22 @@
+package ua.cn.stu.pixelbattle.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import ua.cn.stu.pixelbattle.util.ColorCodec;
+
+/**
+ * JPA converter storing {@code #RRGGBB} color strings as packed RGB integers.
+ */
+@Converter
+public class RgbColorConverter implements AttributeConverter<String, Integer> {
+
+  @Override
+  public Integer convertToDatabaseColumn(String color) {
+    return color != null ? ColorCodec.toRgb(color) : null;
+  }
+
+  @Override
+  public String convertToEntityAttribute(Integer rgb) {
+    return rgb != null ? ColorCodec.toHex(rgb) : null;
+  }
+}
@@ -0,0 +1,67 @@
+package ua.cn.stu.pixelbattle.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ua.cn.stu.pixelbattle.model.CanvasCheckpoint;
+
+/**
+ * Repository interface for managing {@link CanvasCheckpoint} entities.
+ */
+@Repository
+public interface CanvasCheckpointRepository extends JpaRepository<CanvasCheckpoint, Long> {
+
+  /**
+   * Finds the newest checkpoint covering no history beyond the given ID.
+   *
+   * @param historyId the history ID bound (inclusive)
+   * @return the checkpoint, if any
+   */
+  Optional<CanvasCheckpoint> findFirstByLastHistoryIdLessThanEqualOrderByLastHistoryIdDesc(
+      long historyId);
+
+  /**
+   * Finds the newest checkpoint.
+   *
+   * @return the checkpoint, if any
+   */
+  Optional<CanvasCheckpoint> findFirstByOrderByLastHistoryIdDesc();
+
+  /**
+   * Thins out old checkpoints.
+   *
+   * <p>Keeps the newest {@code keep} checkpoints, the first checkpoint of every hour
+   * created since {@code hourlySince} and the first checkpoint of every day. An hourly
+   * checkpoint is deleted by a later run once it is older than {@code hourlySince},
+   * unless it is also the first of its day. The first checkpoint of a day stays first and
+   * is never deleted, so restoring any moment needs at most a day of replay.</p>
+   *
+   * @param keep        number of newest checkpoints kept unconditionally
+   * @param hourlySince start of the period that keeps hourly checkpoints
+   * @return number of deleted checkpoints
+   */
+  @Modifying
+  @Transactional
+  @Query(value = """
+      DELETE FROM canvas_checkpoint
+      WHERE id NOT IN (
+        SELECT id FROM canvas_checkpoint ORDER BY last_history_id DESC LIMIT :keep
+      )
+      AND id NOT IN (
+        SELECT DISTINCT ON (date_trunc('hour', created_at)) id FROM canvas_checkpoint
+        WHERE created_at >= :hourlySince
+        ORDER BY date_trunc('hour', created_at), last_history_id
+      )
+      AND id NOT IN (
+        SELECT DISTINCT ON (date_trunc('day', created_at)) id FROM canvas_checkpoint
+        ORDER BY date_trunc('day', created_at), last_history_id
+      )
+      """, nativeQuery = true)
+  int deleteThinnedOut(@Param("keep") int keep,
+                       @Param("hourlySince") LocalDateTime hourlySince);
+}
@@ -0,0 +1,139 @@
+package ua.cn.stu.pixelbattle.repository;
+
+import javax.sql.DataSource;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ua.cn.stu.pixelbattle.util.ColorCodec;
+
+/**
+ * Cursor-backed reader for exporting and replaying large ranges of {@code pixel_history}.
+ *
+ * <p>Rows are read with a forward-only result set and a bounded fetch size inside a
+ * read-only transaction, which makes the PostgreSQL driver fetch them through a
+ * server-side cursor instead of materializing the whole range. Each row is handed to
+ * the caller as plain column values, so no entities are created and memory use does
+ * not depend on the size of the range.</p>
+ */
+@Repository
+public class PixelHistoryExportRepository {
+
+  static final int FETCH_SIZE = 1000;
+
+  private static final String SELECT_RANGE = """
+      SELECT id, x, y, new_color FROM pixel_history_all
+      WHERE id > ? AND id <= ?
+      ORDER BY id ASC
+      """;
+
+  private static final String SELECT_CHANGES = """
+      SELECT id, x, y, new_color, user_id FROM pixel_history_all
+      WHERE id > ? AND id <= ?
+      ORDER BY id ASC
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Constructs the {@code PixelHistoryExportRepository}.
+   *
+   * @param dataSource         the application data source
+   * @param transactionManager transaction manager used to open the read-only transaction
+   */
+  public PixelHistoryExportRepository(DataSource dataSource,
+                                      PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  /**
+   * Streams every history row with {@code fromId < id <= toId} in ID order.
+   *
+   * <p>The export is cut off after {@code timeoutMs}: the statement gets a query timeout
+   * and the deadline is also checked for every row, so a timed-out export ends its query
+   * and returns its connection instead of streaming on.</p>
+   *
+   * @param fromId    the ID of the last already exported record (exclusive)
+   * @param toId      the ID of the last record to export (inclusive)
+   * @param timeoutMs maximum duration of the export, in milliseconds
+   * @param handler   callback invoked once per row
+   * @throws QueryTimeoutException if the export runs past its timeout
+   */
+  public void forEachInRange(long fromId, long toId, long timeoutMs, RowHandler handler) {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    transactionTemplate.executeWithoutResult(status ->
+        jdbcTemplate.query(SELECT_RANGE,
+            ps -> {
+              ps.setQueryTimeout((int) Math.max(1, Math.ceil(timeoutMs / 1000.0)));
+              ps.setLong(1, fromId);
+              ps.setLong(2, toId);
+            },
+            (RowCallbackHandler) rs -> {
+              if (System.currentTimeMillis() > deadline) {
+                throw new QueryTimeoutException("History export timed out");
+              }
+              handler.accept(
+                  rs.getLong(1), rs.getInt(2), rs.getInt(3), ColorCodec.toHex(rs.getInt(4)));
+            }));
+  }
+
+  /**
+   * Streams every change with {@code fromId < id <= toId} in ID order, for replaying
+   * onto a board.
+   *
+   * @param fromId  the ID of the last already applied record (exclusive)
+   * @param toId    the ID of the last record to apply (inclusive)
+   * @param handler callback invoked once per row
+   */
+  public void forEachChangeInRange(long fromId, long toId, ChangeHandler handler) {
+    transactionTemplate.executeWithoutResult(status ->
+        jdbcTemplate.query(SELECT_CHANGES,
+            ps -> {
+              ps.setLong(1, fromId);
+              ps.setLong(2, toId);
+            },
+            (RowCallbackHandler) rs -> handler.accept(
+                rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getLong(5))));
+  }
+
+  /**
+   * Callback receiving one exported history row.
+   */
+  @FunctionalInterface
+  public interface RowHandler {
+
+    /**
+     * Handles one row.
+     *
+     * @param id       the history record ID
+     * @param x        the X coordinate
+     * @param y        the Y coordinate
+     * @param newColor the color after the change
+     */
+    void accept(long id, int x, int y, String newColor);
+  }
+
+  /**
+   * Callback receiving one history row for replay.
+   */
+  @FunctionalInterface
+  public interface ChangeHandler {
+
+    /**
+     * Handles one row.
+     *
+     * @param id     the history record ID
+     * @param x      the X coordinate
+     * @param y      the Y coordinate
+     * @param rgb    the color after the change as {@code 0xRRGGBB}
+     * @param userId the ID of the user who made the change, 0 if unknown
+     */
+    void accept(long id, int x, int y, int rgb, long userId);
+  }
+}
@@ -0,0 +1,127 @@
+package ua.cn.stu.pixelbattle.repository;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Repository managing the range partitions of {@code pixel_history}.
+ *
+ * <p>Partitions and their ID bounds are recorded in {@code pixel_history_partitions}.
+ * Hot partitions are attached to {@code pixel_history}; archived ones are moved to
+ * {@code pixel_history_archive}, and both stay readable through the
+ * {@code pixel_history_all} view. Partition names are generated from their bounds and
+ * never come from user input.</p>
+ */
+@Repository
+public class PixelHistoryPartitionRepository {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Constructs the {@code PixelHistoryPartitionRepository}.
+   *
+   * @param jdbcTemplate       JDBC template for DDL and metadata queries
+   * @param transactionManager transaction manager used to make partition moves atomic
+   */
+  public PixelHistoryPartitionRepository(JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Returns the exclusive upper bound of the newest partition.
+   *
+   * @return the highest partition bound, or 0 if there are no partitions
+   */
+  public long findUpperBound() {
+    Long bound = jdbcTemplate.queryForObject(
+        "SELECT COALESCE(MAX(to_id), 0) FROM pixel_history_partitions", Long.class);
+    return bound != null ? bound : 0;
+  }
+
+  /**
+   * Creates a hot partition for IDs in {@code [fromId, toId)}.
+   *
+   * @param fromId the first ID of the partition (inclusive)
+   * @param toId   the upper bound of the partition (exclusive)
+   */
+  public void createPartition(long fromId, long toId) {
+    String name = "pixel_history_" + fromId;
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name
+          + " PARTITION OF pixel_history FOR VALUES FROM (" + fromId + ") TO (" + toId + ")");
+      jdbcTemplate.update("""
+          INSERT INTO pixel_history_partitions (name, from_id, to_id)
+          VALUES (?, ?, ?)
+          ON CONFLICT (name) DO NOTHING
+          """, name, fromId, toId);
+    });
+  }
+
+  /**
+   * Returns the hot partitions whose upper bound is at most {@code id}, oldest first.
+   *
+   * @param id the ID bound
+   * @return the matching partitions
+   */
+  public List<HistoryPartition> findHotPartitionsEndingBefore(long id) {
+    return jdbcTemplate.query("""
+            SELECT name, from_id, to_id FROM pixel_history_partitions
+            WHERE archived_at IS NULL AND to_id <= ?
+            ORDER BY from_id
+            """,
+        (rs, rowNum) -> new HistoryPartition(
+            rs.getString("name"), rs.getLong("from_id"), rs.getLong("to_id")),
+        id);
+  }
+
+  /**
+   * Moves a hot partition to the archive table.
+   *
+   * <p>A validated {@code CHECK} constraint matching the bounds is added first, without
+   * blocking reads or writes, so attaching to the archive does not rescan the partition.
+   * The detach and attach then run in one short transaction, so the rows are visible
+   * through {@code pixel_history_all} at all times.</p>
+   *
+   * @param partition the partition to archive
+   */
+  public void archivePartition(HistoryPartition partition) {
+    String name = partition.getName();
+    String constraint = name + "_id_range";
+    Integer existing = jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, constraint);
+    if (existing == null || existing == 0) {
+      jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + constraint
+          + " CHECK (id >= " + partition.getFromId() + " AND id < " + partition.getToId()
+          + ") NOT VALID");
+    }
+    jdbcTemplate.execute("ALTER TABLE " + name + " VALIDATE CONSTRAINT " + constraint);
+
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.execute("ALTER TABLE pixel_history DETACH PARTITION " + name);
+      jdbcTemplate.execute("ALTER TABLE pixel_history_archive ATTACH PARTITION " + name
+          + " FOR VALUES FROM (" + partition.getFromId() + ") TO (" + partition.getToId()
+          + ")");
+      jdbcTemplate.update(
+          "UPDATE pixel_history_partitions SET archived_at = now() WHERE name = ?", name);
+    });
+  }
+
+  /**
+   * A {@code pixel_history} partition covering IDs in {@code [fromId, toId)}.
+   */
+  @Data
+  @AllArgsConstructor
+  public static class HistoryPartition {
+    private String name;
+    private long fromId;
+    private long toId;
+  }
+}
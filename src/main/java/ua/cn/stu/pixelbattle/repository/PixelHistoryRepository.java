@@ -1,6 +1,7 @@
 package ua.cn.stu.pixelbattle.repository;
 
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +15,10 @@ import ua.cn.stu.pixelbattle.model.PixelHistory;
  * <p>Provides methods for retrieving pixel history records with pagination support.
  * Designed for efficient access to large datasets (e.g., millions of records)
  * by fetching data in small chunks instead of loading the entire history at once.
+ *
+ * <p>Reads go through the {@code pixel_history_all} view, which covers both the hot
+ * partitions and the archive; the ID predicates let PostgreSQL prune partitions that
+ * cannot match.
  */
 @Repository
 public interface PixelHistoryRepository extends JpaRepository<PixelHistory, Long> {
@@ -29,7 +34,7 @@ public interface PixelHistoryRepository extends JpaRepository<PixelHistory, Long
    * @return a list of {@link PixelHistory} entries ordered by ID ascending
    */
   @Query(value = """
-            SELECT * FROM pixel_history
+      SELECT * FROM pixel_history_all
       WHERE id > :fromId
       ORDER BY id ASC
       LIMIT :limit
@@ -50,7 +55,7 @@ public interface PixelHistoryRepository extends JpaRepository<PixelHistory, Long
    * @return a list of {@link PixelHistory} entries belonging to the specified user
    */
   @Query(value = """
-      SELECT * FROM pixel_history
+      SELECT * FROM pixel_history_all
       WHERE user_id = :userId AND id > :fromId
       ORDER BY id ASC
       LIMIT :limit
@@ -61,5 +66,46 @@ public interface PixelHistoryRepository extends JpaRepository<PixelHistory, Long
       @Param("limit") int limit
   );
 
+  /**
+   * Retrieves all pixel history records with {@code fromId < id <= toId}.
+   *
+   * <p>Used to build fixed, ID-aligned history blocks.
+   *
+   * @param fromId the ID before the first record of the range (exclusive)
+   * @param toId   the ID of the last record of the range (inclusive)
+   * @return a list of {@link PixelHistory} entries ordered by ID ascending
+   */
+  @Query(value = """
+      SELECT * FROM pixel_history_all
+      WHERE id > :fromId AND id <= :toId
+      ORDER BY id ASC
+      """, nativeQuery = true)
+  List<PixelHistory> findRange(
+      @Param("fromId") long fromId,
+      @Param("toId") long toId);
 
-}
\ No newline at end of file
+  /**
+   * Returns the ID of the newest pixel history record.
+   *
+   * @return the highest record ID, or 0 if the history is empty
+   */
+  @Query(value = "SELECT COALESCE(MAX(id), 0) FROM pixel_history", nativeQuery = true)
+  long findMaxId();
+
+  /**
+   * Retrieves the first pixel history record with an ID of at least {@code id}.
+   *
+   * <p>A single primary key probe; used to search the history by time without an
+   * index on {@code changed_at}.
+   *
+   * @param id the ID to start from (inclusive)
+   * @return the record, or empty if there is none
+   */
+  @Query(value = """
+      SELECT * FROM pixel_history_all
+      WHERE id >= :id
+      ORDER BY id ASC
+      LIMIT 1
+      """, nativeQuery = true)
+  Optional<PixelHistory> findFirstFrom(@Param("id") long id);
+}
@@ -1,12 +1,22 @@
 package ua.cn.stu.pixelbattle.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ua.cn.stu.pixelbattle.dto.TeamMemberDto;
+import ua.cn.stu.pixelbattle.dto.TeamMembershipDto;
 import ua.cn.stu.pixelbattle.model.Team;
 
 /**
  * Repository for accessing Team entities.
- * Provides basic CRUD operations and a method to find a team by its name.
+ * Provides basic CRUD operations, a method to find a team by its name,
+ * an indexed lookup of a user's team and member queries that never load
+ * {@link ua.cn.stu.pixelbattle.model.User} entities.
  */
 public interface TeamRepository extends JpaRepository<Team, Long> {
 
@@ -17,4 +27,90 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
    * @return an Optional containing the team if found, or empty if not
    */
   Optional<Team> findByName(String name);
+
+  /**
+   * Finds the ID of the team a user belongs to.
+   *
+   * <p>Reads only {@code team_members} through its {@code user_id} index, without
+   * loading any team or member.</p>
+   *
+   * @param userId the ID of the user
+   * @return an Optional containing the team ID, or empty if the user is not in a team
+   */
+  @Query(value = "SELECT team_id FROM team_members WHERE user_id = :userId LIMIT 1",
+      nativeQuery = true)
+  Optional<Long> findTeamIdByMemberId(@Param("userId") Long userId);
+
+  /**
+   * Finds the teams of the given users.
+   *
+   * <p>Users that are not in a team are left out of the result.</p>
+   *
+   * @param userIds the IDs of the users
+   * @return one membership per user in a team
+   */
+  @Query("""
+      SELECT new ua.cn.stu.pixelbattle.dto.TeamMembershipDto(m.id, t.id)
+      FROM Team t JOIN t.members m
+      WHERE m.id IN :userIds
+      """)
+  List<TeamMembershipDto> findMemberships(@Param("userIds") Collection<Long> userIds);
+
+  /**
+   * Adds a user to a team with a single {@code team_members} insert, without loading
+   * the team's members.
+   *
+   * @param teamId the ID of the team
+   * @param userId the ID of the user
+   */
+  @Modifying
+  @Query(value = "INSERT INTO team_members (team_id, user_id) VALUES (:teamId, :userId)",
+      nativeQuery = true)
+  void addMember(@Param("teamId") Long teamId, @Param("userId") Long userId);
+
+  /**
+   * Removes a user from a team with a single {@code team_members} delete, without
+   * loading the team's members.
+   *
+   * @param teamId the ID of the team
+   * @param userId the ID of the user
+   * @return the number of removed memberships
+   */
+  @Modifying
+  @Query(value = "DELETE FROM team_members WHERE team_id = :teamId AND user_id = :userId",
+      nativeQuery = true)
+  int removeMember(@Param("teamId") Long teamId, @Param("userId") Long userId);
+
+  /**
+   * Counts the members of a team in the database.
+   *
+   * @param teamId the ID of the team
+   * @return the number of members
+   */
+  @Query(value = "SELECT COUNT(*) FROM team_members WHERE team_id = :teamId",
+      nativeQuery = true)
+  long countMembers(@Param("teamId") Long teamId);
+
+  /**
+   * Retrieves a page of team members with an ID greater than {@code afterId}.
+   *
+   * <p>Keyset pagination over the {@code (team_id, user_id)} primary key; only the ID
+   * and username columns are selected. Pass a {@link Pageable} of page 0 to limit the
+   * result size.</p>
+   *
+   * @param teamId  the ID of the team
+   * @param afterId the ID of the last already retrieved member (exclusive)
+   * @param page    the page size
+   * @return members ordered by user ID ascending
+   */
+  @Query("""
+      SELECT new ua.cn.stu.pixelbattle.dto.TeamMemberDto(m.id, m.username)
+      FROM Team t JOIN t.members m
+      WHERE t.id = :teamId AND m.id > :afterId
+      ORDER BY m.id ASC
+      """)
+  List<TeamMemberDto> findMembersAfter(
+      @Param("teamId") Long teamId,
+      @Param("afterId") long afterId,
+      Pageable page);
 }
@@ -1,7 +1,12 @@
 package ua.cn.stu.pixelbattle.repository;
 
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ua.cn.stu.pixelbattle.model.User;
 
 
@@ -27,4 +32,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
    * @return true if a user with the username exists, false otherwise
    */
   boolean existsByUsername(String username);
+
+  /**
+   * Streams all usernames. Must be consumed inside a transaction and closed.
+   *
+   * @return a stream of usernames, fetched from the database in batches
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT u.username FROM User u")
+  Stream<String> streamAllUsernames();
+
+  /**
+   * Streams the username and placement count of every user who has placed a pixel.
+   * Must be consumed inside a transaction and closed.
+   *
+   * @return a stream of placement counts, fetched from the database in batches
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("""
+      SELECT u.username AS username, u.pixelChangesCount AS pixelChangesCount
+      FROM User u
+      WHERE u.pixelChangesCount > 0
+      """)
+  Stream<PlacementCount> streamPlacementCounts();
+
+  /**
+   * Projection of a user's placement count.
+   */
+  interface PlacementCount {
+
+    /** Returns the username. */
+    String getUsername();
+
+    /** Returns the number of pixels the user has placed. */
+    int getPixelChangesCount();
+  }
 }
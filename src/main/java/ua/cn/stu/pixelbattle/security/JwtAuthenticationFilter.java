@@ -1,5 +1,6 @@
 package ua.cn.stu.pixelbattle.security;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,7 +20,8 @@ import ua.cn.stu.pixelbattle.service.JwtTokenService;
  * <p>This filter extends {@link OncePerRequestFilter}, ensuring that the validation
  * logic runs only once per request. If a valid JWT is found in the
  * {@code Authorization} header, the corresponding {@link CustomUserDetails}
- * is loaded and placed into the {@link SecurityContextHolder}.
+ * is built from the token claims (no database lookup) and placed into the
+ * {@link SecurityContextHolder}.
  **/
 @RequiredArgsConstructor
 @Component
@@ -45,17 +47,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     if (header != null && header.startsWith("Bearer ")) {
       String token = header.substring(7);
       try {
-        if (jwtTokenService.validateToken(token)) {
-          Long userId = jwtTokenService.getUserId(token);
-          CustomUserDetails userDetails = jwtTokenService.loadUserById(userId);
-          UsernamePasswordAuthenticationToken auth =
-              new UsernamePasswordAuthenticationToken(
-                  userDetails,
-                  null,
-                  userDetails.getAuthorities());
+        CustomUserDetails userDetails = jwtTokenService.authenticate(token);
+        UsernamePasswordAuthenticationToken auth =
+            new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
 
-          SecurityContextHolder.getContext().setAuthentication(auth);
-        }
+        SecurityContextHolder.getContext().setAuthentication(auth);
+      } catch (JWTVerificationException ex) {
+        // invalid token: continue unauthenticated, protected endpoints will answer 401
       } catch (Exception ex) {
         res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         res.setContentType("application/json");
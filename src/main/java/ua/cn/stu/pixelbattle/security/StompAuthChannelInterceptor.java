@@ -0,0 +1,103 @@
+package ua.cn.stu.pixelbattle.security;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import ua.cn.stu.pixelbattle.service.JwtTokenService;
+import ua.cn.stu.pixelbattle.service.JwtTokenService.VerifiedToken;
+import ua.cn.stu.pixelbattle.service.WebSocketSessionRegistry;
+
+/**
+ * Channel interceptor that authenticates STOMP sessions.
+ *
+ * <p>The access token is verified once, on the {@code CONNECT} frame
+ * ({@code Authorization: Bearer <token>} native header), and the resulting
+ * {@link CustomUserDetails} principal is bound to the session. Later frames are
+ * authorized from the session alone. Once the token has expired, {@code SEND} frames
+ * are rejected unless they carry a fresh token for the same user, which then extends
+ * the session. Sessions connecting without a token stay anonymous (read-only).</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+  static final String AUTHORIZATION_HEADER = "Authorization";
+  static final String EXPIRES_AT_ATTRIBUTE = "accessTokenExpiresAt";
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  private final JwtTokenService jwtTokenService;
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor =
+        MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (accessor == null) {
+      return message;
+    }
+    if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+      authenticate(accessor);
+    } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+      checkExpiration(accessor);
+    }
+    return message;
+  }
+
+  private void authenticate(StompHeaderAccessor accessor) {
+    String token = extractToken(accessor);
+    if (token == null) {
+      return;
+    }
+    VerifiedToken verified = verify(token);
+    CustomUserDetails userDetails = verified.getDetails();
+    accessor.setUser(new UsernamePasswordAuthenticationToken(
+        userDetails, null, userDetails.getAuthorities()));
+    storeExpiration(accessor, verified);
+  }
+
+  private void checkExpiration(StompHeaderAccessor accessor) {
+    Map<String, Object> attributes = accessor.getSessionAttributes();
+    Object expiresAt = attributes != null ? attributes.get(EXPIRES_AT_ATTRIBUTE) : null;
+    if (!(expiresAt instanceof Long deadline) || System.currentTimeMillis() < deadline) {
+      return;
+    }
+    String token = extractToken(accessor);
+    Long sessionUserId = WebSocketSessionRegistry.resolveUserId(accessor.getUser());
+    VerifiedToken verified = token != null ? verify(token) : null;
+    if (verified == null || !verified.getDetails().getId().equals(sessionUserId)) {
+      throw new MessageDeliveryException("Access token expired or invalid");
+    }
+    storeExpiration(accessor, verified);
+  }
+
+  private VerifiedToken verify(String token) {
+    try {
+      return jwtTokenService.verify(token);
+    } catch (JWTVerificationException ex) {
+      throw new MessageDeliveryException("Access token expired or invalid");
+    }
+  }
+
+  private void storeExpiration(StompHeaderAccessor accessor, VerifiedToken verified) {
+    Map<String, Object> attributes = accessor.getSessionAttributes();
+    if (attributes != null) {
+      attributes.put(EXPIRES_AT_ATTRIBUTE, verified.getExpiresAtMs());
+    }
+  }
+
+  private static String extractToken(StompHeaderAccessor accessor) {
+    String header = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+    if (header == null || !header.startsWith(BEARER_PREFIX)) {
+      return null;
+    }
+    return header.substring(BEARER_PREFIX.length());
+  }
+}
@@ -2,10 +2,10 @@ package ua.cn.stu.pixelbattle.service;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import ua.cn.stu.pixelbattle.dto.AuthRequest;
 import ua.cn.stu.pixelbattle.dto.AuthResponse;
@@ -31,9 +31,10 @@ import ua.cn.stu.pixelbattle.repository.UserRepository;
 @RequiredArgsConstructor
 public class AuthService {
   private final UserRepository userRepo;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingService passwordHashingService;
   private final JwtTokenService jwtTokenService;
   private final RefreshTokenService refreshTokenService;
+  private final UsernameFilterService usernameFilterService;
 
   /**
    * Registers a new user in the system.
@@ -42,13 +43,22 @@ public class AuthService {
    * @throws IllegalArgumentException if the username is already taken
    */
   public void register(RegisterRequest req) {
-    if (userRepo.existsByUsername(req.getUsername())) {
+    String username = req.getUsername();
+    // the database is only asked when the Bloom filter cannot rule the name out
+    if (usernameFilterService.mightBeTaken(username) && userRepo.existsByUsername(username)) {
       throw new IllegalArgumentException("Username already taken");
     }
     User user = new User();
-    user.setUsername(req.getUsername());
-    user.setPasswordHash(passwordEncoder.encode(req.getPassword()));
-    userRepo.save(user);
+    user.setUsername(username);
+    user.setPasswordHash(passwordHashingService.encode(req.getPassword()));
+    try {
+      userRepo.save(user);
+    } catch (DataIntegrityViolationException ex) {
+      // registered concurrently or on another node
+      usernameFilterService.add(username);
+      throw new IllegalArgumentException("Username already taken");
+    }
+    usernameFilterService.add(username);
   }
 
   /**
@@ -63,14 +73,15 @@ public class AuthService {
   public AuthResponse login(AuthRequest req) {
     User user = userRepo.findByUsername(req.getUsername())
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-    if (!passwordEncoder.matches(req.getPassword(), user.getPasswordHash())) {
+    if (!passwordHashingService.matches(req.getPassword(), user.getPasswordHash())) {
       throw new BadCredentialsException("Invalid password");
     }
 
 
     refreshTokenService.deleteByUserId(user.getId());
 
-    String accessToken = jwtTokenService.createToken(user.getUsername(), user.getId());
+    String accessToken =
+        jwtTokenService.createToken(user.getUsername(), user.getId(), user.getRole());
     String refreshToken = refreshTokenService.createRefreshToken(user.getId());
 
     return new AuthResponse(accessToken, refreshToken);
@@ -88,26 +99,31 @@ public class AuthService {
       throw new ApiException("Missing refresh token", HttpStatus.UNAUTHORIZED);
     }
 
-    Long userId = refreshTokenService.verifyExpiration(refreshTokenStr);
-    refreshTokenService.deleteByToken(refreshTokenStr);
+    Long userId = refreshTokenService.consume(refreshTokenStr);
 
     User user = userRepo.findById(userId)
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-    String newAccessToken = jwtTokenService.createToken(user.getUsername(), user.getId());
+    String newAccessToken =
+        jwtTokenService.createToken(user.getUsername(), user.getId(), user.getRole());
     String newRefreshToken = refreshTokenService.createRefreshToken(user.getId());
 
     return new AuthResponse(newAccessToken, newRefreshToken);
   }
 
   /**
-   * Logs out a user by invalidating the provided refresh token.
+   * Logs out a user by invalidating the provided refresh token and revoking the
+   * access token the request was made with.
    *
    * @param refreshTokenStr the refresh token to delete; may be null or blank
+   * @param accessToken     the access token to revoke; may be null or blank
    */
-  public void logout(String refreshTokenStr) {
+  public void logout(String refreshTokenStr, String accessToken) {
     if (refreshTokenStr != null && !refreshTokenStr.isBlank()) {
       refreshTokenService.deleteByToken(refreshTokenStr);
     }
+    if (accessToken != null && !accessToken.isBlank()) {
+      jwtTokenService.revoke(accessToken);
+    }
   }
 }
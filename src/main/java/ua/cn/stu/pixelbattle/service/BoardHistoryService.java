@@ -0,0 +1,144 @@
+package ua.cn.stu.pixelbattle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.config.BoardHistoryProperties;
+import ua.cn.stu.pixelbattle.dto.PixelResponse;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.model.PixelHistory;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+import ua.cn.stu.pixelbattle.util.CanvasState;
+import ua.cn.stu.pixelbattle.util.ColorCodec;
+
+/**
+ * Service reconstructing the board as it looked at any point in its history.
+ *
+ * <p>A board is rebuilt from the nearest earlier canvas checkpoint plus the history
+ * recorded after it. Rebuilt boards are kept in a size-bounded cache keyed by history ID;
+ * concurrent requests for the same moment share one rebuild. Boards within the newest
+ * {@value CanvasCheckpointService#SETTLE_IDS} IDs may still change, because rows below such
+ * an ID may still commit, so they are only cached for {@code history.board.recent-cache-ms}.
+ * At most {@code history.board.max-concurrent-rebuilds} boards are rebuilt at a time;
+ * further requests that miss the caches are rejected with 429.</p>
+ *
+ * <p>A point in time is mapped to the newest history ID recorded at or before it with a
+ * binary search over primary key probes. This relies on IDs growing with
+ * {@code changed_at}, which holds up to the few rows committed concurrently.</p>
+ */
+@Service
+public class BoardHistoryService {
+
+  private static final long CACHE_MAX_BYTES = 64L * 1024 * 1024;
+  private static final long RECENT_CACHE_MAX_BYTES = 16L * 1024 * 1024;
+  private static final int BYTES_PER_CELL = Integer.BYTES + Long.BYTES;
+
+  private final CanvasCheckpointService checkpointService;
+  private final PixelHistoryRepository pixelHistoryRepository;
+  private final BoardHistoryProperties properties;
+  private final AtomicInteger activeRebuilds = new AtomicInteger();
+  private final Cache<Long, CanvasState> boards = Caffeine.newBuilder()
+      .maximumWeight(CACHE_MAX_BYTES)
+      .weigher(BoardHistoryService::weigh)
+      .build();
+  private final Cache<Long, CanvasState> recentBoards;
+
+  /**
+   * Constructs the {@code BoardHistoryService}.
+   *
+   * @param checkpointService      service restoring boards from checkpoints
+   * @param pixelHistoryRepository repository used to resolve history IDs
+   * @param properties             rebuild limit and recent board cache configuration
+   */
+  public BoardHistoryService(CanvasCheckpointService checkpointService,
+                             PixelHistoryRepository pixelHistoryRepository,
+                             BoardHistoryProperties properties) {
+    this.checkpointService = checkpointService;
+    this.pixelHistoryRepository = pixelHistoryRepository;
+    this.properties = properties;
+    this.recentBoards = Caffeine.newBuilder()
+        .maximumWeight(RECENT_CACHE_MAX_BYTES)
+        .weigher(BoardHistoryService::weigh)
+        .expireAfterWrite(Duration.ofMillis(properties.getRecentCacheMs()))
+        .build();
+  }
+
+  /**
+   * Returns the board as it looked at a moment given by time or by history ID.
+   *
+   * <p>Exactly one of the parameters must be set. A history ID beyond the newest record
+   * returns the current board.</p>
+   *
+   * @param time      the moment to show
+   * @param historyId the ID of the newest history record to include
+   * @return the pixels painted at that moment
+   * @throws ApiException if neither or both parameters are set, or the ID is negative
+   *                      (400), or too many boards are being rebuilt (429)
+   */
+  public List<PixelResponse> getBoardAt(Instant time, Long historyId) {
+    if ((time == null) == (historyId == null) || (historyId != null && historyId < 0)) {
+      throw new ApiException("Specify either time or historyId", HttpStatus.BAD_REQUEST);
+    }
+    long maxId = pixelHistoryRepository.findMaxId();
+    long target = historyId != null
+        ? Math.min(historyId, maxId)
+        : findHistoryIdAt(LocalDateTime.ofInstant(time, ZoneId.systemDefault()), maxId);
+
+    Cache<Long, CanvasState> cache = target > maxId - CanvasCheckpointService.SETTLE_IDS
+        ? recentBoards
+        : boards;
+    CanvasState state = cache.get(target, this::rebuild);
+    List<PixelResponse> pixels = new ArrayList<>();
+    for (int y = 0; y < state.getHeight(); y++) {
+      for (int x = 0; x < state.getWidth(); x++) {
+        int color = state.getColor(x, y);
+        if (color != CanvasState.EMPTY) {
+          pixels.add(new PixelResponse(x, y, ColorCodec.toHex(color)));
+        }
+      }
+    }
+    return pixels;
+  }
+
+  private CanvasState rebuild(long historyId) {
+    if (activeRebuilds.incrementAndGet() > properties.getMaxConcurrentRebuilds()) {
+      activeRebuilds.decrementAndGet();
+      throw new ApiException("Too many boards are being rebuilt, please retry later",
+          HttpStatus.TOO_MANY_REQUESTS, properties.getRetryAfterSeconds());
+    }
+    try {
+      return checkpointService.restore(historyId);
+    } finally {
+      activeRebuilds.decrementAndGet();
+    }
+  }
+
+  private static int weigh(Long historyId, CanvasState state) {
+    return state.getWidth() * state.getHeight() * BYTES_PER_CELL;
+  }
+
+  private long findHistoryIdAt(LocalDateTime time, long maxId) {
+    long low = 0;
+    long high = maxId;
+    while (low < high) {
+      long mid = low + (high - low + 1) / 2;
+      Optional<PixelHistory> record = pixelHistoryRepository.findFirstFrom(mid);
+      if (record.isPresent() && !record.get().getChangedAt().isAfter(time)) {
+        // a record beyond high means no IDs in [mid, high] exist, so high is equivalent
+        low = Math.min(record.get().getId(), high);
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,241 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.model.Pixel;
+import ua.cn.stu.pixelbattle.model.User;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+import ua.cn.stu.pixelbattle.repository.UserRepository;
+import ua.cn.stu.pixelbattle.util.CanvasState;
+import ua.cn.stu.pixelbattle.util.ColorCodec;
+
+/**
+ * Service rebuilding the Redis board from the database on startup.
+ *
+ * <p>Placements advance the {@value PixelService#LAST_HISTORY_ID_KEY} marker but never
+ * create it; only a rebuild does. At startup the marker is compared with the newest pixel
+ * history ID: if it is missing (Redis was flushed or lost its data) or lags by more than
+ * {@value #STALE_TOLERANCE} IDs (Redis was restored from an old snapshot), the board is
+ * rebuilt from the newest checkpoint plus the history tail and written back in batches.
+ * Each batch also gives its cells to their painters' current teams in the territory
+ * owner layer and moves the team cell counts accordingly (see {@link TerritoryService}).
+ * One node rebuilds while the others wait for the marker.</p>
+ *
+ * <p>The rebuild first deletes the marker. From then on every placement also records its
+ * cell in {@value PixelService#REBUILD_DIRTY_KEY}, in the same script as the pixel write,
+ * and the batch writes skip recorded cells, so placements made during the rebuild are
+ * never overwritten by the older rebuilt state. The marker is finally set with a
+ * forward-only script that also clears the recorded cells.</p>
+ *
+ * <p>This runs as an {@link ApplicationRunner}, so the application does not report
+ * readiness until the board is consistent.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BoardRecoveryService implements ApplicationRunner {
+
+  static final String LOCK_KEY = "board:recovery:lock";
+  static final long STALE_TOLERANCE = 1000;
+  static final int WRITE_BATCH_SIZE = 10_000;
+
+  // KEYS[1] dirty cells, KEYS[2] owners, KEYS[3] counts, KEYS[4..n] pixels,
+  // ARGV[3i-2..3i] serialized pixel, cell index and team id of the i-th pixel;
+  // skips cells painted since the rebuild started
+  static final RedisScript<Long> WRITE_CELLS_SCRIPT = new DefaultRedisScript<>("""
+      local written = 0
+      for i = 4, #KEYS do
+        if redis.call('SISMEMBER', KEYS[1], KEYS[i]) == 0 then
+          local arg = (i - 4) * 3
+          redis.call('SET', KEYS[i], ARGV[arg + 1])
+          local new = tonumber(ARGV[arg + 3])
+          local old = redis.call('BITFIELD', KEYS[2], 'SET', 'u32', '#' .. ARGV[arg + 2],
+              new)[1]
+          if old ~= new then
+            if old ~= 0 and redis.call('HEXISTS', KEYS[3], old) == 1 then
+              redis.call('HINCRBY', KEYS[3], old, -1)
+            end
+            if new ~= 0 then
+              redis.call('HINCRBY', KEYS[3], new, 1)
+            end
+          end
+          written = written + 1
+        end
+      end
+      return written
+      """, Long.class);
+
+  // KEYS[1] marker, KEYS[2] dirty cells, ARGV[1] history id; only ever moves the marker
+  // forward
+  static final RedisScript<Long> FINISH_SCRIPT = new DefaultRedisScript<>("""
+      local current = tonumber(redis.call('GET', KEYS[1]) or '-1')
+      if tonumber(ARGV[1]) > current then
+        redis.call('SET', KEYS[1], ARGV[1])
+      end
+      redis.call('DEL', KEYS[2])
+      return current
+      """, Long.class);
+
+  private static final int USER_BATCH_SIZE = 1000;
+  private static final Duration LOCK_TTL = Duration.ofMinutes(2);
+  private static final Duration WAIT_TIMEOUT = Duration.ofMinutes(30);
+  private static final long WAIT_STEP_MS = 500;
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final RedisSerializer<Pixel> pixelSerializer;
+  private final PixelHistoryRepository pixelHistoryRepository;
+  private final UserRepository userRepository;
+  private final CanvasCheckpointService checkpointService;
+  private final RedisLockService lockService;
+  private final TeamService teamService;
+
+  /**
+   * Checks the board and rebuilds it if needed before the application becomes ready.
+   *
+   * @param args application arguments, unused
+   * @throws InterruptedException if interrupted while waiting for another node
+   */
+  @Override
+  public void run(ApplicationArguments args) throws InterruptedException {
+    recoverIfNeeded();
+  }
+
+  /**
+   * Rebuilds the board if it is missing or stale.
+   *
+   * <p>If another node is already rebuilding, waits until it finishes.</p>
+   *
+   * @return {@code true} if this node rebuilt the board
+   * @throws InterruptedException if interrupted while waiting for another node
+   * @throws IllegalStateException if another node does not finish within the wait timeout
+   */
+  public boolean recoverIfNeeded() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_TIMEOUT.toMillis();
+    while (!isConsistent(pixelHistoryRepository.findMaxId())) {
+      Optional<RedisLockService.Lease> lock = lockService.tryAcquire(LOCK_KEY, LOCK_TTL);
+      if (lock.isPresent()) {
+        try (RedisLockService.Lease lease = lock.get()) {
+          if (isConsistent(pixelHistoryRepository.findMaxId())) {
+            return false;
+          }
+          rebuild(lease);
+          return true;
+        }
+      }
+      if (System.currentTimeMillis() > deadline) {
+        throw new IllegalStateException("Timed out waiting for board recovery");
+      }
+      Thread.sleep(WAIT_STEP_MS);
+    }
+    return false;
+  }
+
+  private boolean isConsistent(long maxId) {
+    String marker = stringRedisTemplate.opsForValue().get(PixelService.LAST_HISTORY_ID_KEY);
+    return marker != null && Long.parseLong(marker) >= maxId - STALE_TOLERANCE;
+  }
+
+  private void rebuild(RedisLockService.Lease lease) {
+    // placements record their cells from here on, so none of them is overwritten below
+    stringRedisTemplate.delete(PixelService.LAST_HISTORY_ID_KEY);
+    long maxId = pixelHistoryRepository.findMaxId();
+    log.warn("Board in Redis is missing or stale, rebuilding up to history ID {}", maxId);
+    final long started = System.currentTimeMillis();
+    CanvasState state = checkpointService.restore(maxId, lease::keepAlive);
+    Set<Long> userIds = findUserIds(state);
+    Map<Long, String> usernames = new HashMap<>();
+    Map<Long, Long> teamIds = new HashMap<>();
+    forEachBatch(userIds, batch -> {
+      for (User user : userRepository.findAllById(batch)) {
+        usernames.put(user.getId(), user.getUsername());
+      }
+      teamIds.putAll(teamService.findTeamIds(batch));
+    });
+
+    List<String> keys = new ArrayList<>(WRITE_BATCH_SIZE + 3);
+    List<String> values = new ArrayList<>(WRITE_BATCH_SIZE * 3);
+    keys.addAll(List.of(PixelService.REBUILD_DIRTY_KEY, TerritoryService.OWNERS_KEY,
+        TerritoryService.COUNTS_KEY));
+    long written = 0;
+    for (int y = 0; y < state.getHeight(); y++) {
+      for (int x = 0; x < state.getWidth(); x++) {
+        int color = state.getColor(x, y);
+        if (color == CanvasState.EMPTY) {
+          continue;
+        }
+        long userId = state.getUserId(x, y);
+        keys.add("pixel:" + x + ":" + y);
+        values.add(serialize(new Pixel(x, y, ColorCodec.toHex(color),
+            usernames.get(userId), userId != 0 ? userId : null)));
+        values.add(String.valueOf((long) y * state.getWidth() + x));
+        values.add(String.valueOf(teamIds.getOrDefault(userId, 0L)));
+        if (keys.size() - 3 >= WRITE_BATCH_SIZE) {
+          lease.keepAlive();
+          written += writeCells(keys, values);
+        }
+      }
+    }
+    if (keys.size() > 3) {
+      written += writeCells(keys, values);
+    }
+    stringRedisTemplate.execute(FINISH_SCRIPT,
+        List.of(PixelService.LAST_HISTORY_ID_KEY, PixelService.REBUILD_DIRTY_KEY),
+        String.valueOf(maxId));
+    log.info("Rebuilt board: {} pixels in {} ms", written, System.currentTimeMillis() - started);
+  }
+
+  private long writeCells(List<String> keys, List<String> values) {
+    Long written = stringRedisTemplate.execute(
+        WRITE_CELLS_SCRIPT, List.copyOf(keys), values.toArray());
+    keys.subList(3, keys.size()).clear();
+    values.clear();
+    return written != null ? written : 0;
+  }
+
+  private String serialize(Pixel pixel) {
+    return new String(pixelSerializer.serialize(pixel), StandardCharsets.UTF_8);
+  }
+
+  private Set<Long> findUserIds(CanvasState state) {
+    Set<Long> ids = new HashSet<>();
+    for (int y = 0; y < state.getHeight(); y++) {
+      for (int x = 0; x < state.getWidth(); x++) {
+        if (state.getUserId(x, y) != 0) {
+          ids.add(state.getUserId(x, y));
+        }
+      }
+    }
+    return ids;
+  }
+
+  private void forEachBatch(Set<Long> ids, Consumer<List<Long>> action) {
+    List<Long> batch = new ArrayList<>(USER_BATCH_SIZE);
+    for (Long id : ids) {
+      batch.add(id);
+      if (batch.size() >= USER_BATCH_SIZE) {
+        action.accept(List.copyOf(batch));
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      action.accept(List.copyOf(batch));
+    }
+  }
+}
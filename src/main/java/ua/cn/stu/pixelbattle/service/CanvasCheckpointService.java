@@ -0,0 +1,129 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.config.CheckpointProperties;
+import ua.cn.stu.pixelbattle.config.GameProperties;
+import ua.cn.stu.pixelbattle.model.CanvasCheckpoint;
+import ua.cn.stu.pixelbattle.repository.CanvasCheckpointRepository;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryExportRepository;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+import ua.cn.stu.pixelbattle.util.CanvasState;
+
+/**
+ * Service writing and restoring compressed full-board checkpoints.
+ *
+ * <p>Checkpoints are built from the database, not from Redis: each run takes the newest
+ * checkpoint, replays the pixel history recorded since then and stores the result tagged
+ * with the last history ID it covers. A checkpoint therefore always matches the history
+ * exactly, and restoring the board as of any history ID costs one checkpoint read plus a
+ * replay of the history since it. Recent checkpoints are all kept; older ones are thinned
+ * to one per hour and then one per day, so old moments replay at most a day of history.
+ * History newer than the last {@value #SETTLE_IDS} IDs is left for the next run, because
+ * rows may commit out of ID order. Only one node writes checkpoints at a time; its lock
+ * is renewed while the history is replayed, so a long first replay does not let a second
+ * node start the same one.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CanvasCheckpointService {
+
+  static final String LOCK_KEY = "checkpoint:lock";
+  static final long SETTLE_IDS = 1000;
+  private static final Duration LOCK_TTL = Duration.ofMinutes(2);
+
+  private final CanvasCheckpointRepository checkpointRepository;
+  private final PixelHistoryRepository pixelHistoryRepository;
+  private final PixelHistoryExportRepository pixelHistoryExportRepository;
+  private final RedisLockService lockService;
+  private final GameProperties gameProperties;
+  private final CheckpointProperties checkpointProperties;
+
+  /**
+   * Writes a new checkpoint if history was recorded since the previous one.
+   */
+  @Scheduled(fixedRateString = "${checkpoint.interval-ms:300000}")
+  public void createCheckpoint() {
+    Optional<RedisLockService.Lease> lock = lockService.tryAcquire(LOCK_KEY, LOCK_TTL);
+    if (lock.isEmpty()) {
+      return;
+    }
+    try (RedisLockService.Lease lease = lock.get()) {
+      long target = pixelHistoryRepository.findMaxId() - SETTLE_IDS;
+      Optional<CanvasCheckpoint> latest =
+          checkpointRepository.findFirstByOrderByLastHistoryIdDesc();
+      if (target <= latest.map(CanvasCheckpoint::getLastHistoryId).orElse(0L)) {
+        return;
+      }
+      CanvasState state = replay(latest, target, lease::keepAlive);
+      state.setLastHistoryId(target);
+      byte[] data = state.toCompressedBytes();
+      try {
+        checkpointRepository.save(
+            new CanvasCheckpoint(target, state.getWidth(), state.getHeight(), data));
+      } catch (DataIntegrityViolationException e) {
+        log.info("Canvas checkpoint at history ID {} already exists", target);
+        return;
+      }
+      checkpointRepository.deleteThinnedOut(checkpointProperties.getRetained(),
+          LocalDateTime.now().minus(
+              Duration.ofMillis(checkpointProperties.getHourlyRetentionMs())));
+      log.info("Wrote canvas checkpoint at history ID {} ({} bytes)", target, data.length);
+    }
+  }
+
+  /**
+   * Rebuilds the board as of the given history ID.
+   *
+   * <p>Starts from the newest checkpoint at or before {@code historyId} and replays the
+   * remaining history.</p>
+   *
+   * @param historyId the ID of the newest history record to include
+   * @return the board; its last history ID is the newest record actually applied
+   */
+  public CanvasState restore(long historyId) {
+    return restore(historyId, () -> {});
+  }
+
+  /**
+   * Rebuilds the board as of the given history ID, reporting progress while replaying.
+   *
+   * @param historyId the ID of the newest history record to include
+   * @param progress  called for every replayed record, e.g. to renew a lock
+   * @return the board; its last history ID is the newest record actually applied
+   */
+  public CanvasState restore(long historyId, Runnable progress) {
+    return replay(checkpointRepository
+        .findFirstByLastHistoryIdLessThanEqualOrderByLastHistoryIdDesc(historyId), historyId,
+        progress);
+  }
+
+  private CanvasState replay(Optional<CanvasCheckpoint> checkpoint, long historyId,
+      Runnable progress) {
+    int width = gameProperties.getWidth();
+    int height = gameProperties.getHeight();
+    Optional<CanvasCheckpoint> usable =
+        checkpoint.filter(c -> c.getWidth() == width && c.getHeight() == height);
+    if (checkpoint.isPresent() && usable.isEmpty()) {
+      log.warn("Ignoring canvas checkpoint {} made for a different board size",
+          checkpoint.get().getId());
+    }
+    CanvasState state = usable
+        .map(c -> CanvasState.fromCompressedBytes(
+            c.getData(), width, height, c.getLastHistoryId()))
+        .orElseGet(() -> new CanvasState(width, height));
+    pixelHistoryExportRepository.forEachChangeInRange(state.getLastHistoryId(), historyId,
+        (id, x, y, rgb, userId) -> {
+          progress.run();
+          state.apply(id, x, y, rgb, userId);
+        });
+    return state;
+  }
+}
@@ -0,0 +1,58 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.dto.CooldownReadyNotification;
+import ua.cn.stu.pixelbattle.event.CooldownStartedEvent;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel.Timeout;
+
+/**
+ * Service that tells players when their placement cooldown is over.
+ *
+ * <p>When a cooldown starts, a timer is scheduled on the shared
+ * {@link HierarchicalTimingWheel}; on expiry a {@link CooldownReadyNotification} is sent
+ * to {@code /user/queue/cooldown}. Only one timer is kept per user: a newer cooldown
+ * cancels the previous one. Users without an open session on this node are skipped.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class CooldownNotificationService {
+
+  static final String COOLDOWN_DESTINATION = "/queue/cooldown";
+
+  private final HierarchicalTimingWheel timingWheel;
+  private final WebSocketSessionRegistry sessionRegistry;
+
+  private final Map<Long, Timeout> timers = new ConcurrentHashMap<>();
+
+  /**
+   * Schedules the "ready" notification for a user whose cooldown has just started.
+   *
+   * @param event the cooldown start
+   */
+  @EventListener
+  public void onCooldownStarted(CooldownStartedEvent event) {
+    Long userId = event.getUserId();
+    if (!sessionRegistry.isOnline(userId)) {
+      return;
+    }
+    Timeout timeout = timingWheel.schedule(
+        () -> notifyReady(userId), event.getCooldownSeconds(), TimeUnit.SECONDS);
+    Timeout previous = timers.put(userId, timeout);
+    if (previous != null) {
+      previous.cancel();
+    }
+  }
+
+  private void notifyReady(Long userId) {
+    // keep the entry if it has already been replaced by a newer, still pending timer
+    timers.computeIfPresent(userId, (id, timeout) -> timeout.isExpired() ? null : timeout);
+    sessionRegistry.sendToUser(userId, COOLDOWN_DESTINATION,
+        new CooldownReadyNotification(System.currentTimeMillis()));
+  }
+}
@@ -0,0 +1,139 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import ua.cn.stu.pixelbattle.dto.GameStatsResponse;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
+
+/**
+ * Service for live viewer and active-player counters.
+ *
+ * <p>Viewers are the open STOMP sessions. Each node counts its own sessions and
+ * periodically publishes the count into the {@code stats:viewers} Redis hash
+ * (one field per node, with a timestamp so that crashed nodes age out).</p>
+ *
+ * <p>Active players are counted with Redis HyperLogLogs: every accepted placement adds
+ * the user id to a per-minute {@code stats:placers:{epochMinute}} key, and the count for
+ * the rolling window is a single {@code PFCOUNT} over the window's keys. Each key uses
+ * at most 12 KB regardless of how many players there are.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class GameStatsService {
+
+  static final String VIEWERS_KEY = "stats:viewers";
+  static final String PLACERS_KEY_PREFIX = "stats:placers:";
+  static final int ACTIVE_WINDOW_MINUTES = 5;
+  private static final long VIEWERS_STALE_AFTER_MS = 30_000;
+
+  private final StringRedisTemplate redisTemplate;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Set<String> localSessions = ConcurrentHashMap.newKeySet();
+  private final AtomicLong lastExpiredMinute = new AtomicLong(-1);
+
+  /**
+   * Counts a newly connected WebSocket session.
+   *
+   * @param event the STOMP session connected event
+   */
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    if (sessionId != null) {
+      localSessions.add(sessionId);
+    }
+  }
+
+  /**
+   * Stops counting a closed WebSocket session.
+   * Disconnect events may be delivered more than once per session.
+   *
+   * @param event the STOMP session disconnect event
+   */
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    localSessions.remove(event.getSessionId());
+  }
+
+  /**
+   * Adds the placing user to the current minute's HyperLogLog.
+   *
+   * @param event the accepted pixel change
+   */
+  @EventListener
+  public void onPixelChanged(PixelChangedEvent event) {
+    long minute = currentMinute();
+    String key = PLACERS_KEY_PREFIX + minute;
+    redisTemplate.opsForHyperLogLog().add(key, String.valueOf(event.getUserId()));
+
+    long previous = lastExpiredMinute.get();
+    if (previous != minute && lastExpiredMinute.compareAndSet(previous, minute)) {
+      redisTemplate.expire(key, Duration.ofMinutes(ACTIVE_WINDOW_MINUTES + 1L));
+    }
+  }
+
+  /**
+   * Publishes this node's session count so other nodes can include it.
+   */
+  @Scheduled(fixedRate = 5_000)
+  public void publishViewers() {
+    redisTemplate.opsForHash().put(VIEWERS_KEY, nodeId,
+        localSessions.size() + ":" + System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the current viewer and active-player counts.
+   *
+   * @return a {@link GameStatsResponse} with cluster-wide counters
+   */
+  public GameStatsResponse getStats() {
+    return new GameStatsResponse(countViewers(), countActivePlayers(), ACTIVE_WINDOW_MINUTES);
+  }
+
+  private long countViewers() {
+    long now = System.currentTimeMillis();
+    // this node's own count is always taken live rather than from its last report
+    long total = localSessions.size();
+    Map<Object, Object> entries = redisTemplate.opsForHash().entries(VIEWERS_KEY);
+    for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+      if (nodeId.equals(entry.getKey())) {
+        continue;
+      }
+      String[] parts = String.valueOf(entry.getValue()).split(":");
+      long reportedAt = parts.length == 2 ? Long.parseLong(parts[1]) : 0;
+      if (now - reportedAt > VIEWERS_STALE_AFTER_MS) {
+        redisTemplate.opsForHash().delete(VIEWERS_KEY, entry.getKey());
+        continue;
+      }
+      total += Long.parseLong(parts[0]);
+    }
+    return total;
+  }
+
+  private long countActivePlayers() {
+    long minute = currentMinute();
+    String[] keys = new String[ACTIVE_WINDOW_MINUTES];
+    for (int i = 0; i < ACTIVE_WINDOW_MINUTES; i++) {
+      keys[i] = PLACERS_KEY_PREFIX + (minute - i);
+    }
+    Long count = redisTemplate.opsForHyperLogLog().size(keys);
+    return count != null ? count : 0;
+  }
+
+  private static long currentMinute() {
+    return System.currentTimeMillis() / 60_000;
+  }
+}
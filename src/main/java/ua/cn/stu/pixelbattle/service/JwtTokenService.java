@@ -5,7 +5,15 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import ua.cn.stu.pixelbattle.config.JwtProperties;
@@ -24,25 +32,47 @@ import ua.cn.stu.pixelbattle.security.CustomUserDetails;
  *   <li>Create JWT tokens with user claims</li>
  *   <li>Validate tokens and check expiration</li>
  *   <li>Extract username and user ID from tokens</li>
+ *   <li>Authenticate requests from token claims without a database lookup</li>
  *   <li>Load user details by ID for authentication</li>
  * </ul>
+ *
+ * <p>A single {@link JWTVerifier} is shared by all calls. Principals built by
+ * {@link #authenticate(String)} are cached for a short time, keyed by a SHA-256 hash of
+ * the token, so a client reusing its token costs one hash per request. Claims are not
+ * re-read from the database, so a role change takes effect when the user refreshes.</p>
+ *
+ * <p>Every token carries a unique id ({@code jti}). Single tokens are revoked through
+ * {@link TokenRevocationService}, which is consulted on every call, cached or not.</p>
  */
 @Service
 public class JwtTokenService {
 
+  private static final String USER_ID_CLAIM = "userId";
+  private static final String ROLE_CLAIM = "role";
+  private static final String DEFAULT_ROLE = "USER";
+  private static final int PRINCIPAL_CACHE_SIZE = 10_000;
+  private static final Duration PRINCIPAL_CACHE_TTL = Duration.ofSeconds(60);
+
   private final UserRepository userRepository;
+  private final TokenRevocationService tokenRevocationService;
   private final String secretKey;
   private final Algorithm algorithm;
+  private final JWTVerifier verifier;
   private final long expirationMs;
+  private final Cache<String, VerifiedToken> principalCache;
 
   /**
    * Constructs JwtTokenService with properties and initializes signing algorithm.
    *
-   * @param userRepository repository for fetching user data
-   * @param jwtProperties  JWT configuration (secret & expiration)
+   * @param userRepository         repository for fetching user data
+   * @param tokenRevocationService revocation list for single access tokens
+   * @param jwtProperties          JWT configuration (secret & expiration)
    */
-  public JwtTokenService(UserRepository userRepository, JwtProperties jwtProperties) {
+  public JwtTokenService(UserRepository userRepository,
+                         TokenRevocationService tokenRevocationService,
+                         JwtProperties jwtProperties) {
     this.userRepository = userRepository;
+    this.tokenRevocationService = tokenRevocationService;
     this.secretKey = jwtProperties.getSecret();
     this.expirationMs = jwtProperties.getAccessTokenDurationMs();
 
@@ -51,6 +81,11 @@ public class JwtTokenService {
           "JWT secret is not configured. Set JWT_SECRET env or jwt.secret property.");
     }
     this.algorithm = Algorithm.HMAC256(this.secretKey);
+    this.verifier = JWT.require(algorithm).build();
+    this.principalCache = Caffeine.newBuilder()
+        .maximumSize(PRINCIPAL_CACHE_SIZE)
+        .expireAfterWrite(PRINCIPAL_CACHE_TTL)
+        .build();
   }
 
   /**
@@ -58,12 +93,15 @@ public class JwtTokenService {
    *
    * @param username the username to include as subject
    * @param userId   the user ID to include as claim
+   * @param role     the user role to include as claim
    * @return signed JWT string
    */
-  public String createToken(String username, Long userId) {
+  public String createToken(String username, Long userId, String role) {
     return JWT.create()
         .withSubject(username)
-        .withClaim("userId", userId)
+        .withJWTId(UUID.randomUUID().toString())
+        .withClaim(USER_ID_CLAIM, userId)
+        .withClaim(ROLE_CLAIM, role)
         .withIssuedAt(new Date())
         .withExpiresAt(new Date(System.currentTimeMillis() + expirationMs))
         .sign(algorithm);
@@ -77,8 +115,6 @@ public class JwtTokenService {
    */
   public boolean validateToken(String token) {
     try {
-      Algorithm algorithm = Algorithm.HMAC256(secretKey);
-      JWTVerifier verifier = JWT.require(algorithm).build();
       verifier.verify(token);
       return true;
     } catch (JWTVerificationException e) {
@@ -93,10 +129,7 @@ public class JwtTokenService {
    * @return username stored in token
    */
   public String getUsername(String token) {
-    Algorithm algorithm = Algorithm.HMAC256(secretKey);
-    JWTVerifier verifier = JWT.require(algorithm).build();
-    DecodedJWT decodedJwt = verifier.verify(token);
-    return decodedJwt.getSubject();
+    return verifier.verify(token).getSubject();
   }
 
   /**
@@ -106,10 +139,71 @@ public class JwtTokenService {
    * @return user ID as Long
    */
   public Long getUserId(String token) {
-    Algorithm algorithm = Algorithm.HMAC256(secretKey);
-    JWTVerifier verifier = JWT.require(algorithm).build();
+    return verifier.verify(token).getClaim(USER_ID_CLAIM).asLong();
+  }
+
+  /**
+   * Verifies the token once and builds the principal from its claims.
+   *
+   * <p>The returned principal carries id, username and role only; the password hash
+   * and pixel counter are not part of the token.</p>
+   *
+   * @param token JWT token string
+   * @return user details for authentication
+   * @throws JWTVerificationException if the token is invalid, expired or revoked
+   */
+  public CustomUserDetails authenticate(String token) {
+    return verify(token).getDetails();
+  }
+
+  /**
+   * Verifies the token once and returns the principal together with the token expiry.
+   *
+   * @param token JWT token string
+   * @return the verified token
+   * @throws JWTVerificationException if the token is invalid, expired or revoked
+   */
+  public VerifiedToken verify(String token) {
+    String key = hash(token);
+    VerifiedToken cached = principalCache.getIfPresent(key);
+    if (cached != null) {
+      if (cached.expiresAtMs > System.currentTimeMillis()
+          && !tokenRevocationService.isRevoked(cached.jwtId)) {
+        return cached;
+      }
+      principalCache.invalidate(key);
+    }
+
     DecodedJWT decodedJwt = verifier.verify(token);
-    return decodedJwt.getClaim("userId").asLong();
+    Long userId = decodedJwt.getClaim(USER_ID_CLAIM).asLong();
+    if (userId == null || tokenRevocationService.isRevoked(decodedJwt.getId())) {
+      throw new JWTVerificationException("Token has been revoked");
+    }
+    String role = decodedJwt.getClaim(ROLE_CLAIM).asString();
+    CustomUserDetails details = new CustomUserDetails(
+        userId, decodedJwt.getSubject(), null, role != null ? role : DEFAULT_ROLE, 0);
+    VerifiedToken verified = new VerifiedToken(
+        details, decodedJwt.getExpiresAt().getTime(), decodedJwt.getId());
+    principalCache.put(key, verified);
+    return verified;
+  }
+
+  /**
+   * Revokes a single access token on all nodes until it expires.
+   *
+   * <p>Tokens that are already invalid or expired need no revocation and are ignored.</p>
+   *
+   * @param token JWT token string
+   */
+  public void revoke(String token) {
+    DecodedJWT decodedJwt;
+    try {
+      decodedJwt = verifier.verify(token);
+    } catch (JWTVerificationException e) {
+      return;
+    }
+    tokenRevocationService.revoke(decodedJwt.getId(), decodedJwt.getExpiresAt().getTime());
+    principalCache.invalidate(hash(token));
   }
 
   /**
@@ -125,4 +219,54 @@ public class JwtTokenService {
     return new CustomUserDetails(user);
 
   }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * A verified access token: the principal built from its claims and its expiry.
+   */
+  public static final class VerifiedToken {
+    private final CustomUserDetails details;
+    private final long expiresAtMs;
+    private final String jwtId;
+
+    /**
+     * Constructs a {@code VerifiedToken}.
+     *
+     * @param details     the principal built from the token claims
+     * @param expiresAtMs the token expiry in epoch milliseconds
+     * @param jwtId       the token id ({@code jti})
+     */
+    public VerifiedToken(CustomUserDetails details, long expiresAtMs, String jwtId) {
+      this.details = details;
+      this.expiresAtMs = expiresAtMs;
+      this.jwtId = jwtId;
+    }
+
+    /**
+     * Returns the principal built from the token claims.
+     *
+     * @return the user details
+     */
+    public CustomUserDetails getDetails() {
+      return details;
+    }
+
+    /**
+     * Returns the token expiry.
+     *
+     * @return the expiration time in epoch milliseconds
+     */
+    public long getExpiresAtMs() {
+      return expiresAtMs;
+    }
+  }
 }
@@ -0,0 +1,82 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.dto.OverwriteNotification;
+import ua.cn.stu.pixelbattle.dto.PixelResponse;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
+
+/**
+ * Service that tells players when their pixels have been painted over.
+ *
+ * <p>Overwrites are collected per previous owner and flushed once per tick as a single
+ * {@link OverwriteNotification} to {@code /user/queue/overwritten}. Each batch carries
+ * at most {@value #MAX_PIXELS_PER_BATCH} pixels plus the total count, so a griefing
+ * wave costs the victim one small message per tick. Owners without an open session
+ * on this node are skipped at enqueue time.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class OverwriteNotificationService {
+
+  static final String OVERWRITTEN_DESTINATION = "/queue/overwritten";
+  static final int MAX_PIXELS_PER_BATCH = 50;
+
+  private final WebSocketSessionRegistry sessionRegistry;
+
+  private final Map<Long, Batch> pending = new ConcurrentHashMap<>();
+
+  /**
+   * Queues a notification for the previous owner of a recolored pixel.
+   *
+   * @param event the pixel change
+   */
+  @EventListener
+  public void onPixelChanged(PixelChangedEvent event) {
+    Long ownerId = event.getPreviousOwnerId();
+    if (ownerId == null
+        || ownerId.equals(event.getUserId())
+        || !sessionRegistry.isOnline(ownerId)) {
+      return;
+    }
+    PixelResponse pixel = new PixelResponse(
+        event.getCoordinateX(), event.getCoordinateY(), event.getNewColor());
+    pending.compute(ownerId, (id, batch) -> {
+      Batch target = batch != null ? batch : new Batch();
+      target.add(pixel);
+      return target;
+    });
+  }
+
+  /**
+   * Sends one batched notification per affected user.
+   */
+  @Scheduled(fixedRateString = "${notifications.overwrite-tick-ms:1000}")
+  public void flush() {
+    for (Long ownerId : pending.keySet()) {
+      Batch batch = pending.remove(ownerId);
+      if (batch != null) {
+        sessionRegistry.sendToUser(ownerId, OVERWRITTEN_DESTINATION,
+            new OverwriteNotification(batch.pixels, batch.total));
+      }
+    }
+  }
+
+  private static final class Batch {
+    private final List<PixelResponse> pixels = new ArrayList<>();
+    private int total;
+
+    private void add(PixelResponse pixel) {
+      total++;
+      if (pixels.size() < MAX_PIXELS_PER_BATCH) {
+        pixels.add(pixel);
+      }
+    }
+  }
+}
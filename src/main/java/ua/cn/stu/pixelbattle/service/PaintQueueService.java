@@ -0,0 +1,224 @@
+package ua.cn.stu.pixelbattle.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.config.GameProperties;
+import ua.cn.stu.pixelbattle.config.PaintQueueProperties;
+import ua.cn.stu.pixelbattle.dto.PaintQueueResponse;
+import ua.cn.stu.pixelbattle.dto.PixelChangeRequest;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.model.Pixel;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel.Timeout;
+
+/**
+ * Service for server-side paint queues.
+ *
+ * <p>A user can enqueue an ordered list of placements; they are applied one per cooldown
+ * through {@link PixelService#changePixel}, so history, broadcasts and events behave
+ * exactly as for manual placements. Cells that already have the target colour are
+ * skipped without consuming the cooldown.</p>
+ *
+ * <p>Idle users cost nothing: each queued user has at most one pending timer on the
+ * shared {@link HierarchicalTimingWheel}, and only due attempts are handed to a small
+ * worker pool. Queues are kept in memory of the node that accepted them and are lost
+ * on restart.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaintQueueService {
+
+  private final PixelService pixelService;
+  private final HierarchicalTimingWheel timingWheel;
+  private final GameProperties gameProperties;
+  private final PaintQueueProperties paintQueueProperties;
+
+  private final Map<Long, UserQueue> queues = new ConcurrentHashMap<>();
+  private ExecutorService workers;
+
+  /**
+   * Starts the worker pool that applies queued placements.
+   */
+  @PostConstruct
+  public void start() {
+    AtomicInteger counter = new AtomicInteger();
+    workers = Executors.newFixedThreadPool(paintQueueProperties.getWorkerThreads(), runnable -> {
+      Thread thread = new Thread(runnable, "paint-queue-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Stops the worker pool.
+   */
+  @PreDestroy
+  public void stop() {
+    workers.shutdownNow();
+  }
+
+  /**
+   * Appends placements to the user's queue and starts processing it if idle.
+   *
+   * @param userId the ID of the user
+   * @param pixels placements in the order they should be applied
+   * @return the queue state after appending
+   * @throws IllegalArgumentException if a placement is outside the board
+   * @throws ApiException             if the queue would exceed its size limit
+   */
+  public PaintQueueResponse enqueue(Long userId, List<PixelChangeRequest> pixels) {
+    for (PixelChangeRequest pixel : pixels) {
+      if (pixel.getCoordinateX() >= gameProperties.getWidth()
+          || pixel.getCoordinateY() >= gameProperties.getHeight()) {
+        throw new IllegalArgumentException("Coordinates out of bounds");
+      }
+    }
+    int maxSize = paintQueueProperties.getMaxSize();
+    boolean[] started = new boolean[1];
+    UserQueue queue = queues.compute(userId, (id, existing) -> {
+      UserQueue target = existing != null ? existing : new UserQueue();
+      if (target.pending.size() + pixels.size() > maxSize) {
+        throw new ApiException(
+            "Paint queue is limited to " + maxSize + " pixels", HttpStatus.BAD_REQUEST);
+      }
+      target.pending.addAll(pixels);
+      if (!target.active) {
+        target.active = true;
+        started[0] = true;
+      }
+      return target;
+    });
+    if (started[0]) {
+      schedule(userId, queue, pixelService.getRemainingCooldownMillis(userId));
+    }
+    return new PaintQueueResponse(pendingCount(userId, queue));
+  }
+
+  /**
+   * Returns the state of the user's queue.
+   *
+   * @param userId the ID of the user
+   * @return the queue state
+   */
+  public PaintQueueResponse getQueue(Long userId) {
+    UserQueue queue = queues.get(userId);
+    return new PaintQueueResponse(queue != null ? pendingCount(userId, queue) : 0);
+  }
+
+  /**
+   * Drops all queued placements of the user.
+   *
+   * @param userId the ID of the user
+   */
+  public void clear(Long userId) {
+    UserQueue queue = queues.remove(userId);
+    if (queue != null) {
+      Timeout timeout = queue.timeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+    }
+  }
+
+  // applies the first useful placement of the queue, then waits for the next cooldown
+  void attempt(Long userId, UserQueue queue) {
+    while (true) {
+      PixelChangeRequest next = peek(userId, queue);
+      if (next == null) {
+        return;
+      }
+      if (hasColor(next)) {
+        removeHead(userId, queue, next);
+        continue;
+      }
+      try {
+        pixelService.changePixel(
+            next.getCoordinateX(), next.getCoordinateY(), next.getColor(), userId);
+        removeHead(userId, queue, next);
+      } catch (ApiException ex) {
+        if (ex.getStatus() != HttpStatus.TOO_MANY_REQUESTS) {
+          removeHead(userId, queue, next);
+          continue;
+        }
+      } catch (IllegalArgumentException ex) {
+        // user deleted or board resized: drop the whole queue
+        clear(userId);
+        return;
+      } catch (RuntimeException ex) {
+        log.warn("Paint queue attempt for user {} failed: {}", userId, ex.getMessage());
+        schedule(userId, queue, TimeUnit.SECONDS.toMillis(gameProperties.getCooldown()));
+        return;
+      }
+      schedule(userId, queue, pixelService.getRemainingCooldownMillis(userId));
+      return;
+    }
+  }
+
+  private void schedule(Long userId, UserQueue queue, long delayMs) {
+    Runnable task = () -> attempt(userId, queue);
+    if (delayMs <= 0) {
+      workers.execute(task);
+      return;
+    }
+    queue.timeout = timingWheel.schedule(
+        () -> workers.execute(task), delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  private boolean hasColor(PixelChangeRequest request) {
+    Pixel current = pixelService.getPixel(request.getCoordinateX(), request.getCoordinateY());
+    String color = current != null ? current.getColor() : "#FFFFFF";
+    return color.equalsIgnoreCase(request.getColor());
+  }
+
+  // returns the head of the queue; an empty queue is released so the user becomes idle
+  private PixelChangeRequest peek(Long userId, UserQueue queue) {
+    PixelChangeRequest[] head = new PixelChangeRequest[1];
+    queues.computeIfPresent(userId, (id, current) -> {
+      if (current != queue) {
+        return current;
+      }
+      head[0] = current.pending.peekFirst();
+      return head[0] != null ? current : null;
+    });
+    return head[0];
+  }
+
+  private void removeHead(Long userId, UserQueue queue, PixelChangeRequest head) {
+    queues.computeIfPresent(userId, (id, current) -> {
+      if (current == queue && current.pending.peekFirst() == head) {
+        current.pending.pollFirst();
+      }
+      return current;
+    });
+  }
+
+  private int pendingCount(Long userId, UserQueue queue) {
+    int[] size = new int[1];
+    queues.computeIfPresent(userId, (id, current) -> {
+      size[0] = current == queue ? current.pending.size() : 0;
+      return current;
+    });
+    return size[0];
+  }
+
+  // mutated only inside ConcurrentHashMap.compute* for its key
+  static final class UserQueue {
+    private final Deque<PixelChangeRequest> pending = new ArrayDeque<>();
+    private boolean active;
+    private volatile Timeout timeout;
+  }
+}
@@ -0,0 +1,153 @@
+package ua.cn.stu.pixelbattle.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.config.PasswordHashingProperties;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+
+/**
+ * Service that runs password hashing and verification on a dedicated, bounded executor.
+ *
+ * <p>BCrypt is deliberately slow; running it on request threads lets a login storm starve
+ * pixel placement and board reads. Here at most {@code threads} hashes run at a time and at
+ * most {@code queueCapacity} wait. The caller's request thread is parked while it waits, so
+ * the queue is kept small and the wait is capped at {@code maxWaitMs}: when the queue is
+ * full or the wait runs out the call fails with 503 and a {@code Retry-After} hint, and a
+ * login storm holds at most {@code threads + queueCapacity} request threads.</p>
+ *
+ * <p>Metrics: {@code auth.hashing.queue} (time waiting for a thread),
+ * {@code auth.hashing.duration} (BCrypt time, tagged by operation),
+ * {@code auth.hashing.rejected} and the {@code auth.hashing.queue.size} gauge.</p>
+ */
+@Service
+public class PasswordHashingService {
+
+  private final PasswordEncoder passwordEncoder;
+  private final ThreadPoolExecutor executor;
+  private final int retryAfterSeconds;
+  private final long maxWaitMs;
+  private final Timer queueTimer;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejectedCounter;
+
+  /**
+   * Constructs the {@code PasswordHashingService} and starts its executor.
+   *
+   * @param passwordEncoder the encoder doing the actual hashing
+   * @param properties      executor sizing
+   * @param meterRegistry   registry for executor metrics
+   */
+  public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                PasswordHashingProperties properties,
+                                MeterRegistry meterRegistry) {
+    this.passwordEncoder = passwordEncoder;
+    this.retryAfterSeconds = properties.getRetryAfterSeconds();
+    this.maxWaitMs = properties.getMaxWaitMs();
+
+    AtomicInteger counter = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        properties.getThreads(),
+        properties.getThreads(),
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    this.queueTimer = Timer.builder("auth.hashing.queue").register(meterRegistry);
+    this.encodeTimer = Timer.builder("auth.hashing.duration")
+        .tag("operation", "encode").register(meterRegistry);
+    this.matchesTimer = Timer.builder("auth.hashing.duration")
+        .tag("operation", "matches").register(meterRegistry);
+    this.rejectedCounter = Counter.builder("auth.hashing.rejected").register(meterRegistry);
+    Gauge.builder("auth.hashing.queue.size", executor, e -> e.getQueue().size())
+        .register(meterRegistry);
+  }
+
+  /**
+   * Hashes a raw password.
+   *
+   * @param rawPassword the password to hash
+   * @return the encoded password
+   * @throws ApiException with 503 if the hashing queue is full or the wait times out
+   */
+  public String encode(String rawPassword) {
+    return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  /**
+   * Verifies a raw password against a stored hash.
+   *
+   * @param rawPassword     the password to check
+   * @param encodedPassword the stored hash
+   * @return {@code true} if the password matches
+   * @throws ApiException with 503 if the hashing queue is full or the wait times out
+   */
+  public boolean matches(String rawPassword, String encodedPassword) {
+    return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  /**
+   * Stops the hashing executor.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> T run(Timer durationTimer, Callable<T> job) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        queueTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        return durationTimer.recordCallable(job);
+      });
+    } catch (RejectedExecutionException ex) {
+      rejectedCounter.increment();
+      throw busy();
+    }
+
+    try {
+      return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      rejectedCounter.increment();
+      throw busy();
+    } catch (InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw busy();
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Password hashing failed", ex.getCause());
+    }
+  }
+
+  private ApiException busy() {
+    return new ApiException("Authentication is busy, please retry later",
+        HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+  }
+}
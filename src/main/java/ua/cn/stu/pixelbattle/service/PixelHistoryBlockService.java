@@ -0,0 +1,215 @@
+package ua.cn.stu.pixelbattle.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.dto.PixelHistoryDto;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+
+/**
+ * Service serving pixel history in fixed, ID-aligned blocks.
+ *
+ * <p>Block {@code n} holds the records with {@code n * BLOCK_SIZE < id <= (n + 1) * BLOCK_SIZE}.
+ * Because the history is append-only, a block never changes once it is sealed, i.e. once
+ * the newest record is at least a whole block past its end (the margin covers inserts that
+ * commit out of ID order). Sealed blocks are serialized once and kept in Redis, shared by
+ * all nodes, and in a size-bounded local cache, so a rush of replay viewers costs one
+ * database query per block: concurrent misses on a node share one load, and across nodes
+ * only the holder of a short Redis lease queries the database while the others wait for
+ * its result. The unsealed tail block is always read from the database.</p>
+ */
+@Service
+public class PixelHistoryBlockService {
+
+  public static final int BLOCK_SIZE = 1000;
+  static final String BLOCK_KEY_PREFIX = "history:block:";
+  // the seal check computes the ID two blocks past the index, which must not overflow
+  static final long MAX_INDEX = Long.MAX_VALUE / BLOCK_SIZE - 2;
+  private static final Duration REDIS_TTL = Duration.ofDays(1);
+  private static final long LOCAL_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+  private static final String LEASE_SUFFIX = ":lease";
+  private static final Duration LEASE_TTL = Duration.ofSeconds(10);
+  private static final long LEASE_WAIT_MS = 2000;
+  private static final long LEASE_POLL_MS = 50;
+
+  private final PixelHistoryRepository pixelHistoryRepository;
+  private final StringRedisTemplate redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final RedisLockService lockService;
+  private final Cache<Long, byte[]> sealedBlocks = Caffeine.newBuilder()
+      .maximumWeight(LOCAL_CACHE_MAX_BYTES)
+      .weigher((Long index, byte[] body) -> body.length)
+      .build();
+
+  /**
+   * Constructs the {@code PixelHistoryBlockService}.
+   *
+   * @param pixelHistoryRepository repository used to load blocks
+   * @param redisTemplate          Redis template for the shared block cache
+   * @param objectMapper           mapper used to serialize blocks
+   * @param lockService            service for the cluster-wide block load lease
+   */
+  public PixelHistoryBlockService(PixelHistoryRepository pixelHistoryRepository,
+                                  StringRedisTemplate redisTemplate,
+                                  ObjectMapper objectMapper,
+                                  RedisLockService lockService) {
+    this.pixelHistoryRepository = pixelHistoryRepository;
+    this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
+    this.lockService = lockService;
+  }
+
+  /**
+   * Returns the ETag of a sealed block.
+   *
+   * <p>Sealed blocks never change, so the tag depends on the index only and a client
+   * presenting it can be answered without loading the block.</p>
+   *
+   * @param index the block index
+   * @return the quoted ETag
+   */
+  public static String sealedEtag(long index) {
+    return "\"h" + index + "\"";
+  }
+
+  /**
+   * Returns one history block as serialized JSON.
+   *
+   * @param index the block index
+   * @return the block
+   * @throws ApiException if the index is negative or too large
+   */
+  public HistoryBlock getBlock(long index) {
+    if (index < 0 || index > MAX_INDEX) {
+      throw new ApiException("Invalid parameters", HttpStatus.BAD_REQUEST);
+    }
+    // a null load means the block is not sealed yet; Caffeine does not cache it
+    byte[] sealed = sealedBlocks.get(index, this::loadSealed);
+    if (sealed != null) {
+      return new HistoryBlock(sealed, true, sealedEtag(index));
+    }
+    List<PixelHistoryDto> records = findRecords(index);
+    long lastId = records.isEmpty()
+        ? index * BLOCK_SIZE
+        : records.get(records.size() - 1).getId();
+    return new HistoryBlock(serialize(records), false, "\"h" + index + "-" + lastId + "\"");
+  }
+
+  private byte[] loadSealed(long index) {
+    String key = BLOCK_KEY_PREFIX + index;
+    String shared = redisTemplate.opsForValue().get(key);
+    if (shared != null) {
+      return shared.getBytes(StandardCharsets.UTF_8);
+    }
+    if (pixelHistoryRepository.findMaxId() < (index + 2) * BLOCK_SIZE) {
+      return null;
+    }
+    Optional<RedisLockService.Lease> lease =
+        lockService.tryAcquire(key + LEASE_SUFFIX, LEASE_TTL);
+    if (lease.isEmpty()) {
+      shared = awaitShared(key);
+      if (shared != null) {
+        return shared.getBytes(StandardCharsets.UTF_8);
+      }
+    }
+    try {
+      byte[] body = serialize(findRecords(index));
+      redisTemplate.opsForValue().set(
+          key, new String(body, StandardCharsets.UTF_8), REDIS_TTL);
+      return body;
+    } finally {
+      lease.ifPresent(RedisLockService.Lease::close);
+    }
+  }
+
+  private String awaitShared(String key) {
+    long deadline = System.currentTimeMillis() + LEASE_WAIT_MS;
+    try {
+      while (System.currentTimeMillis() < deadline) {
+        Thread.sleep(LEASE_POLL_MS);
+        String shared = redisTemplate.opsForValue().get(key);
+        if (shared != null) {
+          return shared;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // the other node is slow or gone; load the block here instead
+    return null;
+  }
+
+  private List<PixelHistoryDto> findRecords(long index) {
+    long fromId = index * BLOCK_SIZE;
+    return pixelHistoryRepository.findRange(fromId, fromId + BLOCK_SIZE).stream()
+        .map(h -> new PixelHistoryDto(
+            h.getId(), h.getCoordinateX(), h.getCoordinateY(), h.getNewColor()))
+        .toList();
+  }
+
+  private byte[] serialize(List<PixelHistoryDto> records) {
+    try {
+      return objectMapper.writeValueAsBytes(records);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize history block", e);
+    }
+  }
+
+  /**
+   * A serialized history block.
+   */
+  public static final class HistoryBlock {
+    private final byte[] body;
+    private final boolean sealed;
+    private final String etag;
+
+    /**
+     * Constructs a {@code HistoryBlock}.
+     *
+     * @param body   the block as a JSON array
+     * @param sealed whether the block will never change
+     * @param etag   the quoted ETag of this version of the block
+     */
+    public HistoryBlock(byte[] body, boolean sealed, String etag) {
+      this.body = body;
+      this.sealed = sealed;
+      this.etag = etag;
+    }
+
+    /**
+     * Returns the block as a JSON array of {@link PixelHistoryDto}.
+     *
+     * @return the serialized block
+     */
+    public byte[] getBody() {
+      return body;
+    }
+
+    /**
+     * Returns whether the block is complete and will never change.
+     *
+     * @return {@code true} for sealed blocks
+     */
+    public boolean isSealed() {
+      return sealed;
+    }
+
+    /**
+     * Returns the quoted ETag of this version of the block.
+     *
+     * @return the ETag
+     */
+    public String getEtag() {
+      return etag;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.config.HistoryPartitionProperties;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryPartitionRepository;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryPartitionRepository.HistoryPartition;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+
+/**
+ * Service maintaining the ID range partitions of {@code pixel_history}.
+ *
+ * <p>Each run keeps {@code history.partitions.premake} empty partitions ready beyond the
+ * newest history ID, so inserts never hit a missing partition, and moves partitions that
+ * have fallen more than {@code history.partitions.hot-partitions} partitions behind the
+ * newest ID to the archive table. The hot table, its indexes and its vacuum work stay
+ * small while archived history remains readable. Only one node runs maintenance at a
+ * time.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PixelHistoryPartitionService {
+
+  static final String LOCK_KEY = "history:partitions:lock";
+  private static final Duration LOCK_TTL = Duration.ofMinutes(30);
+
+  private final PixelHistoryPartitionRepository partitionRepository;
+  private final PixelHistoryRepository pixelHistoryRepository;
+  private final RedisLockService lockService;
+  private final HistoryPartitionProperties properties;
+
+  /**
+   * Creates upcoming partitions and archives old ones.
+   */
+  @Scheduled(fixedRateString = "${history.partitions.maintenance-ms:3600000}")
+  public void maintain() {
+    Optional<RedisLockService.Lease> lock = lockService.tryAcquire(LOCK_KEY, LOCK_TTL);
+    if (lock.isEmpty()) {
+      return;
+    }
+    try (RedisLockService.Lease lease = lock.get()) {
+      long maxId = pixelHistoryRepository.findMaxId();
+      createUpcomingPartitions(maxId, lease);
+      archiveOldPartitions(maxId, lease);
+    }
+  }
+
+  private void createUpcomingPartitions(long maxId, RedisLockService.Lease lease) {
+    long size = properties.getSize();
+    long target = maxId + size * properties.getPremake();
+    long bound = partitionRepository.findUpperBound();
+    while (bound <= target) {
+      lease.keepAlive();
+      partitionRepository.createPartition(bound, bound + size);
+      log.info("Created pixel_history partition [{}, {})", bound, bound + size);
+      bound += size;
+    }
+  }
+
+  private void archiveOldPartitions(long maxId, RedisLockService.Lease lease) {
+    long archiveBelow = maxId - properties.getSize() * properties.getHotPartitions();
+    for (HistoryPartition partition
+        : partitionRepository.findHotPartitionsEndingBefore(archiveBelow)) {
+      lease.keepAlive();
+      partitionRepository.archivePartition(partition);
+      log.info("Archived pixel_history partition {}", partition.getName());
+    }
+  }
+}
@@ -1,13 +1,25 @@
 package ua.cn.stu.pixelbattle.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.cn.stu.pixelbattle.config.HistoryExportProperties;
 import ua.cn.stu.pixelbattle.dto.PixelHistoryDto;
 import ua.cn.stu.pixelbattle.exception.ApiException;
 import ua.cn.stu.pixelbattle.model.PixelHistory;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryExportRepository;
 import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
 import ua.cn.stu.pixelbattle.security.CustomUserDetails;
 
@@ -24,7 +36,11 @@ import ua.cn.stu.pixelbattle.security.CustomUserDetails;
 public class PixelHistoryService {
 
   private final PixelHistoryRepository pixelHistoryRepository;
+  private final PixelHistoryExportRepository pixelHistoryExportRepository;
+  private final HistoryExportProperties exportProperties;
+  private final AtomicInteger activeExports = new AtomicInteger();
   private static final int MAX_LIMIT = 10_000;
+  private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
 
   /**
    * Retrieves a list of pixel history records with IDs greater than {@code fromId}.
@@ -88,6 +104,56 @@ public class PixelHistoryService {
         .toList();
   }
 
+  /**
+   * Exports every pixel history record in {@code (fromId, toId]} as NDJSON.
+   *
+   * <p>Each line is one record in the same shape as {@link PixelHistoryDto}. Rows are
+   * written to the response as they are read from the database cursor, so the export
+   * needs constant memory regardless of the range size. Parameters are validated before
+   * the response starts.</p>
+   *
+   * <p>A running export holds a database connection, so at most
+   * {@code history.export.max-concurrent} exports run at a time. The slot is taken here
+   * and released when the returned export has finished writing, or when it is
+   * {@linkplain HistoryExport#close() closed} before it started. The query is stopped
+   * after {@code history.export.timeout-ms}, so a timed-out export gives its slot and
+   * connection back instead of streaming on.</p>
+   *
+   * @param fromId the ID of the last already retrieved record (exclusive)
+   * @param toId   the ID of the last record to export (inclusive), or {@code null} for all
+   * @return the export writing the response body
+   * @throws ApiException if the range is invalid, or with 429 if too many exports are running
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public HistoryExport exportRange(long fromId, Long toId) {
+    if (fromId < 0 || (toId != null && toId < fromId)) {
+      throw new ApiException("Invalid parameters", HttpStatus.BAD_REQUEST);
+    }
+    if (activeExports.incrementAndGet() > exportProperties.getMaxConcurrent()) {
+      activeExports.decrementAndGet();
+      throw new ApiException("Too many exports are running, please retry later",
+          HttpStatus.TOO_MANY_REQUESTS, exportProperties.getRetryAfterSeconds());
+    }
+    long upperId = toId != null ? toId : Long.MAX_VALUE;
+    return new HistoryExport(out -> {
+      Writer writer = new BufferedWriter(
+          new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+      try {
+        pixelHistoryExportRepository.forEachInRange(fromId, upperId,
+            exportProperties.getTimeoutMs(), (id, x, y, newColor) -> {
+              try {
+                writer.write("{\"id\":" + id + ",\"x\":" + x + ",\"y\":" + y
+                    + ",\"new_color\":\"" + newColor + "\"}\n");
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      writer.flush();
+    }, exportProperties.getTimeoutMs(), activeExports::decrementAndGet);
+  }
 
   private PixelHistoryDto toDto(PixelHistory pixelHistory) {
     return new PixelHistoryDto(
@@ -97,5 +163,75 @@ public class PixelHistoryService {
         pixelHistory.getNewColor()
     );
   }
-}
 
+  /**
+   * A pending history export holding one of the export slots.
+   *
+   * <p>The slot is released exactly once: when {@link #writeTo(OutputStream)} returns, or
+   * by {@link #close()} if writing never started.</p>
+   */
+  public static final class HistoryExport implements StreamingResponseBody {
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final StreamingResponseBody body;
+    private final long timeoutMs;
+    private final Runnable release;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+
+    /**
+     * Constructs a {@code HistoryExport}.
+     *
+     * @param body      writer of the export
+     * @param timeoutMs maximum duration of the export, in milliseconds
+     * @param release   action releasing the export slot, run once
+     */
+    public HistoryExport(StreamingResponseBody body, long timeoutMs, Runnable release) {
+      this.body = body;
+      this.timeoutMs = timeoutMs;
+      this.release = release;
+    }
+
+    /**
+     * Writes the export and releases its slot.
+     *
+     * <p>Does nothing if the export was closed before it started.</p>
+     *
+     * @param out the response body
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+      if (!state.compareAndSet(PENDING, RUNNING)) {
+        return;
+      }
+      try {
+        body.writeTo(out);
+      } finally {
+        state.set(DONE);
+        release.run();
+      }
+    }
+
+    /**
+     * Returns the maximum duration of the export.
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getTimeoutMs() {
+      return timeoutMs;
+    }
+
+    /**
+     * Releases the export slot if writing never started; safe to call more than once.
+     *
+     * <p>A running export keeps its slot until its query has ended.</p>
+     */
+    public void close() {
+      if (state.compareAndSet(PENDING, DONE)) {
+        release.run();
+      }
+    }
+  }
+}
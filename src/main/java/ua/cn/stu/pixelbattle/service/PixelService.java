@@ -6,14 +6,19 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.http.HttpStatus;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import ua.cn.stu.pixelbattle.config.GameProperties;
 import ua.cn.stu.pixelbattle.dto.GameInfoResponse;
 import ua.cn.stu.pixelbattle.dto.PixelResponse;
+import ua.cn.stu.pixelbattle.event.CooldownStartedEvent;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
 import ua.cn.stu.pixelbattle.exception.ApiException;
 import ua.cn.stu.pixelbattle.model.Pixel;
 import ua.cn.stu.pixelbattle.model.PixelHistory;
@@ -32,6 +37,11 @@ import ua.cn.stu.pixelbattle.repository.UserRepository;
  *     <li>Track pixel changes in history</li>
  *     <li>Retrieve all pixels from Redis</li>
  * </ul>
+ *
+ * <p>Every accepted change is announced as a {@link PixelChangedEvent} so that
+ * features such as notifications and statistics can react without being wired
+ * into this service. The start of a user's cooldown is announced as a
+ * {@link CooldownStartedEvent}.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -42,9 +52,33 @@ public class PixelService {
   private final UserRepository userRepository;
   private final SimpMessagingTemplate messagingTemplate;
   private final GameProperties gameProperties;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TerritoryService territoryService;
 
   private static final String USER_RATE_KEY_PREFIX = "user:rate:";
 
+  /** Redis key holding the newest pixel history ID applied to the board. */
+  public static final String LAST_HISTORY_ID_KEY = "board:last-history-id";
+
+  /**
+   * Redis set of pixel keys painted while {@link #LAST_HISTORY_ID_KEY} is missing, i.e.
+   * while the board is being rebuilt; the rebuild leaves these cells alone.
+   */
+  public static final String REBUILD_DIRTY_KEY = "board:rebuild:dirty";
+
+  // KEYS[1] marker, ARGV[1] history id; only ever moves the marker forward and never
+  // creates it, so a missing marker keeps flagging the board for a rebuild
+  private static final RedisScript<Long> ADVANCE_MARKER_SCRIPT = new DefaultRedisScript<>("""
+      local current = redis.call('GET', KEYS[1])
+      if not current then
+        return 0
+      end
+      if tonumber(ARGV[1]) > tonumber(current) then
+        redis.call('SET', KEYS[1], ARGV[1])
+      end
+      return tonumber(current)
+      """, Long.class);
+
   /**
    * Retrieves a pixel from Redis by coordinates.
    *
@@ -94,11 +128,13 @@ public class PixelService {
         throw new ApiException(
             "Wait 1 seconds before updating pixel", HttpStatus.TOO_MANY_REQUESTS);
       }
+      eventPublisher.publishEvent(new CooldownStartedEvent(userId, cooldownSeconds));
     }
 
     String key = "pixel:" + coordinateX + ":" + coordinateY;
     Pixel old = redisTemplate.opsForValue().get(key);
     String oldColor = old != null ? old.getColor() : "#FFFFFF";
+    final Long previousOwnerId = old != null ? old.getUserId() : null;
 
     // if old color is the same then ignore
     if (oldColor.equalsIgnoreCase(newColor)) {
@@ -110,17 +146,41 @@ public class PixelService {
     PixelHistory history = new PixelHistory(
         coordinateX,
         coordinateY,
-        oldColor,
         newColor,
         user.getId());
 
     pixelHistoryRepository.save(history);
 
-    Pixel newPixel = new Pixel(coordinateX, coordinateY, newColor, user.getUsername());
-    redisTemplate.opsForValue().set(key, newPixel);
+    Pixel newPixel = new Pixel(
+        coordinateX, coordinateY, newColor, user.getUsername(), user.getId());
+    territoryService.paintCell(key, newPixel);
+    if (history.getId() != null) {
+      stringRedisTemplate.execute(ADVANCE_MARKER_SCRIPT,
+          List.of(LAST_HISTORY_ID_KEY), String.valueOf(history.getId()));
+    }
 
     PixelResponse response = new PixelResponse(coordinateX, coordinateY, newColor);
     messagingTemplate.convertAndSend("/topic/pixels", response);
+
+    eventPublisher.publishEvent(new PixelChangedEvent(
+        coordinateX,
+        coordinateY,
+        oldColor,
+        newColor,
+        user.getId(),
+        user.getUsername(),
+        previousOwnerId));
+  }
+
+  /**
+   * Returns how long the user still has to wait before the next placement.
+   *
+   * @param userId the ID of the user
+   * @return remaining cooldown in milliseconds, 0 if the user may place now
+   */
+  public long getRemainingCooldownMillis(Long userId) {
+    Long ttl = stringRedisTemplate.getExpire(USER_RATE_KEY_PREFIX + userId, TimeUnit.MILLISECONDS);
+    return ttl != null && ttl > 0 ? ttl : 0;
   }
 
   /**
@@ -0,0 +1,176 @@
+package ua.cn.stu.pixelbattle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.cn.stu.pixelbattle.dto.PlayerLeaderboardResponse;
+import ua.cn.stu.pixelbattle.dto.PlayerScoreDto;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
+import ua.cn.stu.pixelbattle.repository.UserRepository;
+
+/**
+ * Service for the real-time player leaderboard.
+ *
+ * <p>Placement counts live in the Redis sorted set {@code leaderboard:players}
+ * (member = username, which is unique and never changes; score = pixels placed), bumped
+ * with one {@code ZINCRBY} per accepted placement. Pages, the caller's rank and the
+ * window around it are O(log N) sorted-set reads; pages are additionally cached on the
+ * node for a couple of seconds, so leaderboard traffic never reaches Postgres.</p>
+ *
+ * <p>The set is seeded once from {@code users.pixel_changes_count} by the first node
+ * that starts against an empty Redis. The database count includes every placement, so
+ * seeding uses {@code ZADD GT}: it raises scores that nodes already running have started
+ * counting from zero, and never lowers a live score.</p>
+ */
+@Service
+public class PlayerLeaderboardService {
+
+  static final String LEADERBOARD_KEY = "leaderboard:players";
+  static final String SEEDED_KEY = "leaderboard:players:seeded";
+  static final int MAX_LIMIT = 100;
+  private static final int SEED_BATCH_SIZE = 1000;
+  private static final int PAGE_CACHE_SIZE = 1000;
+  private static final Duration PAGE_CACHE_TTL = Duration.ofSeconds(2);
+
+  // KEYS[1] leaderboard, ARGV score/member pairs
+  private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>(
+      "return redis.call('ZADD', KEYS[1], 'GT', unpack(ARGV))", Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final UserRepository userRepository;
+  private final Cache<String, Page> pageCache = Caffeine.newBuilder()
+      .maximumSize(PAGE_CACHE_SIZE)
+      .expireAfterWrite(PAGE_CACHE_TTL)
+      .build();
+
+  /**
+   * Constructs the {@code PlayerLeaderboardService}.
+   *
+   * @param redisTemplate  Redis template for the sorted set
+   * @param userRepository repository used to seed the sorted set
+   */
+  public PlayerLeaderboardService(StringRedisTemplate redisTemplate,
+                                  UserRepository userRepository) {
+    this.redisTemplate = redisTemplate;
+    this.userRepository = userRepository;
+  }
+
+  /**
+   * Counts a placement for the placing user.
+   *
+   * @param event the pixel change
+   */
+  @EventListener
+  public void onPixelChanged(PixelChangedEvent event) {
+    if (event.getUsername() != null) {
+      redisTemplate.opsForZSet().incrementScore(LEADERBOARD_KEY, event.getUsername(), 1);
+    }
+  }
+
+  /**
+   * Seeds the sorted set from the users table if no node has done it yet.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void seed() {
+    if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(SEEDED_KEY, "1"))) {
+      return;
+    }
+    List<String> batch = new ArrayList<>(2 * SEED_BATCH_SIZE);
+    try (Stream<UserRepository.PlacementCount> counts = userRepository.streamPlacementCounts()) {
+      counts.forEach(count -> {
+        batch.add(String.valueOf(count.getPixelChangesCount()));
+        batch.add(count.getUsername());
+        if (batch.size() >= 2 * SEED_BATCH_SIZE) {
+          seedBatch(batch);
+          batch.clear();
+        }
+      });
+    }
+    if (!batch.isEmpty()) {
+      seedBatch(batch);
+    }
+  }
+
+  private void seedBatch(List<String> scoresAndMembers) {
+    redisTemplate.execute(SEED_SCRIPT, List.of(LEADERBOARD_KEY), scoresAndMembers.toArray());
+  }
+
+  /**
+   * Returns one page of the leaderboard and the caller's position.
+   *
+   * @param offset   number of top entries to skip; ignored when {@code around} is set
+   * @param limit    page size (max 100)
+   * @param around   whether to center the page on the caller instead of using the offset
+   * @param username the caller's username, or {@code null} for anonymous callers
+   * @return the leaderboard page
+   * @throws IllegalArgumentException if the offset is negative or the limit not positive
+   */
+  public PlayerLeaderboardResponse getLeaderboard(
+      long offset, int limit, boolean around, String username) {
+    if (offset < 0 || limit <= 0) {
+      throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+    }
+    int pageSize = Math.min(limit, MAX_LIMIT);
+    PlayerScoreDto me = username != null ? findEntry(username) : null;
+
+    if (around && me != null) {
+      long start = Math.max(0, me.getRank() - 1 - pageSize / 2);
+      Long total = redisTemplate.opsForZSet().zCard(LEADERBOARD_KEY);
+      return new PlayerLeaderboardResponse(
+          range(start, pageSize), me, total != null ? total : 0);
+    }
+    Page page = pageCache.get(offset + ":" + pageSize, key -> {
+      Long total = redisTemplate.opsForZSet().zCard(LEADERBOARD_KEY);
+      return new Page(range(offset, pageSize), total != null ? total : 0);
+    });
+    return new PlayerLeaderboardResponse(page.entries, me, page.total);
+  }
+
+  private PlayerScoreDto findEntry(String username) {
+    Long rank = redisTemplate.opsForZSet().reverseRank(LEADERBOARD_KEY, username);
+    if (rank == null) {
+      return null;
+    }
+    Double score = redisTemplate.opsForZSet().score(LEADERBOARD_KEY, username);
+    return new PlayerScoreDto(rank + 1, username, score != null ? score.longValue() : 0);
+  }
+
+  private List<PlayerScoreDto> range(long start, int count) {
+    Set<TypedTuple<String>> tuples = redisTemplate.opsForZSet()
+        .reverseRangeWithScores(LEADERBOARD_KEY, start, start + count - 1);
+    List<PlayerScoreDto> entries = new ArrayList<>();
+    if (tuples == null) {
+      return entries;
+    }
+    long rank = start;
+    for (TypedTuple<String> tuple : tuples) {
+      rank++;
+      long score = tuple.getScore() != null ? tuple.getScore().longValue() : 0;
+      entries.add(new PlayerScoreDto(rank, tuple.getValue(), score));
+    }
+    return entries;
+  }
+
+  private static final class Page {
+    private final List<PlayerScoreDto> entries;
+    private final long total;
+
+    private Page(List<PlayerScoreDto> entries, long total) {
+      this.entries = entries;
+      this.total = total;
+    }
+  }
+}
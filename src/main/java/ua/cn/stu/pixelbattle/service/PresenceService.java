@@ -0,0 +1,128 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import ua.cn.stu.pixelbattle.config.GameProperties;
+import ua.cn.stu.pixelbattle.config.PresenceProperties;
+import ua.cn.stu.pixelbattle.dto.PresenceFrame;
+
+/**
+ * Service for live cursor presence.
+ *
+ * <p>Clients send cursor positions to {@code /app/cursor} as often as they like; only the
+ * latest position per WebSocket session is kept. On every tick the pending samples are
+ * grouped by board region and published as one compact {@link PresenceFrame} per region
+ * to {@code /topic/presence/{regionX}-{regionY}}, so only clients subscribed to the regions
+ * they are viewing receive them.</p>
+ *
+ * <p>Each tick publishes at most {@code maxCursorsPerRegion} cursors per region and
+ * {@code maxCursorsPerTick} cursors in total, which gives presence a hard bandwidth budget
+ * independent of how fast clients send. Frames are built on the scheduler thread, never on
+ * the pixel placement path.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class PresenceService {
+
+  static final String PRESENCE_TOPIC_PREFIX = "/topic/presence/";
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final PresenceProperties presenceProperties;
+  private final GameProperties gameProperties;
+
+  // sessionId -> latest sample packed as (cursorId << 32 | x << 16 | y)
+  private final Map<String, Long> pendingSamples = new ConcurrentHashMap<>();
+  private final Map<String, Integer> cursorIds = new ConcurrentHashMap<>();
+  private final AtomicInteger cursorIdSequence = new AtomicInteger();
+
+  /**
+   * Records the latest cursor position of a WebSocket session.
+   * Positions outside the board are ignored.
+   *
+   * @param sessionId   the STOMP session id of the sender
+   * @param coordinateX the X coordinate of the cursor
+   * @param coordinateY the Y coordinate of the cursor
+   */
+  public void recordCursor(String sessionId, int coordinateX, int coordinateY) {
+    if (sessionId == null
+        || coordinateX < 0
+        || coordinateX >= gameProperties.getWidth()
+        || coordinateY < 0
+        || coordinateY >= gameProperties.getHeight()) {
+      return;
+    }
+    int cursorId = cursorIds.computeIfAbsent(sessionId,
+        id -> cursorIdSequence.incrementAndGet() & Integer.MAX_VALUE);
+    pendingSamples.put(sessionId, pack(cursorId, coordinateX, coordinateY));
+  }
+
+  /**
+   * Publishes the pending samples as per-region presence frames.
+   */
+  @Scheduled(fixedRateString = "${presence.tick-ms:200}")
+  public void publishFrames() {
+    if (pendingSamples.isEmpty()) {
+      return;
+    }
+    int regionSize = presenceProperties.getRegionSize();
+    int perRegionLimit = presenceProperties.getMaxCursorsPerRegion();
+    int budget = presenceProperties.getMaxCursorsPerTick();
+
+    Map<String, List<Long>> regions = new HashMap<>();
+    Iterator<Map.Entry<String, Long>> it = pendingSamples.entrySet().iterator();
+    while (budget > 0 && it.hasNext()) {
+      long sample = it.next().getValue();
+      // samples over the per-region cap are dropped, a fresher one will follow
+      it.remove();
+
+      int x = (int) (sample >>> 16) & 0xFFFF;
+      int y = (int) sample & 0xFFFF;
+      String region = (x / regionSize) + "-" + (y / regionSize);
+      List<Long> cursors = regions.computeIfAbsent(region, r -> new ArrayList<>());
+      if (cursors.size() < perRegionLimit) {
+        cursors.add(sample);
+        budget--;
+      }
+    }
+
+    regions.forEach((region, samples) -> messagingTemplate.convertAndSend(
+        PRESENCE_TOPIC_PREFIX + region, new PresenceFrame(flatten(samples))));
+  }
+
+  /**
+   * Forgets the cursor of a disconnected session.
+   *
+   * @param event the STOMP session disconnect event
+   */
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    pendingSamples.remove(event.getSessionId());
+    cursorIds.remove(event.getSessionId());
+  }
+
+  private static long pack(int cursorId, int coordinateX, int coordinateY) {
+    return ((long) cursorId << 32) | ((long) coordinateX << 16) | coordinateY;
+  }
+
+  private static int[] flatten(List<Long> samples) {
+    int[] cursors = new int[samples.size() * 3];
+    int i = 0;
+    for (long sample : samples) {
+      cursors[i++] = (int) (sample >>> 32);
+      cursors[i++] = (int) (sample >>> 16) & 0xFFFF;
+      cursors[i++] = (int) sample & 0xFFFF;
+    }
+    return cursors;
+  }
+}
@@ -0,0 +1,103 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service handing out cluster-wide locks backed by Redis.
+ *
+ * <p>A lock is a key set with {@code SET NX PX} to a random token. Renewing and releasing
+ * compare the token and act in one script, so a node whose lock expired can never extend
+ * or delete a lock another node has taken since.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisLockService {
+
+  // KEYS[1] lock, ARGV[1] token, ARGV[2] ttl in ms
+  private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+      if redis.call('GET', KEYS[1]) == ARGV[1] then
+        return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+      end
+      return 0
+      """, Long.class);
+
+  // KEYS[1] lock, ARGV[1] token
+  private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+      if redis.call('GET', KEYS[1]) == ARGV[1] then
+        return redis.call('DEL', KEYS[1])
+      end
+      return 0
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+
+  /**
+   * Takes the lock if no other node holds it.
+   *
+   * @param key the lock key
+   * @param ttl how long the lock is held unless renewed
+   * @return the held lock, or empty if another node holds it
+   */
+  public Optional<Lease> tryAcquire(String key, Duration ttl) {
+    String token = UUID.randomUUID().toString();
+    if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, ttl))) {
+      return Optional.empty();
+    }
+    return Optional.of(new Lease(redisTemplate, key, token, ttl));
+  }
+
+  /**
+   * A held lock. Closing it releases the lock if it is still held by this lease.
+   */
+  public static class Lease implements AutoCloseable {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String key;
+    private final String token;
+    private final Duration ttl;
+    private long renewedAt = System.currentTimeMillis();
+
+    Lease(StringRedisTemplate redisTemplate, String key, String token, Duration ttl) {
+      this.redisTemplate = redisTemplate;
+      this.key = key;
+      this.token = token;
+      this.ttl = ttl;
+    }
+
+    /**
+     * Renews the lock once a third of its TTL has passed since the last renewal.
+     *
+     * <p>Cheap enough to call for every unit of work in a long-running job.</p>
+     *
+     * @throws IllegalStateException if the lock expired and was lost
+     */
+    public void keepAlive() {
+      long now = System.currentTimeMillis();
+      if (now - renewedAt < ttl.toMillis() / 3) {
+        return;
+      }
+      Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key),
+          token, String.valueOf(ttl.toMillis()));
+      if (renewed == null || renewed == 0) {
+        throw new IllegalStateException("Lost lock " + key);
+      }
+      renewedAt = now;
+    }
+
+    /**
+     * Releases the lock if it is still held by this lease.
+     */
+    @Override
+    public void close() {
+      redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+    }
+  }
+}
@@ -1,11 +1,18 @@
 package ua.cn.stu.pixelbattle.service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import ua.cn.stu.pixelbattle.config.JwtProperties;
+import ua.cn.stu.pixelbattle.dto.UserSessionResponse;
 import ua.cn.stu.pixelbattle.repository.UserRepository;
 
 /**
@@ -18,13 +25,38 @@ import ua.cn.stu.pixelbattle.repository.UserRepository;
  *     <li>Find tokens and associated users</li>
  *     <li>Delete tokens individually or by user</li>
  * </ul>
+ *
+ * <p>Each token is stored as {@code refresh:{token} -> userId}. The tokens of a user are
+ * also indexed in the set {@code refresh:user:{userId}}, so revoking all sessions of a
+ * user costs O(tokens of that user) instead of a scan over every session.</p>
+ *
+ * <p>The session endpoint's answer for a token is cached in the hash
+ * {@code session:{token}} with fields {@code id} and {@code username}. The entry never
+ * outlives its refresh token and is deleted together with it on rotation and logout.</p>
  */
 @Service
 public class RefreshTokenService {
 
+  private static final String TOKEN_KEY_PREFIX = "refresh:";
+  private static final String USER_INDEX_KEY_PREFIX = "refresh:user:";
+  private static final String SESSION_KEY_PREFIX = "session:";
+
+  // KEYS[1] refresh token, KEYS[2] session, ARGV[1] id, ARGV[2] username, ARGV[3] max ttl
+  // in ms; caches nothing once the token is gone
+  static final RedisScript<Long> CACHE_SESSION_SCRIPT = new DefaultRedisScript<>("""
+      local remaining = redis.call('PTTL', KEYS[1])
+      if remaining <= 0 then
+        return 0
+      end
+      redis.call('HSET', KEYS[2], 'id', ARGV[1], 'username', ARGV[2])
+      redis.call('PEXPIRE', KEYS[2], math.min(remaining, tonumber(ARGV[3])))
+      return 1
+      """, Long.class);
+
   private final StringRedisTemplate redisTemplate;
   private final UserRepository userRepository;
   private final long refreshTokenDurationMs;
+  private final long sessionCacheTtlMs;
 
   /**
    * Constructs the {@code RefreshTokenService}.
@@ -39,6 +71,7 @@ public class RefreshTokenService {
     this.userRepository = userRepository;
     this.redisTemplate = redisTemplate;
     this.refreshTokenDurationMs = jwtProperties.getRefreshTokenDurationMs();
+    this.sessionCacheTtlMs = jwtProperties.getSessionCacheTtlMs();
   }
 
   /**
@@ -58,8 +91,14 @@ public class RefreshTokenService {
 
     String token = UUID.randomUUID().toString();
     ValueOperations<String, String> ops = redisTemplate.opsForValue();
+    Duration duration = Duration.ofMillis(refreshTokenDurationMs);
 
-    ops.set("refresh:" + token, userId.toString(), Duration.ofMillis(refreshTokenDurationMs));
+    ops.set(TOKEN_KEY_PREFIX + token, userId.toString(), duration);
+
+    // the index lives as long as the newest token of the user
+    String indexKey = USER_INDEX_KEY_PREFIX + userId;
+    redisTemplate.opsForSet().add(indexKey, token);
+    redisTemplate.expire(indexKey, duration);
 
     return token;
   }
@@ -76,7 +115,7 @@ public class RefreshTokenService {
    */
   public Long verifyExpiration(String token) {
     ValueOperations<String, String> ops = redisTemplate.opsForValue();
-    String userId = ops.get("refresh:" + token);
+    String userId = ops.get(TOKEN_KEY_PREFIX + token);
 
     if (userId == null) {
       throw new RuntimeException("Refresh token expired or invalid");
@@ -85,33 +124,94 @@ public class RefreshTokenService {
     return Long.valueOf(userId);
   }
 
+  /**
+   * Atomically verifies and invalidates a refresh token (single {@code GETDEL}).
+   *
+   * <p>Used for rotation: of several concurrent requests presenting the same token,
+   * only one obtains the user ID.
+   *
+   * @param token the refresh token to consume
+   * @return the user ID associated with the token
+   * @throws RuntimeException if the token is expired, invalid or already used
+   */
+  public Long consume(String token) {
+    String userId = redisTemplate.opsForValue().getAndDelete(TOKEN_KEY_PREFIX + token);
+
+    if (userId == null) {
+      throw new RuntimeException("Refresh token expired or invalid");
+    }
+
+    redisTemplate.opsForSet().remove(USER_INDEX_KEY_PREFIX + userId, token);
+    redisTemplate.delete(SESSION_KEY_PREFIX + token);
+    return Long.valueOf(userId);
+  }
+
   /**
    * Deletes a specific refresh token from Redis.
    *
    * @param token the refresh token to delete
    */
   public void deleteByToken(String token) {
-    redisTemplate.delete("refresh:" + token);
+    String userId = redisTemplate.opsForValue().getAndDelete(TOKEN_KEY_PREFIX + token);
+    if (userId != null) {
+      redisTemplate.opsForSet().remove(USER_INDEX_KEY_PREFIX + userId, token);
+    }
+    redisTemplate.delete(SESSION_KEY_PREFIX + token);
   }
 
   /**
    * Deletes all refresh tokens associated with a given user ID.
    *
-   * <p>This method iterates over all stored tokens and removes those matching
-   * the specified user ID. Useful for invalidating all previous sessions
+   * <p>The tokens are read from the user's index and removed together with their cached
+   * sessions and the index in a single {@code DEL}. Useful for invalidating all previous sessions
    * when a user logs in or changes their password.
    *
    * @param userId the ID of the user whose tokens should be deleted
    */
   public void deleteByUserId(Long userId) {
-    var keys = redisTemplate.keys("refresh:*"); // все токены
-    if (keys != null) {
-      keys.forEach(key -> {
-        String value = redisTemplate.opsForValue().get(key);
-        if (value != null && value.equals(userId.toString())) {
-          redisTemplate.delete(key);
-        }
+    String indexKey = USER_INDEX_KEY_PREFIX + userId;
+    Set<String> tokens = redisTemplate.opsForSet().members(indexKey);
+    List<String> keys = new ArrayList<>();
+    if (tokens != null) {
+      tokens.forEach(token -> {
+        keys.add(TOKEN_KEY_PREFIX + token);
+        keys.add(SESSION_KEY_PREFIX + token);
       });
     }
+    keys.add(indexKey);
+    redisTemplate.delete(keys);
+  }
+
+  /**
+   * Returns the cached session for a refresh token with a single {@code HGETALL}.
+   *
+   * @param token the refresh token
+   * @return the cached session, or {@code null} if there is no cache entry
+   */
+  public UserSessionResponse findCachedSession(String token) {
+    Map<Object, Object> fields =
+        redisTemplate.<Object, Object>opsForHash().entries(SESSION_KEY_PREFIX + token);
+    if (fields == null || fields.isEmpty()) {
+      return null;
+    }
+    return new UserSessionResponse(
+        Long.valueOf((String) fields.get("id")), (String) fields.get("username"));
+  }
+
+  /**
+   * Caches the session for a refresh token.
+   *
+   * <p>The entry expires after the configured session cache TTL, or with the refresh
+   * token if that comes first. The token check, {@code HSET} and {@code PEXPIRE} run in
+   * one script, so nothing is cached once the token is gone and a logout racing with a
+   * lookup cannot resurrect the session.</p>
+   *
+   * @param token   the refresh token
+   * @param session the session to cache
+   */
+  public void cacheSession(String token, UserSessionResponse session) {
+    redisTemplate.execute(CACHE_SESSION_SCRIPT,
+        List.of(TOKEN_KEY_PREFIX + token, SESSION_KEY_PREFIX + token),
+        session.getId().toString(), session.getUsername(), String.valueOf(sessionCacheTtlMs));
   }
 }
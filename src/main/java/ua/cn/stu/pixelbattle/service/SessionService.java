@@ -14,6 +14,10 @@ import ua.cn.stu.pixelbattle.model.User;
  *
  * <p>Responsible for validating HTTP-only refresh tokens from cookies
  * and retrieving minimal user information for the frontend.
+ *
+ * <p>The frontend checks the session on every page load, so answers are cached per
+ * refresh token by {@link RefreshTokenService}; a cache hit costs one Redis hash read
+ * and no database query.</p>
  */
 @Service
 @AllArgsConstructor
@@ -30,9 +34,10 @@ public class SessionService {
    * <ol>
    *   <li>Retrieves cookies from the {@link HttpServletRequest}.</li>
    *   <li>Extracts the "refreshToken" cookie.</li>
-   *   <li>Validates the refresh token using {@link RefreshTokenService}.</li>
+   *   <li>Returns the cached session for the token, if any.</li>
+   *   <li>Otherwise validates the refresh token using {@link RefreshTokenService}.</li>
    *   <li>Fetches the corresponding {@link User} from the database.</li>
-   *   <li>If valid, returns a {@link UserSessionResponse} containing
+   *   <li>If valid, caches and returns a {@link UserSessionResponse} containing
    *       the user's id and username.</li>
    *   <li>If any step fails, returns {@code null}.</li>
    * </ol>
@@ -51,6 +56,11 @@ public class SessionService {
       throw new ApiException("Missing refresh token", HttpStatus.UNAUTHORIZED);
     }
 
+    UserSessionResponse cached = refreshTokenService.findCachedSession(refreshToken);
+    if (cached != null) {
+      return cached;
+    }
+
     Long userId = refreshTokenService.verifyExpiration(refreshToken);
     if (userId == null) {
       throw new ApiException("Refresh token invalid or expired", HttpStatus.UNAUTHORIZED);
@@ -59,7 +69,9 @@ public class SessionService {
     User user = userService.getUserById(userId)
         .orElseThrow(() -> new ApiException("User not found", HttpStatus.UNAUTHORIZED));
 
-    return new UserSessionResponse(user.getId(), user.getUsername());
+    UserSessionResponse session = new UserSessionResponse(user.getId(), user.getUsername());
+    refreshTokenService.cacheSession(refreshToken, session);
+    return session;
   }
 
 
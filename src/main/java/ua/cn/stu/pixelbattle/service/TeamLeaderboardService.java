@@ -0,0 +1,176 @@
+package ua.cn.stu.pixelbattle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.dto.TeamLeaderboardResponse;
+import ua.cn.stu.pixelbattle.dto.TeamScoreDelta;
+import ua.cn.stu.pixelbattle.dto.TeamScoreDto;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
+
+/**
+ * Service for the real-time team leaderboard.
+ *
+ * <p>Scores live in the Redis sorted set {@code leaderboard:teams} (member = team ID,
+ * score = pixels placed by team members). A placement only bumps an in-process counter
+ * of the placer's team; once per tick the counters are flushed with one
+ * {@code ZINCRBY} per changed team and the changes are pushed to
+ * {@code /topic/leaderboard/teams}. Top-N and rank queries are O(log N) on the sorted
+ * set; team names come from the {@link TeamService} name cache and the top list is cached
+ * on the node for a couple of seconds, so leaderboard reads do not reach Postgres. Teams
+ * that no longer exist are dropped from the set when they are read.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TeamLeaderboardService {
+
+  static final String LEADERBOARD_KEY = "leaderboard:teams";
+  static final String LEADERBOARD_TOPIC = "/topic/leaderboard/teams";
+  static final int MAX_TOP = 100;
+  private static final Duration TOP_CACHE_TTL = Duration.ofSeconds(2);
+
+  private final StringRedisTemplate redisTemplate;
+  private final TeamService teamService;
+  private final SimpMessagingTemplate messagingTemplate;
+
+  private final Map<Long, AtomicLong> pendingDeltas = new ConcurrentHashMap<>();
+  private final Cache<Integer, List<TeamScoreDto>> topCache = Caffeine.newBuilder()
+      .maximumSize(MAX_TOP)
+      .expireAfterWrite(TOP_CACHE_TTL)
+      .build();
+
+  /**
+   * Counts a placement for the placer's team.
+   *
+   * @param event the pixel change
+   */
+  @EventListener
+  public void onPixelChanged(PixelChangedEvent event) {
+    if (event.getUserId() == null) {
+      return;
+    }
+    teamService.findTeamId(event.getUserId()).ifPresent(teamId ->
+        pendingDeltas.computeIfAbsent(teamId, id -> new AtomicLong()).incrementAndGet());
+  }
+
+  /**
+   * Flushes the counted placements to Redis and pushes the changed scores.
+   *
+   * <p>If Redis fails, the unflushed counts stay in their counters for the next tick and
+   * the scores flushed before the failure are still pushed.</p>
+   */
+  @Scheduled(fixedRateString = "${leaderboard.flush-ms:1000}")
+  public void flush() {
+    List<TeamScoreDelta> deltas = new ArrayList<>();
+    try {
+      pendingDeltas.forEach((teamId, counter) -> {
+        // counters are kept so that a concurrent increment never lands in a removed one
+        long delta = counter.getAndSet(0);
+        if (delta == 0) {
+          return;
+        }
+        Double score;
+        try {
+          score = redisTemplate.opsForZSet()
+              .incrementScore(LEADERBOARD_KEY, teamId.toString(), delta);
+        } catch (RuntimeException e) {
+          counter.addAndGet(delta);
+          throw e;
+        }
+        deltas.add(new TeamScoreDelta(teamId, delta, score != null ? score.longValue() : delta));
+      });
+    } finally {
+      if (!deltas.isEmpty()) {
+        messagingTemplate.convertAndSend(LEADERBOARD_TOPIC, deltas);
+      }
+    }
+  }
+
+  /**
+   * Returns the top teams and the position of the caller's team.
+   *
+   * @param limit  the number of top teams (max 100)
+   * @param userId the caller's ID, or {@code null} for anonymous callers
+   * @return the leaderboard
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  public TeamLeaderboardResponse getLeaderboard(int limit, Long userId) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    List<TeamScoreDto> top = topCache.get(Math.min(limit, MAX_TOP), this::loadTop);
+
+    TeamScoreDto myTeam = null;
+    Optional<Long> teamId = userId != null ? teamService.findTeamId(userId) : Optional.empty();
+    if (teamId.isPresent()) {
+      myTeam = top.stream()
+          .filter(score -> score.getTeamId().equals(teamId.get()))
+          .findFirst()
+          .orElseGet(() -> findScore(teamId.get()));
+    }
+    return new TeamLeaderboardResponse(top, myTeam);
+  }
+
+  private TeamScoreDto findScore(Long teamId) {
+    String member = teamId.toString();
+    Long rank = redisTemplate.opsForZSet().reverseRank(LEADERBOARD_KEY, member);
+    Double score = redisTemplate.opsForZSet().score(LEADERBOARD_KEY, member);
+    if (rank == null || score == null) {
+      return null;
+    }
+    String name = teamService.findTeamNames(List.of(teamId)).get(teamId);
+    return name != null ? new TeamScoreDto(teamId, name, rank + 1, score.longValue()) : null;
+  }
+
+  private List<TeamScoreDto> loadTop(int count) {
+    List<TeamScoreDto> top = new ArrayList<>();
+    // a second read refills the page if deleted teams were dropped by the first one
+    if (readTop(count, top)) {
+      top.clear();
+      readTop(count, top);
+    }
+    return List.copyOf(top);
+  }
+
+  private boolean readTop(int count, List<TeamScoreDto> top) {
+    Set<TypedTuple<String>> tuples = redisTemplate.opsForZSet()
+        .reverseRangeWithScores(LEADERBOARD_KEY, 0, count - 1L);
+    if (tuples == null || tuples.isEmpty()) {
+      return false;
+    }
+    List<Long> ids = tuples.stream().map(tuple -> Long.valueOf(tuple.getValue())).toList();
+    Map<Long, String> names = teamService.findTeamNames(ids);
+
+    List<String> deleted = new ArrayList<>();
+    for (TypedTuple<String> tuple : tuples) {
+      Long id = Long.valueOf(tuple.getValue());
+      String name = names.get(id);
+      if (name == null) {
+        deleted.add(tuple.getValue());
+        continue;
+      }
+      long score = tuple.getScore() != null ? tuple.getScore().longValue() : 0;
+      // ranks are counted among existing teams only
+      top.add(new TeamScoreDto(id, name, top.size() + 1L, score));
+    }
+    if (deleted.isEmpty()) {
+      return false;
+    }
+    redisTemplate.opsForZSet().remove(LEADERBOARD_KEY, deleted.toArray());
+    return true;
+  }
+}
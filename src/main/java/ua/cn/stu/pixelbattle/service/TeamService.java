@@ -1,9 +1,23 @@
 package ua.cn.stu.pixelbattle.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.cn.stu.pixelbattle.dto.TeamInfoResponse;
+import ua.cn.stu.pixelbattle.dto.TeamMemberDto;
+import ua.cn.stu.pixelbattle.dto.TeamMembershipDto;
 import ua.cn.stu.pixelbattle.exception.ApiException;
 import ua.cn.stu.pixelbattle.model.Team;
 import ua.cn.stu.pixelbattle.model.User;
@@ -12,12 +26,46 @@ import ua.cn.stu.pixelbattle.repository.TeamRepository;
 /**
  * Service for managing teams.
  * Handles creation, joining, leaving, and retrieving teams.
+ *
+ * <p>A user's team is found through the unique {@code team_members(user_id)} index, never
+ * by walking all teams, and joins and leaves write single {@code team_members} rows, so
+ * their cost does not depend on the team size. The index also rejects a second team for
+ * a user who passed the membership check concurrently. Read paths go through a short-lived
+ * user to team ID cache that is invalidated once create, join and leave have committed;
+ * membership changes made on other nodes become visible when the entry expires. Create,
+ * join and leave always ask the database.</p>
+ *
+ * <p>Team names never change, so leaderboard and territory reads resolve them through a
+ * second cache; a team deleted on another node disappears from them when its entry
+ * expires.</p>
  */
 @Service
-@RequiredArgsConstructor
 public class TeamService {
 
+  private static final int TEAM_ID_CACHE_SIZE = 100_000;
+  private static final Duration TEAM_ID_CACHE_TTL = Duration.ofSeconds(60);
+  private static final int TEAM_NAME_CACHE_SIZE = 10_000;
+  private static final Duration TEAM_NAME_CACHE_TTL = Duration.ofSeconds(60);
+  private static final int MAX_MEMBERS_PAGE_SIZE = 100;
+
   private final TeamRepository teamRepo;
+  private final Cache<Long, Optional<Long>> teamIdByUser = Caffeine.newBuilder()
+      .maximumSize(TEAM_ID_CACHE_SIZE)
+      .expireAfterWrite(TEAM_ID_CACHE_TTL)
+      .build();
+  private final Cache<Long, Optional<String>> teamNames = Caffeine.newBuilder()
+      .maximumSize(TEAM_NAME_CACHE_SIZE)
+      .expireAfterWrite(TEAM_NAME_CACHE_TTL)
+      .build();
+
+  /**
+   * Constructs the {@code TeamService}.
+   *
+   * @param teamRepo repository for teams and memberships
+   */
+  public TeamService(TeamRepository teamRepo) {
+    this.teamRepo = teamRepo;
+  }
 
   /**
    * Creates a new team with the given name and adds the owner to it.
@@ -29,7 +77,7 @@ public class TeamService {
    */
   @Transactional
   public Team createTeam(String name, User owner) {
-    if (getTeamByMember(owner) != null) {
+    if (teamRepo.findTeamIdByMemberId(owner.getId()).isPresent()) {
       throw new IllegalArgumentException("You are already in a team");
     }
     if (teamRepo.findByName(name).isPresent()) {
@@ -39,8 +87,23 @@ public class TeamService {
     Team team = Team.builder()
         .name(name)
         .build();
-    team.getMembers().add(owner);
-    return teamRepo.save(team);
+    Team saved;
+    try {
+      saved = teamRepo.saveAndFlush(team);
+    } catch (DataIntegrityViolationException ex) {
+      // created concurrently or on another node
+      throw new IllegalArgumentException("Team name already exists");
+    }
+    try {
+      teamRepo.addMember(saved.getId(), owner.getId());
+    } catch (DataIntegrityViolationException ex) {
+      throw new IllegalArgumentException("You are already in a team");
+    }
+    invalidateAfterCommit(() -> {
+      teamIdByUser.invalidate(owner.getId());
+      teamNames.invalidate(saved.getId());
+    });
+    return saved;
   }
 
   /**
@@ -51,19 +114,22 @@ public class TeamService {
    * @throws IllegalArgumentException if the team is not found
    * @throws ApiException             if the user is already in another team
    */
+  @Transactional
   public void joinTeam(User user, String teamName) {
     Team team = teamRepo.findByName(teamName)
         .orElseThrow(() -> new IllegalArgumentException("Team not found"));
 
-    boolean alreadyInTeam = teamRepo.findAll().stream()
-        .anyMatch(t -> t.getMembers().contains(user));
-
-    if (alreadyInTeam) {
+    if (teamRepo.findTeamIdByMemberId(user.getId()).isPresent()) {
       throw new ApiException("User already belongs to another team", HttpStatus.BAD_REQUEST);
     }
 
-    team.getMembers().add(user);
-    teamRepo.save(team);
+    try {
+      teamRepo.addMember(team.getId(), user.getId());
+    } catch (DataIntegrityViolationException ex) {
+      // joined another team concurrently
+      throw new ApiException("User already belongs to another team", HttpStatus.BAD_REQUEST);
+    }
+    invalidateAfterCommit(() -> teamIdByUser.invalidate(user.getId()));
   }
 
   /**
@@ -73,20 +139,36 @@ public class TeamService {
    * @param user the user leaving the team
    * @throws ApiException if the user is not in any team
    */
+  @Transactional
   public void leaveCurrentTeam(User user) {
-    Team currentTeam = teamRepo.findAll().stream()
-        .filter(t -> t.getMembers().contains(user))
-        .findFirst()
+    Long teamId = teamRepo.findTeamIdByMemberId(user.getId())
         .orElseThrow(() -> new ApiException("You are not in any team", HttpStatus.BAD_REQUEST));
 
+    teamRepo.removeMember(teamId, user.getId());
+    boolean deleted = teamRepo.countMembers(teamId) == 0;
+    if (deleted) {
+      teamRepo.deleteById(teamId);
+    }
+    invalidateAfterCommit(() -> {
+      if (deleted) {
+        teamNames.invalidate(teamId);
+      }
+      teamIdByUser.invalidate(user.getId());
+    });
+  }
 
-    currentTeam.getMembers().remove(user);
-
-    if (currentTeam.getMembers().isEmpty()) {
-      teamRepo.delete(currentTeam);
-    } else {
-      teamRepo.save(currentTeam);
+  // a read between the write and the commit would otherwise cache the old membership
+  private void invalidateAfterCommit(Runnable invalidation) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidation.run();
+      return;
     }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        invalidation.run();
+      }
+    });
   }
 
   /**
@@ -96,9 +178,93 @@ public class TeamService {
    * @return the Team entity or null if the user is not in any team
    */
   public Team getTeamByMember(User user) {
-    return teamRepo.findAll().stream()
-        .filter(t -> t.getMembers().contains(user))
-        .findFirst()
+    return findTeamId(user.getId())
+        .flatMap(teamRepo::findById)
         .orElse(null);
   }
+
+  /**
+   * Returns the ID of the team a user belongs to, served from the cache when possible.
+   *
+   * @param userId the ID of the user
+   * @return an Optional containing the team ID, or empty if the user is not in a team
+   */
+  public Optional<Long> findTeamId(Long userId) {
+    return teamIdByUser.get(userId, teamRepo::findTeamIdByMemberId);
+  }
+
+  /**
+   * Returns the teams of the given users, served from the cache when possible.
+   *
+   * <p>Users that are not in a team are left out of the result. Cache misses are loaded
+   * with one query.</p>
+   *
+   * @param userIds the IDs of the users
+   * @return team IDs by user ID
+   */
+  public Map<Long, Long> findTeamIds(Collection<Long> userIds) {
+    Map<Long, Optional<Long>> cached = teamIdByUser.getAll(userIds, missing -> {
+      Map<Long, Optional<Long>> loaded = new HashMap<>();
+      missing.forEach(id -> loaded.put(id, Optional.empty()));
+      for (TeamMembershipDto membership : teamRepo.findMemberships(List.copyOf(missing))) {
+        loaded.put(membership.getUserId(), Optional.of(membership.getTeamId()));
+      }
+      return loaded;
+    });
+    Map<Long, Long> teamIds = new HashMap<>();
+    cached.forEach((id, teamId) -> teamId.ifPresent(value -> teamIds.put(id, value)));
+    return teamIds;
+  }
+
+  /**
+   * Returns the names of the given teams, served from the cache when possible.
+   *
+   * <p>Teams missing from the database are left out of the result. Cache misses are
+   * loaded with one query.</p>
+   *
+   * @param teamIds the IDs of the teams
+   * @return team names by team ID
+   */
+  public Map<Long, String> findTeamNames(Collection<Long> teamIds) {
+    Map<Long, Optional<String>> cached = teamNames.getAll(teamIds, missing -> {
+      Map<Long, Optional<String>> loaded = new HashMap<>();
+      missing.forEach(id -> loaded.put(id, Optional.empty()));
+      for (Team team : teamRepo.findAllById(List.copyOf(missing))) {
+        loaded.put(team.getId(), Optional.of(team.getName()));
+      }
+      return loaded;
+    });
+    Map<Long, String> names = new HashMap<>();
+    cached.forEach((id, name) -> name.ifPresent(value -> names.put(id, value)));
+    return names;
+  }
+
+  /**
+   * Builds the team info with the member count and one page of members.
+   *
+   * <p>Both are computed by projection queries; member entities are never loaded.</p>
+   *
+   * @param team    the team
+   * @param afterId the ID of the last member of the previous page, 0 for the first page
+   * @param limit   the page size, capped at 100
+   * @return team info with the next page cursor, or {@code null} cursor on the last page
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  public TeamInfoResponse getTeamInfo(Team team, long afterId, int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    int pageSize = Math.min(limit, MAX_MEMBERS_PAGE_SIZE);
+    // one extra row tells whether another page exists
+    List<TeamMemberDto> page =
+        teamRepo.findMembersAfter(team.getId(), afterId, PageRequest.of(0, pageSize + 1));
+    Long nextCursor = null;
+    if (page.size() > pageSize) {
+      page = page.subList(0, pageSize);
+      nextCursor = page.get(pageSize - 1).getId();
+    }
+    List<String> members = page.stream().map(TeamMemberDto::getUsername).toList();
+    return new TeamInfoResponse(team.getName(), team.getCreatedAt(), members,
+        teamRepo.countMembers(team.getId()), nextCursor);
+  }
 }
@@ -0,0 +1,121 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.config.GameProperties;
+import ua.cn.stu.pixelbattle.dto.TeamTerritoryDto;
+import ua.cn.stu.pixelbattle.model.Pixel;
+
+/**
+ * Service tracking how many board cells each team currently owns.
+ *
+ * <p>The owner layer is the Redis string {@code territory:owners}: one unsigned 32-bit
+ * team ID per cell at index {@code y * width + x} (0 = no team), 4 bytes per cell.
+ * Per-team cell counts live in the hash {@code territory:counts}. A placement writes the
+ * pixel through {@link #paintCell(String, Pixel)}: one Lua script stores the pixel, swaps
+ * the cell's owner with {@code BITFIELD SET} and moves one cell from the previous owner's
+ * counter to the new one. The board, the owner layer and the counts therefore change
+ * together, whatever the order of concurrent placements on the same cell, and the
+ * territory endpoint is a single {@code HGETALL} over the teams, never a board scan.
+ * While the board is being rebuilt the same script records the painted cell, so the
+ * rebuild does not overwrite it (see {@link BoardRecoveryService}).</p>
+ *
+ * <p>A board rebuild restores the owner layer and the counts together with the pixels,
+ * giving each rebuilt cell to the current team of its painter. Until the first rebuild,
+ * only placements made after this layer was introduced are counted.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TerritoryService {
+
+  static final String OWNERS_KEY = "territory:owners";
+  static final String COUNTS_KEY = "territory:counts";
+  static final String NO_TEAM = "0";
+
+  // KEYS[1] pixel, KEYS[2] owners, KEYS[3] counts, KEYS[4] board marker, KEYS[5] dirty cells,
+  // ARGV[1] serialized pixel, ARGV[2] cell index, ARGV[3] new team id; writes the board
+  // pixel and moves the cell to the new team
+  static final RedisScript<Long> WRITE_PIXEL_SCRIPT = new DefaultRedisScript<>("""
+      redis.call('SET', KEYS[1], ARGV[1])
+      if redis.call('EXISTS', KEYS[4]) == 0 then
+        redis.call('SADD', KEYS[5], KEYS[1])
+      end
+      local old = redis.call('BITFIELD', KEYS[2], 'SET', 'u32', '#' .. ARGV[2], ARGV[3])[1]
+      local new = tonumber(ARGV[3])
+      if old == new then
+        return old
+      end
+      if old ~= 0 and redis.call('HEXISTS', KEYS[3], old) == 1 then
+        redis.call('HINCRBY', KEYS[3], old, -1)
+      end
+      if new ~= 0 then
+        redis.call('HINCRBY', KEYS[3], new, 1)
+      end
+      return old
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final TeamService teamService;
+  private final GameProperties gameProperties;
+  private final RedisSerializer<Pixel> pixelSerializer;
+
+  /**
+   * Writes a pixel to the board and transfers its cell to the painter's team atomically.
+   *
+   * @param pixelKey the Redis key of the pixel
+   * @param pixel    the new pixel
+   */
+  public void paintCell(String pixelKey, Pixel pixel) {
+    String teamId = pixel.getUserId() == null
+        ? NO_TEAM
+        : teamService.findTeamId(pixel.getUserId()).map(String::valueOf).orElse(NO_TEAM);
+    long cell = (long) pixel.getCoordinateY() * gameProperties.getWidth()
+        + pixel.getCoordinateX();
+    redisTemplate.execute(WRITE_PIXEL_SCRIPT, List.of(pixelKey, OWNERS_KEY, COUNTS_KEY,
+            PixelService.LAST_HISTORY_ID_KEY, PixelService.REBUILD_DIRTY_KEY),
+        new String(pixelSerializer.serialize(pixel), StandardCharsets.UTF_8),
+        String.valueOf(cell), teamId);
+  }
+
+  /**
+   * Returns the number of cells each existing team owns, largest territory first.
+   *
+   * <p>Team names come from the {@link TeamService} name cache. Counters of deleted
+   * teams are removed.</p>
+   *
+   * @return per-team cell counts
+   */
+  public List<TeamTerritoryDto> getTerritory() {
+    Map<Object, Object> counts = redisTemplate.opsForHash().entries(COUNTS_KEY);
+    if (counts == null || counts.isEmpty()) {
+      return List.of();
+    }
+    List<Long> ids = counts.keySet().stream().map(id -> Long.valueOf((String) id)).toList();
+    Map<Long, String> names = teamService.findTeamNames(ids);
+
+    List<TeamTerritoryDto> territory = new ArrayList<>();
+    counts.forEach((id, cells) -> {
+      Long teamId = Long.valueOf((String) id);
+      String name = names.get(teamId);
+      if (name == null) {
+        redisTemplate.opsForHash().delete(COUNTS_KEY, id);
+        return;
+      }
+      long owned = Long.parseLong((String) cells);
+      if (owned > 0) {
+        territory.add(new TeamTerritoryDto(teamId, name, owned));
+      }
+    });
+    territory.sort(Comparator.comparingLong(TeamTerritoryDto::getCells).reversed());
+    return territory;
+  }
+}
@@ -0,0 +1,135 @@
+package ua.cn.stu.pixelbattle.service;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ua.cn.stu.pixelbattle.util.BloomFilter;
+
+/**
+ * Revocation list for access tokens, keyed by the token id ({@code jti}).
+ *
+ * <p>A revoked id is stored as {@code revoked:jti:{jti}} with a TTL equal to the token's
+ * remaining lifetime and published on the {@value #CHANNEL} channel. Every node keeps the
+ * published ids in a local Bloom filter, so the check on the request path only goes to
+ * Redis when the filter reports a possible match; for almost all tokens the answer is
+ * "not revoked" without any I/O.</p>
+ *
+ * <p>Entries never need to outlive an access token, so the filter is split into two
+ * generations that rotate once per access-token lifetime. A node that starts up loads the
+ * ids revoked so far with {@code SCAN}.</p>
+ */
+@Service
+public class TokenRevocationService implements MessageListener {
+
+  static final String CHANNEL = "revoked-tokens";
+  private static final String KEY_PREFIX = "revoked:jti:";
+  private static final long EXPECTED_REVOCATIONS = 100_000;
+  private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+
+  private final StringRedisTemplate redisTemplate;
+  private final RedisMessageListenerContainer listenerContainer;
+  private volatile BloomFilter current = newFilter();
+  private volatile BloomFilter previous = newFilter();
+
+  /**
+   * Constructs the {@code TokenRevocationService}.
+   *
+   * @param redisTemplate     Redis template for the revocation keys and publishing
+   * @param listenerContainer container used to subscribe to revocations of other nodes
+   */
+  public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer) {
+    this.redisTemplate = redisTemplate;
+    this.listenerContainer = listenerContainer;
+  }
+
+  /**
+   * Subscribes to revocations published by other nodes.
+   */
+  @PostConstruct
+  public void subscribe() {
+    listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+  }
+
+  /**
+   * Loads the ids revoked before this node started.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+    try (Cursor<String> keys = redisTemplate.scan(options)) {
+      keys.forEachRemaining(key -> current.put(key.substring(KEY_PREFIX.length())));
+    }
+  }
+
+  /**
+   * Revokes an access token until it expires.
+   *
+   * @param jti       the token id
+   * @param expiresAt the token expiration time (epoch milliseconds)
+   */
+  public void revoke(String jti, long expiresAt) {
+    long remainingMs = expiresAt - System.currentTimeMillis();
+    if (jti == null || remainingMs <= 0) {
+      return;
+    }
+    redisTemplate.opsForValue().set(KEY_PREFIX + jti, "1", Duration.ofMillis(remainingMs));
+    current.put(jti);
+    redisTemplate.convertAndSend(CHANNEL, jti);
+  }
+
+  /**
+   * Checks whether a token id has been revoked.
+   *
+   * @param jti the token id, may be null for tokens issued without one
+   * @return {@code true} if the token must be rejected
+   */
+  public boolean isRevoked(String jti) {
+    if (jti == null || !mightBeRevoked(jti)) {
+      return false;
+    }
+    return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + jti));
+  }
+
+  /**
+   * Records a revocation published by any node, including this one.
+   *
+   * @param message the message whose body is the token id
+   * @param pattern the matched pattern, unused
+   */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    current.put(new String(message.getBody(), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Starts a new filter generation and drops the one older than an access-token lifetime.
+   */
+  @Scheduled(fixedRateString = "${jwt.access-token-duration-ms:300000}",
+      initialDelayString = "${jwt.access-token-duration-ms:300000}")
+  public synchronized void rotate() {
+    previous = current;
+    current = newFilter();
+  }
+
+  // current is read first: a rotation in between moves it to previous, where it is still seen
+  private boolean mightBeRevoked(String jti) {
+    BloomFilter newest = current;
+    return newest.mightContain(jti) || previous.mightContain(jti);
+  }
+
+  private static BloomFilter newFilter() {
+    return new BloomFilter(EXPECTED_REVOCATIONS, FALSE_POSITIVE_PROBABILITY);
+  }
+}
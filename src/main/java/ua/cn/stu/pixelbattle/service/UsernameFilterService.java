@@ -0,0 +1,75 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ua.cn.stu.pixelbattle.repository.UserRepository;
+import ua.cn.stu.pixelbattle.util.BloomFilter;
+
+/**
+ * Node-local Bloom filter of taken usernames.
+ *
+ * <p>Lets registration skip the database existence check for names that are definitely
+ * free. The filter is warmed from the users table once the application is ready and
+ * updated on every successful registration on this node. Names registered on other nodes
+ * are not in the local filter, so a "definitely free" answer can be wrong; the unique
+ * constraint on {@code users.username} remains the source of truth. Until warming has
+ * finished every name is reported as possibly taken.</p>
+ */
+@Service
+public class UsernameFilterService {
+
+  private final UserRepository userRepository;
+  private final BloomFilter filter;
+  private volatile boolean ready;
+
+  /**
+   * Constructs the {@code UsernameFilterService}.
+   *
+   * @param userRepository           repository used to warm the filter
+   * @param expectedUsers            number of usernames the filter is sized for
+   * @param falsePositiveProbability target false-positive probability
+   */
+  public UsernameFilterService(
+      UserRepository userRepository,
+      @Value("${username-filter.expected-users:1000000}") long expectedUsers,
+      @Value("${username-filter.false-positive-probability:0.01}")
+      double falsePositiveProbability) {
+    this.userRepository = userRepository;
+    this.filter = new BloomFilter(expectedUsers, falsePositiveProbability);
+  }
+
+  /**
+   * Loads all existing usernames into the filter.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void warmUp() {
+    try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+      usernames.forEach(filter::put);
+    }
+    ready = true;
+  }
+
+  /**
+   * Checks whether a username may already be taken.
+   *
+   * @param username the username to check
+   * @return {@code false} only if the username is definitely not taken
+   */
+  public boolean mightBeTaken(String username) {
+    return !ready || filter.mightContain(username);
+  }
+
+  /**
+   * Records a taken username.
+   *
+   * @param username the username
+   */
+  public void add(String username) {
+    filter.put(username);
+  }
+}
@@ -0,0 +1,133 @@
+package ua.cn.stu.pixelbattle.service;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+
+/**
+ * Node-local registry of STOMP sessions keyed by user id.
+ *
+ * <p>Sessions are registered when the STOMP {@code CONNECTED} frame is sent and carry an
+ * authenticated {@link CustomUserDetails} principal; anonymous sessions are not tracked.
+ * Sending to a user is a single map lookup followed by one message per open session,
+ * addressed through the session-scoped user destination ({@code /user/queue/...}),
+ * so no broadcast or principal-name resolution is involved.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class WebSocketSessionRegistry {
+
+  private final SimpMessagingTemplate messagingTemplate;
+
+  private final Map<Long, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+  private final Map<String, Long> usersBySession = new ConcurrentHashMap<>();
+
+  /**
+   * Registers an authenticated session.
+   *
+   * @param event the STOMP session connected event
+   */
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+    Long userId = resolveUserId(event.getUser());
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    if (userId == null || sessionId == null) {
+      return;
+    }
+    usersBySession.put(sessionId, userId);
+    sessionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+  }
+
+  /**
+   * Removes a closed session.
+   *
+   * @param event the STOMP session disconnect event
+   */
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    Long userId = usersBySession.remove(event.getSessionId());
+    if (userId == null) {
+      return;
+    }
+    sessionsByUser.computeIfPresent(userId, (id, sessions) -> {
+      sessions.remove(event.getSessionId());
+      return sessions.isEmpty() ? null : sessions;
+    });
+  }
+
+  /**
+   * Checks whether the user has at least one open session on this node.
+   *
+   * @param userId the user id
+   * @return {@code true} if the user is connected
+   */
+  public boolean isOnline(Long userId) {
+    return userId != null && sessionsByUser.containsKey(userId);
+  }
+
+  /**
+   * Returns the open session ids of a user on this node.
+   *
+   * @param userId the user id
+   * @return an unmodifiable view of the session ids, empty if none
+   */
+  public Set<String> getSessionIds(Long userId) {
+    Set<String> sessions = userId != null ? sessionsByUser.get(userId) : null;
+    return sessions != null ? Collections.unmodifiableSet(sessions) : Collections.emptySet();
+  }
+
+  /**
+   * Sends a payload to every open session of a user.
+   *
+   * @param userId      the recipient user id
+   * @param destination the user destination without the {@code /user} prefix,
+   *                    e.g. {@code /queue/overwritten}
+   * @param payload     the message payload
+   */
+  public void sendToUser(Long userId, String destination, Object payload) {
+    for (String sessionId : getSessionIds(userId)) {
+      sendToSession(sessionId, destination, payload);
+    }
+  }
+
+  /**
+   * Sends a payload to a single STOMP session.
+   *
+   * @param sessionId   the recipient session id
+   * @param destination the user destination without the {@code /user} prefix
+   * @param payload     the message payload
+   */
+  public void sendToSession(String sessionId, String destination, Object payload) {
+    SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+    headers.setSessionId(sessionId);
+    headers.setLeaveMutable(true);
+    messagingTemplate.convertAndSendToUser(
+        sessionId, destination, payload, headers.getMessageHeaders());
+  }
+
+  /**
+   * Extracts the user id from a STOMP session principal.
+   *
+   * @param principal the session principal, may be {@code null}
+   * @return the user id, or {@code null} for anonymous sessions
+   */
+  public static Long resolveUserId(Principal principal) {
+    if (principal instanceof Authentication auth
+        && auth.getPrincipal() instanceof CustomUserDetails details) {
+      return details.getId();
+    }
+    return null;
+  }
+}
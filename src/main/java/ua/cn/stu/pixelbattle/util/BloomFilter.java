@@ -0,0 +1,95 @@
+package ua.cn.stu.pixelbattle.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, fixed-size Bloom filter for strings.
+ *
+ * <p>{@link #mightContain(String)} never returns {@code false} for a value that was
+ * added; it returns {@code true} for a value that was not added with roughly the
+ * configured false-positive probability, as long as no more than the expected number
+ * of values has been added. Bits are set with lock-free CAS, so concurrent adds and
+ * lookups need no synchronization.</p>
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * Creates a filter sized for the given load.
+   *
+   * @param expectedInsertions    number of values the filter is sized for
+   * @param falsePositiveProbability target false-positive probability, in (0, 1)
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+    if (expectedInsertions <= 0
+        || falsePositiveProbability <= 0
+        || falsePositiveProbability >= 1) {
+      throw new IllegalArgumentException("Invalid Bloom filter parameters");
+    }
+    long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability)
+        / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words * 64;
+    this.hashCount = Math.max(1,
+        (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+  }
+
+  /**
+   * Adds a value to the filter.
+   *
+   * @param value the value to add
+   */
+  public void put(String value) {
+    long hash = hash64(value);
+    long h1 = hash;
+    long h2 = Long.rotateLeft(hash, 32) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long index = Math.floorMod(h1 + i * h2, bitCount);
+      int word = (int) (index >>> 6);
+      long mask = 1L << index;
+      long current = bits.get(word);
+      while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+        current = bits.get(word);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a value may have been added.
+   *
+   * @param value the value to check
+   * @return {@code false} if the value was definitely never added
+   */
+  public boolean mightContain(String value) {
+    long hash = hash64(value);
+    long h1 = hash;
+    long h2 = Long.rotateLeft(hash, 32) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long index = Math.floorMod(h1 + i * h2, bitCount);
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // FNV-1a over UTF-8 bytes followed by the MurmurHash3 finalizer
+  private static long hash64(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,192 @@
+package ua.cn.stu.pixelbattle.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * In-memory image of the whole board as of a given pixel history ID.
+ *
+ * <p>Each cell holds its packed RGB color (or {@link #EMPTY} if it was never painted)
+ * and the ID of the user who painted it last (0 if unknown). The state serializes to a
+ * deflated byte array: all colors as 4-byte integers followed by all user IDs as 8-byte
+ * longs, in row-major order. Unpainted regions and repeated colors compress well, so a
+ * 1000 x 1000 board takes a few hundred kilobytes.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+public class CanvasState {
+
+  /** Color of a cell that was never painted. */
+  public static final int EMPTY = -1;
+
+  private final int width;
+  private final int height;
+  private final int[] colors;
+  private final long[] userIds;
+  private long lastHistoryId;
+
+  /**
+   * Creates an empty board.
+   *
+   * @param width  board width
+   * @param height board height
+   */
+  public CanvasState(int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Board size must be positive");
+    }
+    this.width = width;
+    this.height = height;
+    this.colors = new int[width * height];
+    this.userIds = new long[width * height];
+    Arrays.fill(colors, EMPTY);
+  }
+
+  /**
+   * Applies one pixel history record.
+   *
+   * <p>Records outside the board are ignored.</p>
+   *
+   * @param historyId the history record ID
+   * @param x         the X coordinate
+   * @param y         the Y coordinate
+   * @param rgb       the new color as {@code 0xRRGGBB}
+   * @param userId    the ID of the user who made the change, 0 if unknown
+   */
+  public void apply(long historyId, int x, int y, int rgb, long userId) {
+    if (x >= 0 && x < width && y >= 0 && y < height) {
+      colors[y * width + x] = rgb;
+      userIds[y * width + x] = userId;
+    }
+    lastHistoryId = Math.max(lastHistoryId, historyId);
+  }
+
+  /**
+   * Returns the color of a cell.
+   *
+   * @param x the X coordinate
+   * @param y the Y coordinate
+   * @return the color as {@code 0xRRGGBB}, or {@link #EMPTY} if never painted
+   */
+  public int getColor(int x, int y) {
+    return colors[y * width + x];
+  }
+
+  /**
+   * Returns the ID of the user who painted a cell last.
+   *
+   * @param x the X coordinate
+   * @param y the Y coordinate
+   * @return the user ID, or 0 if unknown
+   */
+  public long getUserId(int x, int y) {
+    return userIds[y * width + x];
+  }
+
+  /**
+   * Returns the ID of the newest history record applied to this state.
+   *
+   * @return the history ID, 0 for an empty board
+   */
+  public long getLastHistoryId() {
+    return lastHistoryId;
+  }
+
+  /**
+   * Sets the ID of the newest history record covered by this state.
+   *
+   * @param lastHistoryId the history ID
+   */
+  public void setLastHistoryId(long lastHistoryId) {
+    this.lastHistoryId = lastHistoryId;
+  }
+
+  /**
+   * Returns the board width.
+   *
+   * @return the width
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the board height.
+   *
+   * @return the height
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Serializes and deflates the board.
+   *
+   * @return the compressed board
+   */
+  public byte[] toCompressedBytes() {
+    ByteBuffer raw = ByteBuffer.allocate(colors.length * (Integer.BYTES + Long.BYTES));
+    raw.asIntBuffer().put(colors);
+    raw.position(colors.length * Integer.BYTES);
+    raw.asLongBuffer().put(userIds);
+
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(raw.array());
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(raw.capacity() / 8);
+      byte[] chunk = new byte[64 * 1024];
+      while (!deflater.finished()) {
+        out.write(chunk, 0, deflater.deflate(chunk));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Restores a board serialized with {@link #toCompressedBytes()}.
+   *
+   * @param data          the compressed board
+   * @param width         board width the data was written with
+   * @param height        board height the data was written with
+   * @param lastHistoryId ID of the newest history record covered by the data
+   * @return the restored board
+   * @throws IllegalArgumentException if the data does not match the board size
+   */
+  public static CanvasState fromCompressedBytes(
+      byte[] data, int width, int height, long lastHistoryId) {
+    CanvasState state = new CanvasState(width, height);
+    byte[] raw = new byte[state.colors.length * (Integer.BYTES + Long.BYTES)];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(data);
+      int read = 0;
+      while (read < raw.length && !inflater.finished()) {
+        int n = inflater.inflate(raw, read, raw.length - read);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += n;
+      }
+      if (read != raw.length) {
+        throw new IllegalArgumentException("Checkpoint data does not match the board size");
+      }
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Corrupt checkpoint data", e);
+    } finally {
+      inflater.end();
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(raw);
+    buffer.asIntBuffer().get(state.colors);
+    buffer.position(state.colors.length * Integer.BYTES);
+    buffer.asLongBuffer().get(state.userIds);
+    state.lastHistoryId = lastHistoryId;
+    return state;
+  }
+}
@@ -0,0 +1,53 @@
+package ua.cn.stu.pixelbattle.util;
+
+/**
+ * Conversion between {@code #RRGGBB} color strings and packed 24-bit RGB integers.
+ *
+ * <p>Colors are stored as integers in {@code pixel_history} (4 bytes instead of an
+ * 8-byte varlena string). Decoding always yields upper-case hex digits.</p>
+ */
+public final class ColorCodec {
+
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+  private ColorCodec() {
+  }
+
+  /**
+   * Packs a color string into an RGB integer.
+   *
+   * @param hex color in {@code #RRGGBB} format, case-insensitive
+   * @return the color as {@code 0xRRGGBB}
+   * @throws IllegalArgumentException if the color is not in {@code #RRGGBB} format
+   */
+  public static int toRgb(String hex) {
+    if (hex == null || hex.length() != 7 || hex.charAt(0) != '#') {
+      throw new IllegalArgumentException("Color must be in #RRGGBB format: " + hex);
+    }
+    int rgb = 0;
+    for (int i = 1; i < 7; i++) {
+      int digit = Character.digit(hex.charAt(i), 16);
+      if (digit < 0) {
+        throw new IllegalArgumentException("Color must be in #RRGGBB format: " + hex);
+      }
+      rgb = (rgb << 4) | digit;
+    }
+    return rgb;
+  }
+
+  /**
+   * Formats an RGB integer as a color string.
+   *
+   * @param rgb the color as {@code 0xRRGGBB}; higher bits are ignored
+   * @return the color in upper-case {@code #RRGGBB} format
+   */
+  public static String toHex(int rgb) {
+    char[] hex = new char[7];
+    hex[0] = '#';
+    for (int i = 6; i >= 1; i--) {
+      hex[i] = HEX_DIGITS[rgb & 0xF];
+      rgb >>>= 4;
+    }
+    return new String(hex);
+  }
+}
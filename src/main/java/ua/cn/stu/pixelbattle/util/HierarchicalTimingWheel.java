@@ -0,0 +1,258 @@
+package ua.cn.stu.pixelbattle.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process hierarchical timing wheel for large numbers of coarse-grained timers.
+ *
+ * <p>Time is divided into ticks of {@code tickMs}. The wheel has {@code levels} rings of
+ * {@code 2^wheelBits} slots each; level {@code n} covers {@code 2^(wheelBits * (n + 1))}
+ * ticks. A timer is linked into the slot of the lowest level that can hold its deadline,
+ * and is moved one level down (cascaded) when the ring above rolls over to its slot.
+ * Scheduling and cancelling are O(1) list operations, so millions of pending timers cost
+ * one small node each and no heap re-ordering.</p>
+ *
+ * <p>A single ticker thread advances the wheel; expired tasks run on a small worker pool
+ * and must not block for long. Deadlines beyond the wheel's range are parked in the top
+ * ring and re-cascaded until they fit.</p>
+ */
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+  private final long tickNanos;
+  private final int wheelBits;
+  private final int mask;
+  private final int levels;
+  private final Bucket[][] wheels;
+  private final long startNanos;
+  private final ScheduledExecutorService ticker;
+  private final ExecutorService workers;
+
+  // guarded by this
+  private long currentTick;
+  private int pendingCount;
+
+  /**
+   * Creates and starts a timing wheel.
+   *
+   * @param name          thread name prefix
+   * @param tickMs        tick duration in milliseconds (timer resolution)
+   * @param wheelBits     log2 of the number of slots per level
+   * @param levels        number of levels
+   * @param workerThreads number of threads that run expired tasks
+   */
+  public HierarchicalTimingWheel(
+      String name, long tickMs, int wheelBits, int levels, int workerThreads) {
+    if (tickMs <= 0 || wheelBits <= 0 || levels <= 0 || wheelBits * levels >= 62) {
+      throw new IllegalArgumentException("Invalid timing wheel geometry");
+    }
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+    this.wheelBits = wheelBits;
+    this.mask = (1 << wheelBits) - 1;
+    this.levels = levels;
+    this.wheels = new Bucket[levels][1 << wheelBits];
+    for (Bucket[] wheel : wheels) {
+      for (int i = 0; i < wheel.length; i++) {
+        wheel[i] = new Bucket();
+      }
+    }
+    this.startNanos = System.nanoTime();
+    this.ticker = Executors.newSingleThreadScheduledExecutor(threadFactory(name + "-ticker"));
+    this.workers = Executors.newFixedThreadPool(workerThreads, threadFactory(name + "-worker"));
+    this.ticker.scheduleAtFixedRate(this::advance, tickMs, tickMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Schedules a task to run once after the given delay.
+   *
+   * @param task  the task to run on a worker thread
+   * @param delay the delay
+   * @param unit  the delay unit
+   * @return a handle that can be used to cancel the task
+   */
+  public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    long deadlineNanos = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+    long deadlineTick = (deadlineNanos + tickNanos - 1) / tickNanos;
+    synchronized (this) {
+      Timeout timeout = new Timeout(this, task, Math.max(deadlineTick, currentTick + 1));
+      place(timeout);
+      pendingCount++;
+      return timeout;
+    }
+  }
+
+  /**
+   * Returns the number of scheduled, not yet expired or cancelled timers.
+   *
+   * @return the pending timer count
+   */
+  public synchronized int size() {
+    return pendingCount;
+  }
+
+  @Override
+  public void close() {
+    ticker.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  private synchronized boolean cancel(Timeout timeout) {
+    if (timeout.bucket == null) {
+      return false;
+    }
+    timeout.bucket.unlink(timeout);
+    pendingCount--;
+    return true;
+  }
+
+  // caller holds the lock
+  private void place(Timeout timeout) {
+    long deadline = timeout.deadlineTick;
+    for (int level = 0; level < levels; level++) {
+      int shift = wheelBits * level;
+      long distance = (deadline >>> shift) - (currentTick >>> shift);
+      if (distance <= mask) {
+        wheels[level][(int) ((deadline >>> shift) & mask)].link(timeout);
+        return;
+      }
+    }
+    // beyond the wheel range: park in the top slot visited last and re-cascade from there
+    int shift = wheelBits * (levels - 1);
+    wheels[levels - 1][(int) (((currentTick >>> shift) + mask) & mask)].link(timeout);
+  }
+
+  private void advance() {
+    long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+    List<Timeout> expired = new ArrayList<>();
+    synchronized (this) {
+      while (currentTick < targetTick) {
+        currentTick++;
+        int topLevel = 0;
+        while (topLevel + 1 < levels
+            && (currentTick & ((1L << (wheelBits * (topLevel + 1))) - 1)) == 0) {
+          topLevel++;
+        }
+        for (int level = topLevel; level >= 1; level--) {
+          int slot = (int) ((currentTick >>> (wheelBits * level)) & mask);
+          for (Timeout timeout : wheels[level][slot].drain()) {
+            place(timeout);
+          }
+        }
+        for (Timeout timeout : wheels[0][(int) (currentTick & mask)].drain()) {
+          if (timeout.deadlineTick > currentTick) {
+            place(timeout);
+          } else {
+            timeout.expired = true;
+            pendingCount--;
+            expired.add(timeout);
+          }
+        }
+      }
+    }
+    for (Timeout timeout : expired) {
+      try {
+        workers.execute(timeout.task);
+      } catch (RejectedExecutionException ex) {
+        // wheel is closing
+        return;
+      }
+    }
+  }
+
+  private static ThreadFactory threadFactory(String name) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Handle of a scheduled task.
+   */
+  public static final class Timeout {
+    private final HierarchicalTimingWheel wheel;
+    private final Runnable task;
+    private final long deadlineTick;
+    private Timeout prev;
+    private Timeout next;
+    private Bucket bucket;
+    private volatile boolean expired;
+
+    private Timeout(HierarchicalTimingWheel wheel, Runnable task, long deadlineTick) {
+      this.wheel = wheel;
+      this.task = task;
+      this.deadlineTick = deadlineTick;
+    }
+
+    /**
+     * Cancels the task if it has not expired yet.
+     *
+     * @return {@code true} if the task was cancelled by this call
+     */
+    public boolean cancel() {
+      return wheel.cancel(this);
+    }
+
+    /**
+     * Indicates whether the task has been handed to a worker.
+     *
+     * @return {@code true} once the deadline has passed and the task was dispatched
+     */
+    public boolean isExpired() {
+      return expired;
+    }
+  }
+
+  // intrusive doubly linked list of timeouts, guarded by the wheel lock
+  private static final class Bucket {
+    private Timeout head;
+
+    private void link(Timeout timeout) {
+      timeout.bucket = this;
+      timeout.prev = null;
+      timeout.next = head;
+      if (head != null) {
+        head.prev = timeout;
+      }
+      head = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+
+    private List<Timeout> drain() {
+      List<Timeout> drained = new ArrayList<>();
+      Timeout timeout = head;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = null;
+        drained.add(timeout);
+        timeout = next;
+      }
+      head = null;
+      return drained;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+-- Compact layout: SMALLINT coordinates, packed RGB INTEGER color and no old_color, which is
+-- derivable by replaying earlier changes of the same cell.
+--
+-- Changing the column types in place would rewrite the whole table under an ACCESS
+-- EXCLUSIVE lock and block every placement until it finishes. Instead the rows are copied
+-- into a new table in committed batches while placements continue, a trigger mirrors rows
+-- inserted meanwhile, and only the final swap takes the exclusive lock. The batches commit
+-- on their own, so this script runs outside a transaction (see the .conf file).
+CREATE TABLE pixel_history_compact (
+    id         BIGINT    NOT NULL,
+    x          SMALLINT  NOT NULL,
+    y          SMALLINT  NOT NULL,
+    new_color  INTEGER   NOT NULL,
+    user_id    BIGINT,
+    changed_at TIMESTAMP NOT NULL,
+    CONSTRAINT pixel_history_compact_pkey PRIMARY KEY (id)
+);
+
+CREATE FUNCTION pixel_history_compact_copy() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO pixel_history_compact (id, x, y, new_color, user_id, changed_at)
+    VALUES (NEW.id, NEW.x, NEW.y, ('x' || substr(NEW.new_color, 2, 6))::bit(24)::integer,
+            NEW.user_id, NEW.changed_at)
+    ON CONFLICT (id) DO NOTHING;
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+-- waits for in-flight inserts, so every row is either committed now or seen by the trigger
+CREATE TRIGGER pixel_history_compact_copy AFTER INSERT ON pixel_history
+    FOR EACH ROW EXECUTE FUNCTION pixel_history_compact_copy();
+
+CREATE PROCEDURE pixel_history_compact_backfill(batch_size BIGINT) AS $$
+DECLARE
+    max_id  BIGINT;
+    from_id BIGINT := 0;
+BEGIN
+    SELECT COALESCE(MAX(id), 0) INTO max_id FROM pixel_history;
+    WHILE from_id < max_id LOOP
+        INSERT INTO pixel_history_compact (id, x, y, new_color, user_id, changed_at)
+        SELECT id, x, y, ('x' || substr(new_color, 2, 6))::bit(24)::integer,
+               user_id, changed_at
+        FROM pixel_history
+        WHERE id > from_id AND id <= from_id + batch_size
+        ON CONFLICT (id) DO NOTHING;
+        from_id := from_id + batch_size;
+        COMMIT;
+    END LOOP;
+END $$ LANGUAGE plpgsql;
+
+CALL pixel_history_compact_backfill(100000);
+
+DO $$
+BEGIN
+    LOCK TABLE pixel_history IN ACCESS EXCLUSIVE MODE;
+    DROP TRIGGER pixel_history_compact_copy ON pixel_history;
+    ALTER SEQUENCE pixel_history_id_seq OWNED BY NONE;
+    DROP TABLE pixel_history;
+    ALTER TABLE pixel_history_compact RENAME TO pixel_history;
+    ALTER TABLE pixel_history RENAME CONSTRAINT pixel_history_compact_pkey TO pixel_history_pkey;
+    ALTER TABLE pixel_history ALTER COLUMN id SET DEFAULT nextval('pixel_history_id_seq');
+    ALTER SEQUENCE pixel_history_id_seq OWNED BY pixel_history.id;
+END $$;
+
+DROP PROCEDURE pixel_history_compact_backfill(BIGINT);
+DROP FUNCTION pixel_history_compact_copy();
@@ -0,0 +1,90 @@
+-- Range-partition pixel_history by id. The existing table becomes the first partition,
+-- covering ids up to the next multiple of the partition size. Later partitions are
+-- created ahead of time and moved to pixel_history_archive by PixelHistoryPartitionService.
+--
+-- Attaching a table as a partition scans it to check the range unless a validated CHECK
+-- constraint already proves it, and the scan would run under the ACCESS EXCLUSIVE lock
+-- of the swap. The constraint is therefore added NOT VALID and validated in its own
+-- step, which does not block reads or writes; only the swap takes the exclusive lock.
+-- The steps commit separately, so this script runs outside a transaction (see the .conf
+-- file).
+CREATE TABLE pixel_history_partitions (
+    name        VARCHAR(63) PRIMARY KEY,
+    from_id     BIGINT      NOT NULL,
+    to_id       BIGINT      NOT NULL,
+    archived_at TIMESTAMP
+);
+
+DO $$
+DECLARE
+    partition_size CONSTANT BIGINT := 10000000;
+    boundary BIGINT;
+BEGIN
+    SELECT (GREATEST(
+                (SELECT COALESCE(MAX(id), 0) FROM pixel_history),
+                (SELECT last_value FROM pixel_history_id_seq)
+            ) / partition_size + 1) * partition_size
+    INTO boundary;
+
+    INSERT INTO pixel_history_partitions (name, from_id, to_id)
+    VALUES ('pixel_history_legacy', 0, boundary);
+    EXECUTE format(
+        'ALTER TABLE pixel_history ADD CONSTRAINT pixel_history_legacy_id_range '
+        'CHECK (id >= 0 AND id < %s) NOT VALID', boundary);
+END $$;
+
+ALTER TABLE pixel_history VALIDATE CONSTRAINT pixel_history_legacy_id_range;
+
+DO $$
+DECLARE
+    partition_size CONSTANT BIGINT := 10000000;
+    boundary BIGINT;
+BEGIN
+    SELECT to_id INTO boundary FROM pixel_history_partitions
+    WHERE name = 'pixel_history_legacy';
+
+    ALTER TABLE pixel_history RENAME TO pixel_history_legacy;
+    ALTER TABLE pixel_history_legacy
+        RENAME CONSTRAINT pixel_history_pkey TO pixel_history_legacy_pkey;
+    ALTER TABLE pixel_history_legacy ALTER COLUMN id DROP DEFAULT;
+    ALTER SEQUENCE pixel_history_id_seq OWNED BY NONE;
+
+    CREATE TABLE pixel_history (
+        id         BIGINT    NOT NULL DEFAULT nextval('pixel_history_id_seq'),
+        x          SMALLINT  NOT NULL,
+        y          SMALLINT  NOT NULL,
+        new_color  INTEGER   NOT NULL,
+        user_id    BIGINT,
+        changed_at TIMESTAMP NOT NULL,
+        PRIMARY KEY (id)
+    ) PARTITION BY RANGE (id);
+
+    ALTER SEQUENCE pixel_history_id_seq OWNED BY pixel_history.id;
+
+    -- the validated pixel_history_legacy_id_range constraint lets this skip the scan
+    EXECUTE format(
+        'ALTER TABLE pixel_history ATTACH PARTITION pixel_history_legacy '
+        'FOR VALUES FROM (MINVALUE) TO (%s)', boundary);
+
+    EXECUTE format(
+        'CREATE TABLE pixel_history_%s PARTITION OF pixel_history FOR VALUES FROM (%s) TO (%s)',
+        boundary, boundary, boundary + partition_size);
+    INSERT INTO pixel_history_partitions (name, from_id, to_id)
+    VALUES ('pixel_history_' || boundary, boundary, boundary + partition_size);
+END $$;
+
+CREATE TABLE pixel_history_archive (
+    id         BIGINT    NOT NULL,
+    x          SMALLINT  NOT NULL,
+    y          SMALLINT  NOT NULL,
+    new_color  INTEGER   NOT NULL,
+    user_id    BIGINT,
+    changed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+) PARTITION BY RANGE (id);
+
+-- Hot and archived history; range predicates on id prune partitions on both sides.
+CREATE VIEW pixel_history_all AS
+SELECT id, x, y, new_color, user_id, changed_at FROM pixel_history
+UNION ALL
+SELECT id, x, y, new_color, user_id, changed_at FROM pixel_history_archive;
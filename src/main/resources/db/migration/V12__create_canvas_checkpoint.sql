@@ -0,0 +1,11 @@
+CREATE TABLE canvas_checkpoint (
+    id              BIGSERIAL PRIMARY KEY,
+    last_history_id BIGINT    NOT NULL UNIQUE,
+    width           INT       NOT NULL,
+    height          INT       NOT NULL,
+    data            BYTEA     NOT NULL,
+    created_at      TIMESTAMP NOT NULL
+);
+
+-- the compressed board does not compress further
+ALTER TABLE canvas_checkpoint ALTER COLUMN data SET STORAGE EXTERNAL;
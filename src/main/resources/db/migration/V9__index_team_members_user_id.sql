@@ -0,0 +1,6 @@
+-- a user belongs to at most one team; keep the oldest membership of any duplicates
+DELETE FROM team_members m
+USING team_members d
+WHERE m.user_id = d.user_id AND m.team_id > d.team_id;
+
+CREATE UNIQUE INDEX idx_team_members_user_id ON team_members (user_id);
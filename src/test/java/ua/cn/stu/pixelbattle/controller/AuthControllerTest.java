@@ -216,14 +216,15 @@ public class AuthControllerTest {
   @DisplayName("should logout successfully and clear refresh cookie")
   void shouldLogoutSuccessfullyWhenCookiePresent() throws Exception {
     mockMvc.perform(post("/api/v1/auth/logout")
-            .cookie(new Cookie("refreshToken", "someToken")))
+            .cookie(new Cookie("refreshToken", "someToken"))
+            .header("Authorization", "Bearer accessToken"))
         .andExpect(status().isOk())
         .andExpect(header().string("Set-Cookie",
             org.hamcrest.Matchers.containsString("refreshToken=;")))
         .andExpect(header().string("Set-Cookie",
             org.hamcrest.Matchers.containsString("Max-Age=0")));
 
-    verify(authService).logout("someToken");
+    verify(authService).logout("someToken", "accessToken");
   }
 
   @Test
@@ -232,6 +233,6 @@ public class AuthControllerTest {
     mockMvc.perform(post("/api/v1/auth/logout"))
         .andExpect(status().isOk());
 
-    verify(authService).logout(null);
+    verify(authService).logout(null, null);
   }
 }
@@ -16,7 +16,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ua.cn.stu.pixelbattle.dto.GameInfoResponse;
+import ua.cn.stu.pixelbattle.dto.GameStatsResponse;
 import ua.cn.stu.pixelbattle.security.JwtAuthenticationFilter;
+import ua.cn.stu.pixelbattle.service.GameStatsService;
 import ua.cn.stu.pixelbattle.service.PixelService;
 
 /**
@@ -36,6 +38,9 @@ public class GameInfoControllerTest {
   @MockitoBean
   private PixelService pixelService;
 
+  @MockitoBean
+  private GameStatsService gameStatsService;
+
   @MockitoBean
   private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -59,4 +64,18 @@ public class GameInfoControllerTest {
 
   }
 
+  @Test
+  @DisplayName("should return live stats when /gameinfo/stats is called")
+  void shouldReturnStatsWhenEndpointCalled() throws Exception {
+    when(gameStatsService.getStats()).thenReturn(new GameStatsResponse(42, 7, 5));
+
+    mockMvc.perform(get("/api/v1/gameinfo/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.viewers").value(42))
+        .andExpect(jsonPath("$.activePlayers").value(7))
+        .andExpect(jsonPath("$.windowMinutes").value(5));
+
+    verify(gameStatsService).getStats();
+  }
+
 }
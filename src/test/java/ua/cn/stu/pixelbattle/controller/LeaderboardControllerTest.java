@@ -0,0 +1,81 @@
+package ua.cn.stu.pixelbattle.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ua.cn.stu.pixelbattle.dto.PlayerLeaderboardResponse;
+import ua.cn.stu.pixelbattle.dto.PlayerScoreDto;
+import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+import ua.cn.stu.pixelbattle.security.JwtAuthenticationFilter;
+import ua.cn.stu.pixelbattle.service.PlayerLeaderboardService;
+
+/**
+ * Unit tests for {@link LeaderboardController}.
+ *
+ * <p>Verifies parameter binding for anonymous and authenticated callers.
+ */
+@WebMvcTest(
+    controllers = LeaderboardController.class,
+    excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+            classes = JwtAuthenticationFilter.class)
+    }
+)
+@AutoConfigureMockMvc(addFilters = false)
+public class LeaderboardControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private PlayerLeaderboardService playerLeaderboardService;
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("should return the top page for anonymous callers")
+  void shouldReturnTopPageForAnonymous() throws Exception {
+    when(playerLeaderboardService.getLeaderboard(0, 10, false, null)).thenReturn(
+        new PlayerLeaderboardResponse(List.of(new PlayerScoreDto(1, "alice", 100)), null, 1));
+
+    mockMvc.perform(get("/api/v1/leaderboard"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.entries[0].username").value("alice"))
+        .andExpect(jsonPath("$.totalPlayers").value(1));
+  }
+
+  @Test
+  @DisplayName("should pass the caller's username for the around-me page")
+  void shouldReturnAroundMePage() throws Exception {
+    CustomUserDetails userDetails = mock(CustomUserDetails.class);
+    when(userDetails.getUsername()).thenReturn("bob");
+    SecurityContextHolder.getContext().setAuthentication(
+        new TestingAuthenticationToken(userDetails, null, "ROLE_USER"));
+    PlayerScoreDto me = new PlayerScoreDto(7, "bob", 40);
+    when(playerLeaderboardService.getLeaderboard(0, 5, true, "bob"))
+        .thenReturn(new PlayerLeaderboardResponse(List.of(me), me, 20));
+
+    mockMvc.perform(get("/api/v1/leaderboard").param("limit", "5").param("around", "true"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.me.rank").value(7));
+  }
+}
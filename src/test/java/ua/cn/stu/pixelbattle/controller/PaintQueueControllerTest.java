@@ -0,0 +1,121 @@
+package ua.cn.stu.pixelbattle.controller;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ua.cn.stu.pixelbattle.dto.PaintQueueRequest;
+import ua.cn.stu.pixelbattle.dto.PaintQueueResponse;
+import ua.cn.stu.pixelbattle.dto.PixelChangeRequest;
+import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+import ua.cn.stu.pixelbattle.security.JwtAuthenticationFilter;
+import ua.cn.stu.pixelbattle.service.PaintQueueService;
+
+/**
+ * Unit tests for {@link PaintQueueController}.
+ *
+ * <p>Verifies enqueueing, reading and clearing the authenticated user's paint queue.
+ */
+@WebMvcTest(
+    controllers = PaintQueueController.class,
+    excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+            classes = JwtAuthenticationFilter.class)
+    }
+)
+@AutoConfigureMockMvc(addFilters = false)
+public class PaintQueueControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @MockitoBean
+  private PaintQueueService paintQueueService;
+
+  @BeforeEach
+  void setUp() {
+    CustomUserDetails userDetails = mock(CustomUserDetails.class);
+    when(userDetails.getId()).thenReturn(1L);
+
+    SecurityContextHolder.getContext().setAuthentication(
+        new TestingAuthenticationToken(userDetails, null, "ROLE_USER")
+    );
+  }
+
+  @Test
+  @DisplayName("should enqueue placements for the authenticated user")
+  void shouldEnqueuePlacements() throws Exception {
+    PaintQueueRequest request = new PaintQueueRequest(List.of(
+        new PixelChangeRequest(1, 2, "#FF0000"),
+        new PixelChangeRequest(3, 4, "#00FF00")));
+    when(paintQueueService.enqueue(eq(1L), anyList())).thenReturn(new PaintQueueResponse(2));
+
+    mockMvc.perform(post("/api/v1/pixels/queue")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.pending").value(2));
+  }
+
+  @Test
+  @DisplayName("should reject invalid colors in the queue")
+  void shouldRejectInvalidColor() throws Exception {
+    PaintQueueRequest request = new PaintQueueRequest(List.of(
+        new PixelChangeRequest(1, 2, "red")));
+
+    mockMvc.perform(post("/api/v1/pixels/queue")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+
+    verify(paintQueueService, never()).enqueue(eq(1L), anyList());
+  }
+
+  @Test
+  @DisplayName("should return queue state")
+  void shouldReturnQueueState() throws Exception {
+    when(paintQueueService.getQueue(1L)).thenReturn(new PaintQueueResponse(5));
+
+    mockMvc.perform(get("/api/v1/pixels/queue"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.pending").value(5));
+  }
+
+  @Test
+  @DisplayName("should clear queue")
+  void shouldClearQueue() throws Exception {
+    mockMvc.perform(delete("/api/v1/pixels/queue").with(csrf()))
+        .andExpect(status().isNoContent());
+
+    verify(paintQueueService).clear(1L);
+  }
+}
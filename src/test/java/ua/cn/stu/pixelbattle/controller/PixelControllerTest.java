@@ -17,6 +17,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,6 +37,7 @@ import ua.cn.stu.pixelbattle.dto.PixelChangeRequest;
 import ua.cn.stu.pixelbattle.dto.PixelResponse;
 import ua.cn.stu.pixelbattle.security.CustomUserDetails;
 import ua.cn.stu.pixelbattle.security.JwtAuthenticationFilter;
+import ua.cn.stu.pixelbattle.service.BoardHistoryService;
 import ua.cn.stu.pixelbattle.service.PixelService;
 
 /**
@@ -63,6 +65,9 @@ public class PixelControllerTest {
   @MockitoBean
   private PixelService pixelService;
 
+  @MockitoBean
+  private BoardHistoryService boardHistoryService;
+
   // -------------- GET ALL PIXEL -------------------
   @Test
   @DisplayName("should return all pixels successfully when /api/v1/pixel is called")
@@ -142,4 +147,25 @@ public class PixelControllerTest {
     verify(pixelService, never()).changePixel(anyInt(), anyInt(), anyString(), anyLong());
   }
 
+  @Test
+  @DisplayName("should return the board at a past history ID")
+  void shouldReturnBoardAtHistoryId() throws Exception {
+    when(boardHistoryService.getBoardAt(null, 42L))
+        .thenReturn(List.of(new PixelResponse(1, 2, "#FF0000")));
+
+    mockMvc.perform(get("/api/v1/pixels/at").param("historyId", "42"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].color").value("#FF0000"));
+  }
+
+  @Test
+  @DisplayName("should parse the time of a past board as an ISO instant")
+  void shouldReturnBoardAtTime() throws Exception {
+    when(boardHistoryService.getBoardAt(Instant.parse("2025-01-01T18:00:00Z"), null))
+        .thenReturn(List.of());
+
+    mockMvc.perform(get("/api/v1/pixels/at").param("time", "2025-01-01T18:00:00Z"))
+        .andExpect(status().isOk())
+        .andExpect(content().json("[]"));
+  }
 }
@@ -1,12 +1,17 @@
 package ua.cn.stu.pixelbattle.controller;
 
 
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,11 +24,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ua.cn.stu.pixelbattle.dto.PixelHistoryDto;
 import ua.cn.stu.pixelbattle.exception.ApiException;
 import ua.cn.stu.pixelbattle.model.PixelHistory;
 import ua.cn.stu.pixelbattle.security.JwtAuthenticationFilter;
+import ua.cn.stu.pixelbattle.service.PixelHistoryBlockService;
+import ua.cn.stu.pixelbattle.service.PixelHistoryBlockService.HistoryBlock;
 import ua.cn.stu.pixelbattle.service.PixelHistoryService;
+import ua.cn.stu.pixelbattle.service.PixelHistoryService.HistoryExport;
 
 
 /**
@@ -47,6 +56,9 @@ public class PixelHistoryControllerTest {
   @MockitoBean
   private PixelHistoryService pixelHistoryService;
 
+  @MockitoBean
+  private PixelHistoryBlockService pixelHistoryBlockService;
+
   // ---------- getAllAfter ----------
   @Test
   @DisplayName("should return pixel history successfully when valid id is provided")
@@ -131,4 +143,81 @@ public class PixelHistoryControllerTest {
         .andExpect(status().isForbidden());
   }
 
+  // ---------- export ----------
+  @Test
+  @DisplayName("should stream the history export as NDJSON")
+  void shouldStreamExportAsNdjson() throws Exception {
+    when(pixelHistoryService.exportRange(0L, 20L)).thenReturn(new HistoryExport(out ->
+        out.write("{\"id\":1,\"x\":1,\"y\":2,\"new_color\":\"#FF00FF\"}\n"
+            .getBytes(StandardCharsets.UTF_8)), 60_000, () -> {}));
+
+    MvcResult result = mockMvc.perform(get("/api/v1/history/export")
+            .param("toId", "20"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andExpect(content().string("{\"id\":1,\"x\":1,\"y\":2,\"new_color\":\"#FF00FF\"}\n"));
+  }
+
+  @Test
+  @DisplayName("should return 400 Bad Request when the export range is invalid")
+  void shouldReturn400WhenExportRangeInvalid() throws Exception {
+    when(pixelHistoryService.exportRange(10L, 5L))
+        .thenThrow(new ApiException("Invalid parameters", HttpStatus.BAD_REQUEST));
+
+    mockMvc.perform(get("/api/v1/history/export")
+            .param("fromId", "10")
+            .param("toId", "5"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("should return 429 Too Many Requests when too many exports are running")
+  void shouldReturn429WhenExportLimitReached() throws Exception {
+    when(pixelHistoryService.exportRange(0L, null)).thenThrow(new ApiException(
+        "Too many exports are running, please retry later", HttpStatus.TOO_MANY_REQUESTS, 30));
+
+    mockMvc.perform(get("/api/v1/history/export"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "30"));
+  }
+
+  // ---------- blocks ----------
+  @Test
+  @DisplayName("should serve a sealed block as immutable")
+  void shouldServeSealedBlockAsImmutable() throws Exception {
+    when(pixelHistoryBlockService.getBlock(3L)).thenReturn(
+        new HistoryBlock("[]".getBytes(StandardCharsets.UTF_8), true, "\"h3\""));
+
+    mockMvc.perform(get("/api/v1/history/blocks/3"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"h3\""))
+        .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+        .andExpect(content().string("[]"));
+  }
+
+  @Test
+  @DisplayName("should answer 304 for a known sealed block without loading it")
+  void shouldReturnNotModifiedForSealedEtag() throws Exception {
+    mockMvc.perform(get("/api/v1/history/blocks/3")
+            .header("If-None-Match", "\"h3\""))
+        .andExpect(status().isNotModified());
+
+    verifyNoInteractions(pixelHistoryBlockService);
+  }
+
+  @Test
+  @DisplayName("should require revalidation of the tail block")
+  void shouldServeTailBlockWithNoCache() throws Exception {
+    when(pixelHistoryBlockService.getBlock(5L)).thenReturn(
+        new HistoryBlock("[]".getBytes(StandardCharsets.UTF_8), false, "\"h5-5010\""));
+
+    mockMvc.perform(get("/api/v1/history/blocks/5")
+            .header("If-None-Match", "\"h5-5010\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("Cache-Control", "no-cache"));
+  }
 }
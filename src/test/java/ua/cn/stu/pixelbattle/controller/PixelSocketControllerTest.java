@@ -0,0 +1,78 @@
+package ua.cn.stu.pixelbattle.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import ua.cn.stu.pixelbattle.dto.PixelChangeRequest;
+import ua.cn.stu.pixelbattle.dto.PixelResponse;
+import ua.cn.stu.pixelbattle.dto.SocketErrorResponse;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.security.CustomUserDetails;
+import ua.cn.stu.pixelbattle.service.PixelService;
+
+/**
+ * Unit tests for {@link PixelSocketController}.
+ *
+ * <p>Verifies placement through the session principal and error mapping.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PixelSocketControllerTest {
+
+  @Mock
+  private PixelService pixelService;
+
+  @InjectMocks
+  private PixelSocketController pixelSocketController;
+
+  private static UsernamePasswordAuthenticationToken principal() {
+    CustomUserDetails details = new CustomUserDetails(1L, "user", "pass", "USER", 0);
+    return new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+  }
+
+  @Test
+  @DisplayName("should place pixel for session user and acknowledge it")
+  void shouldPlacePixelAndAcknowledge() {
+    PixelResponse ack = pixelSocketController.placePixel(
+        new PixelChangeRequest(3, 4, "#FF0000"), principal());
+
+    verify(pixelService).changePixel(3, 4, "#FF0000", 1L);
+    assertEquals(3, ack.getCoordinateX());
+    assertEquals("#FF0000", ack.getColor());
+  }
+
+  @Test
+  @DisplayName("should reject anonymous session")
+  void shouldRejectAnonymousSession() {
+    ApiException ex = assertThrows(ApiException.class, () ->
+        pixelSocketController.placePixel(new PixelChangeRequest(3, 4, "#FF0000"), null));
+
+    assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatus());
+    verify(pixelService, never()).changePixel(anyInt(), anyInt(), anyString(), anyLong());
+  }
+
+  @Test
+  @DisplayName("should report remaining cooldown on 429")
+  void shouldReportRemainingCooldown() {
+    when(pixelService.getRemainingCooldownMillis(1L)).thenReturn(800L);
+
+    SocketErrorResponse error = pixelSocketController.handleApiException(
+        new ApiException("Wait", HttpStatus.TOO_MANY_REQUESTS), principal());
+
+    assertEquals(429, error.getStatus());
+    assertEquals(800L, error.getRetryAfterMs());
+  }
+}
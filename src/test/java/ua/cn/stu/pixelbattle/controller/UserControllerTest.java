@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,9 +23,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ua.cn.stu.pixelbattle.dto.PixelHistoryDto;
+import ua.cn.stu.pixelbattle.model.User;
 import ua.cn.stu.pixelbattle.security.CustomUserDetails;
 import ua.cn.stu.pixelbattle.security.JwtAuthenticationFilter;
 import ua.cn.stu.pixelbattle.service.PixelHistoryService;
+import ua.cn.stu.pixelbattle.service.UserService;
 
 
 /**
@@ -49,12 +52,20 @@ public class UserControllerTest {
   @MockitoBean
   private PixelHistoryService pixelHistoryService;
 
+  @MockitoBean
+  private UserService userService;
+
   // set auth test user
   private void authenticateTestUser() {
     CustomUserDetails user = mock(CustomUserDetails.class);
     when(user.getId()).thenReturn(1L);
     when(user.getUsername()).thenReturn("testUser");
-    when(user.getPixelChangesCount()).thenReturn(200);
+
+    User entity = new User();
+    entity.setId(1L);
+    entity.setUsername("testUser");
+    entity.setPixelChangesCount(200);
+    when(userService.getUserById(1L)).thenReturn(Optional.of(entity));
 
     SecurityContextHolder.getContext().setAuthentication(
         new TestingAuthenticationToken(user, null, "ROLE_USER")
@@ -0,0 +1,113 @@
+package ua.cn.stu.pixelbattle.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import ua.cn.stu.pixelbattle.service.JwtTokenService;
+import ua.cn.stu.pixelbattle.service.JwtTokenService.VerifiedToken;
+import ua.cn.stu.pixelbattle.service.WebSocketSessionRegistry;
+
+/**
+ * Unit tests for {@link StompAuthChannelInterceptor}.
+ *
+ * <p>Verifies authentication on CONNECT and expiration checks on SEND.
+ */
+@ExtendWith(MockitoExtension.class)
+public class StompAuthChannelInterceptorTest {
+
+  @Mock
+  private JwtTokenService jwtTokenService;
+
+  @InjectMocks
+  private StompAuthChannelInterceptor interceptor;
+
+  private final MessageChannel channel = mock(MessageChannel.class);
+
+  private static StompHeaderAccessor frame(StompCommand command, String token,
+                                           Map<String, Object> attributes) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+    if (token != null) {
+      accessor.setNativeHeader("Authorization", "Bearer " + token);
+    }
+    accessor.setSessionAttributes(attributes);
+    accessor.setLeaveMutable(true);
+    return accessor;
+  }
+
+  private static Message<byte[]> message(StompHeaderAccessor accessor) {
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+
+  @Test
+  @DisplayName("should bind principal and remember expiration on CONNECT")
+  void shouldAuthenticateOnConnect() {
+    Map<String, Object> attributes = new HashMap<>();
+    StompHeaderAccessor accessor = frame(StompCommand.CONNECT, "token", attributes);
+    when(jwtTokenService.verify("token")).thenReturn(new VerifiedToken(
+        new CustomUserDetails(1L, "user", null, "USER", 0), 5_000L, "jti"));
+
+    interceptor.preSend(message(accessor), channel);
+
+    assertEquals(Long.valueOf(1L), WebSocketSessionRegistry.resolveUserId(accessor.getUser()));
+    assertEquals(5_000L, attributes.get(StompAuthChannelInterceptor.EXPIRES_AT_ATTRIBUTE));
+  }
+
+  @Test
+  @DisplayName("should reject CONNECT with invalid token")
+  void shouldRejectInvalidTokenOnConnect() {
+    StompHeaderAccessor accessor = frame(StompCommand.CONNECT, "bad", new HashMap<>());
+    when(jwtTokenService.verify("bad")).thenThrow(new JWTVerificationException("bad"));
+
+    assertThrows(MessageDeliveryException.class,
+        () -> interceptor.preSend(message(accessor), channel));
+    assertNull(accessor.getUser());
+  }
+
+  @Test
+  @DisplayName("should not verify anything on SEND while token is valid")
+  void shouldSkipVerificationOnSendBeforeExpiration() {
+    Map<String, Object> attributes = new HashMap<>();
+    attributes.put(StompAuthChannelInterceptor.EXPIRES_AT_ATTRIBUTE,
+        System.currentTimeMillis() + 60_000);
+
+    interceptor.preSend(message(frame(StompCommand.SEND, null, attributes)), channel);
+
+    verify(jwtTokenService, never()).verify(anyString());
+  }
+
+  @Test
+  @DisplayName("should reject SEND after expiration without a fresh token")
+  void shouldRejectSendAfterExpiration() {
+    Map<String, Object> attributes = new HashMap<>();
+    attributes.put(StompAuthChannelInterceptor.EXPIRES_AT_ATTRIBUTE,
+        System.currentTimeMillis() - 1);
+    StompHeaderAccessor accessor = frame(StompCommand.SEND, null, attributes);
+    CustomUserDetails details = new CustomUserDetails(1L, "user", "pass", "USER", 0);
+    accessor.setUser(new UsernamePasswordAuthenticationToken(details, null));
+
+    assertThrows(MessageDeliveryException.class,
+        () -> interceptor.preSend(message(accessor), channel));
+  }
+}
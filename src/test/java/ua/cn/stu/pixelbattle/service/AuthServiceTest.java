@@ -16,9 +16,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import ua.cn.stu.pixelbattle.dto.AuthRequest;
 import ua.cn.stu.pixelbattle.dto.AuthResponse;
 import ua.cn.stu.pixelbattle.dto.RegisterRequest;
@@ -43,7 +43,7 @@ public class AuthServiceTest {
   UserRepository userRepository;
 
   @Mock
-  PasswordEncoder passwordEncoder;
+  PasswordHashingService passwordHashingService;
 
   @Mock
   JwtTokenService jwtTokenService;
@@ -51,6 +51,9 @@ public class AuthServiceTest {
   @Mock
   RefreshTokenService refreshTokenService;
 
+  @Mock
+  UsernameFilterService usernameFilterService;
+
   @InjectMocks
   AuthService authService;
 
@@ -60,19 +63,53 @@ public class AuthServiceTest {
   void shouldRegisterNewUserSuccessfully() {
     RegisterRequest registerRequest = new RegisterRequest("user", "123456Abc*");
 
+    when(usernameFilterService.mightBeTaken("user")).thenReturn(true);
     when(userRepository.existsByUsername("user")).thenReturn(false);
-    when(passwordEncoder.encode("123456Abc*")).thenReturn("passHash");
+    when(passwordHashingService.encode("123456Abc*")).thenReturn("passHash");
+
+    authService.register(registerRequest);
+    verify(userRepository).save(any(User.class));
+    verify(usernameFilterService).add("user");
+  }
+
+  @Test
+  @DisplayName("should skip existence query for names the filter rules out")
+  void shouldSkipExistenceQueryForDefinitelyFreeName() {
+    RegisterRequest registerRequest = new RegisterRequest("fresh", "123456Abc*");
+
+    when(usernameFilterService.mightBeTaken("fresh")).thenReturn(false);
+    when(passwordHashingService.encode("123456Abc*")).thenReturn("passHash");
 
     authService.register(registerRequest);
+
+    verify(userRepository, never()).existsByUsername(any());
     verify(userRepository).save(any(User.class));
   }
 
+  @Test
+  @DisplayName("should report taken username when insert violates unique constraint")
+  void shouldReportTakenUsernameOnConstraintViolation() {
+    RegisterRequest registerRequest = new RegisterRequest("racer", "123456Abc*");
+
+    when(usernameFilterService.mightBeTaken("racer")).thenReturn(false);
+    when(passwordHashingService.encode("123456Abc*")).thenReturn("passHash");
+    when(userRepository.save(any(User.class)))
+        .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+        () -> authService.register(registerRequest));
+
+    assertEquals("Username already taken", ex.getMessage());
+    verify(usernameFilterService).add("racer");
+  }
+
   @Test
   @DisplayName("should throw when username already exists")
   void shouldThrowWhenUsernameAlreadyExists() {
     RegisterRequest registerRequest = new RegisterRequest(
         "userExist", "123456Abc*");
 
+    when(usernameFilterService.mightBeTaken("userExist")).thenReturn(true);
     when(userRepository.existsByUsername("userExist")).thenReturn(true);
     IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
         () -> authService.register(registerRequest));
@@ -94,8 +131,8 @@ public class AuthServiceTest {
     mockUser.setPasswordHash("encodedPass");
 
     when(userRepository.findByUsername("user")).thenReturn(Optional.of(mockUser));
-    when(passwordEncoder.matches("123456Abc*", "encodedPass")).thenReturn(true);
-    when(jwtTokenService.createToken("user", 1L)).thenReturn("access-token");
+    when(passwordHashingService.matches("123456Abc*", "encodedPass")).thenReturn(true);
+    when(jwtTokenService.createToken("user", 1L, "USER")).thenReturn("access-token");
     when(refreshTokenService.createRefreshToken(1L)).thenReturn("refresh-token");
 
     AuthRequest authRequest = new AuthRequest("user", "123456Abc*");
@@ -130,7 +167,7 @@ public class AuthServiceTest {
     mockUser.setPasswordHash("encodedPass");
 
     when(userRepository.findByUsername("user")).thenReturn(Optional.of(mockUser));
-    when(passwordEncoder.matches("123456Abc*",
+    when(passwordHashingService.matches("123456Abc*",
         "encodedPass")).thenReturn(false);
 
     AuthRequest authRequest = new AuthRequest("user", "123456Abc*");
@@ -154,9 +191,9 @@ public class AuthServiceTest {
     mockUser.setUsername("user");
 
 
-    when(refreshTokenService.verifyExpiration(oldRefreshToken)).thenReturn(1L);
+    when(refreshTokenService.consume(oldRefreshToken)).thenReturn(1L);
     when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
-    when(jwtTokenService.createToken("user", 1L)).thenReturn("newAccessToken");
+    when(jwtTokenService.createToken("user", 1L, "USER")).thenReturn("newAccessToken");
     when(refreshTokenService.createRefreshToken(1L)).thenReturn("newRefreshToken");
 
     AuthResponse response = authService.refreshToken(oldRefreshToken);
@@ -166,8 +203,7 @@ public class AuthServiceTest {
     assertEquals("newRefreshToken", response.getRefreshToken());
 
 
-    verify(refreshTokenService).verifyExpiration(oldRefreshToken);
-    verify(refreshTokenService).deleteByToken(oldRefreshToken);
+    verify(refreshTokenService).consume(oldRefreshToken);
     verify(userRepository).findById(1L);
   }
 
@@ -186,7 +222,7 @@ public class AuthServiceTest {
   @DisplayName("should throw when user not found on refresh")
   void shouldThrowWhenUserNotFoundOnRefresh() {
 
-    when(refreshTokenService.verifyExpiration("token")).thenReturn(1L);
+    when(refreshTokenService.consume("token")).thenReturn(1L);
     when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
     UsernameNotFoundException ex = assertThrows(UsernameNotFoundException.class,
@@ -202,17 +238,19 @@ public class AuthServiceTest {
   @DisplayName("should logout successfully")
   void shouldLogoutSuccessfully() {
     String refreshToken = "Refresh123";
-    authService.logout(refreshToken);
+    authService.logout(refreshToken, "access-token");
 
     verify(refreshTokenService).deleteByToken(refreshToken);
+    verify(jwtTokenService).revoke("access-token");
   }
 
 
   @Test
   @DisplayName("should skip logout when token is null or empty")
   void shouldSkipLogoutWhenTokenIsNullOrEmpty() {
-    authService.logout(null);
-    authService.logout("");
+    authService.logout(null, null);
+    authService.logout("", "");
     verify(refreshTokenService, never()).deleteByToken(any());
+    verify(jwtTokenService, never()).revoke(any());
   }
 }
@@ -0,0 +1,150 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import ua.cn.stu.pixelbattle.config.BoardHistoryProperties;
+import ua.cn.stu.pixelbattle.dto.PixelResponse;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.model.PixelHistory;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+import ua.cn.stu.pixelbattle.util.CanvasState;
+
+/**
+ * Unit tests for {@link BoardHistoryService}.
+ *
+ * <p>Verifies boards at a history ID or a time, caching, the rebuild limit and parameter
+ * validation.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BoardHistoryServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+  @Mock
+  private CanvasCheckpointService checkpointService;
+
+  @Mock
+  private PixelHistoryRepository pixelHistoryRepository;
+
+  @Spy
+  private BoardHistoryProperties properties = new BoardHistoryProperties();
+
+  @InjectMocks
+  private BoardHistoryService boardHistoryService;
+
+  private CanvasState board(long historyId) {
+    CanvasState state = new CanvasState(4, 4);
+    state.apply(historyId, 1, 2, 0xFF0000, 7);
+    return state;
+  }
+
+  // one record per ID, each one minute after the previous
+  private Optional<PixelHistory> recordAt(long id) {
+    PixelHistory history = new PixelHistory();
+    history.setId(id);
+    history.setChangedAt(START.plusMinutes(id));
+    return Optional.of(history);
+  }
+
+  @Test
+  @DisplayName("should return the board at a history ID and cache it")
+  void shouldReturnCachedBoardAtHistoryId() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(5000L);
+    when(checkpointService.restore(42L)).thenReturn(board(42L));
+
+    List<PixelResponse> first = boardHistoryService.getBoardAt(null, 42L);
+    List<PixelResponse> second = boardHistoryService.getBoardAt(null, 42L);
+
+    assertEquals(List.of(new PixelResponse(1, 2, "#FF0000")), first);
+    assertEquals(first, second);
+    verify(checkpointService, times(1)).restore(42L);
+  }
+
+  @Test
+  @DisplayName("should share a rebuild of a board within the unsettled history")
+  void shouldBrieflyCacheUnsettledBoard() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(5000L);
+    when(checkpointService.restore(4500L)).thenReturn(board(4500L));
+
+    boardHistoryService.getBoardAt(null, 4500L);
+    boardHistoryService.getBoardAt(null, 4500L);
+
+    verify(checkpointService, times(1)).restore(4500L);
+  }
+
+  @Test
+  @DisplayName("should reject rebuilds beyond the concurrency limit")
+  void shouldLimitConcurrentRebuilds() {
+    properties.setMaxConcurrentRebuilds(1);
+    when(pixelHistoryRepository.findMaxId()).thenReturn(5000L);
+    when(checkpointService.restore(42L)).thenAnswer(invocation -> {
+      ApiException ex = assertThrows(ApiException.class,
+          () -> boardHistoryService.getBoardAt(null, 43L));
+      assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+      assertEquals(Integer.valueOf(5), ex.getRetryAfterSeconds());
+      return board(42L);
+    });
+    when(checkpointService.restore(43L)).thenReturn(board(43L));
+
+    boardHistoryService.getBoardAt(null, 42L);
+    boardHistoryService.getBoardAt(null, 43L);
+
+    verify(checkpointService).restore(43L);
+  }
+
+  @Test
+  @DisplayName("should clamp a history ID beyond the newest record")
+  void shouldClampFutureHistoryId() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(100L);
+    when(checkpointService.restore(100L)).thenReturn(board(100L));
+
+    boardHistoryService.getBoardAt(null, 5000L);
+
+    verify(checkpointService).restore(100L);
+  }
+
+  @Test
+  @DisplayName("should resolve a time to the newest history ID recorded at or before it")
+  void shouldResolveTimeToHistoryId() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(100L);
+    when(pixelHistoryRepository.findFirstFrom(anyLong()))
+        .thenAnswer(invocation -> recordAt(invocation.getArgument(0)));
+    when(checkpointService.restore(37L)).thenReturn(board(37L));
+
+    Instant time = START.plusMinutes(37).plusSeconds(30)
+        .atZone(ZoneId.systemDefault()).toInstant();
+    boardHistoryService.getBoardAt(time, null);
+
+    verify(checkpointService).restore(37L);
+  }
+
+  @Test
+  @DisplayName("should reject requests without exactly one of time and historyId")
+  void shouldRejectAmbiguousRequests() {
+    ApiException none = assertThrows(ApiException.class,
+        () -> boardHistoryService.getBoardAt(null, null));
+    assertEquals(HttpStatus.BAD_REQUEST, none.getStatus());
+    assertThrows(ApiException.class,
+        () -> boardHistoryService.getBoardAt(Instant.now(), 1L));
+    assertThrows(ApiException.class,
+        () -> boardHistoryService.getBoardAt(null, -1L));
+  }
+}
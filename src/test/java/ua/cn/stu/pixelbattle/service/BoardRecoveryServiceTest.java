@@ -0,0 +1,178 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import ua.cn.stu.pixelbattle.model.Pixel;
+import ua.cn.stu.pixelbattle.model.User;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+import ua.cn.stu.pixelbattle.repository.UserRepository;
+import ua.cn.stu.pixelbattle.util.CanvasState;
+
+/**
+ * Unit tests for {@link BoardRecoveryService}.
+ *
+ * <p>Verifies detection of missing and stale boards and the bulk rebuild of the pixels and
+ * the territory owner layer.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BoardRecoveryServiceTest {
+
+  private final RedisSerializer<Pixel> pixelSerializer =
+      new Jackson2JsonRedisSerializer<>(Pixel.class);
+
+  @Mock
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  @Mock
+  private PixelHistoryRepository pixelHistoryRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private CanvasCheckpointService checkpointService;
+
+  @Mock
+  private RedisLockService lockService;
+
+  @Mock
+  private RedisLockService.Lease lease;
+
+  @Mock
+  private TeamService teamService;
+
+  private BoardRecoveryService boardRecoveryService;
+
+  @BeforeEach
+  void setUp() {
+    boardRecoveryService = new BoardRecoveryService(stringRedisTemplate, pixelSerializer,
+        pixelHistoryRepository, userRepository, checkpointService, lockService, teamService);
+    lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+  }
+
+  private String json(Pixel pixel) {
+    return new String(pixelSerializer.serialize(pixel), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  @DisplayName("should leave a consistent board untouched")
+  void shouldSkipConsistentBoard() throws Exception {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(5000L);
+    when(valueOperations.get("board:last-history-id")).thenReturn("4500");
+
+    assertFalse(boardRecoveryService.recoverIfNeeded());
+
+    verify(checkpointService, never()).restore(anyLong(), any(Runnable.class));
+  }
+
+  @Test
+  @DisplayName("should rebuild a missing board without overwriting cells painted meanwhile")
+  void shouldRebuildMissingBoard() throws Exception {
+    CanvasState state = new CanvasState(10, 10);
+    state.apply(40, 1, 2, 0xFF0000, 7);
+    state.apply(41, 3, 4, 0x00FF00, 0);
+    User user = new User();
+    user.setId(7L);
+    user.setUsername("alice");
+    when(pixelHistoryRepository.findMaxId()).thenReturn(41L);
+    when(valueOperations.get(anyString())).thenReturn(null);
+    when(lockService.tryAcquire(eq("board:recovery:lock"), any(Duration.class)))
+        .thenReturn(Optional.of(lease));
+    when(checkpointService.restore(eq(41L), any(Runnable.class))).thenReturn(state);
+    when(userRepository.findAllById(List.of(7L))).thenReturn(List.of(user));
+    when(teamService.findTeamIds(List.of(7L))).thenReturn(Map.of(7L, 3L));
+
+    assertTrue(boardRecoveryService.recoverIfNeeded());
+
+    InOrder order = inOrder(stringRedisTemplate, checkpointService);
+    order.verify(stringRedisTemplate).delete("board:last-history-id");
+    order.verify(checkpointService).restore(eq(41L), any(Runnable.class));
+    order.verify(stringRedisTemplate).execute(BoardRecoveryService.WRITE_CELLS_SCRIPT,
+        List.of("board:rebuild:dirty", "territory:owners", "territory:counts",
+            "pixel:1:2", "pixel:3:4"),
+        json(new Pixel(1, 2, "#FF0000", "alice", 7L)), "21", "3",
+        json(new Pixel(3, 4, "#00FF00", null, null)), "43", "0");
+    order.verify(stringRedisTemplate).execute(BoardRecoveryService.FINISH_SCRIPT,
+        List.of("board:last-history-id", "board:rebuild:dirty"), "41");
+    verify(valueOperations, never()).set(anyString(), anyString());
+    verify(lease).close();
+  }
+
+  @Test
+  @DisplayName("should rebuild a board whose marker lags behind the history")
+  void shouldRebuildStaleBoard() throws Exception {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(5000L);
+    when(valueOperations.get("board:last-history-id")).thenReturn("100");
+    when(lockService.tryAcquire(eq("board:recovery:lock"), any(Duration.class)))
+        .thenReturn(Optional.of(lease));
+    when(checkpointService.restore(eq(5000L), any(Runnable.class)))
+        .thenReturn(new CanvasState(10, 10));
+
+    assertTrue(boardRecoveryService.recoverIfNeeded());
+
+    verify(stringRedisTemplate).delete("board:last-history-id");
+    verify(stringRedisTemplate).execute(BoardRecoveryService.FINISH_SCRIPT,
+        List.of("board:last-history-id", "board:rebuild:dirty"), "5000");
+  }
+
+  @Test
+  @DisplayName("should wait for another node that is already rebuilding")
+  void shouldWaitForOtherNode() throws Exception {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(5000L);
+    when(valueOperations.get("board:last-history-id")).thenReturn("100", "5000");
+    when(lockService.tryAcquire(eq("board:recovery:lock"), any(Duration.class)))
+        .thenReturn(Optional.empty());
+
+    assertFalse(boardRecoveryService.recoverIfNeeded());
+
+    verify(checkpointService, never()).restore(anyLong(), any(Runnable.class));
+    verify(stringRedisTemplate, never()).execute(eq(BoardRecoveryService.WRITE_CELLS_SCRIPT),
+        anyList(), any(Object[].class));
+  }
+
+  @Test
+  @DisplayName("should create the marker for an empty history")
+  void shouldCreateMarkerForEmptyHistory() throws Exception {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(0L);
+    when(valueOperations.get("board:last-history-id")).thenReturn(null);
+    when(lockService.tryAcquire(eq("board:recovery:lock"), any(Duration.class)))
+        .thenReturn(Optional.of(lease));
+    when(checkpointService.restore(eq(0L), any(Runnable.class)))
+        .thenReturn(new CanvasState(10, 10));
+
+    assertTrue(boardRecoveryService.recoverIfNeeded());
+
+    verify(stringRedisTemplate).execute(BoardRecoveryService.FINISH_SCRIPT,
+        List.of("board:last-history-id", "board:rebuild:dirty"), "0");
+  }
+}
@@ -0,0 +1,175 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ua.cn.stu.pixelbattle.config.CheckpointProperties;
+import ua.cn.stu.pixelbattle.config.GameProperties;
+import ua.cn.stu.pixelbattle.model.CanvasCheckpoint;
+import ua.cn.stu.pixelbattle.repository.CanvasCheckpointRepository;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryExportRepository;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+import ua.cn.stu.pixelbattle.util.CanvasState;
+
+/**
+ * Unit tests for {@link CanvasCheckpointService}.
+ *
+ * <p>Verifies incremental checkpoint creation and restoring from a checkpoint plus tail.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CanvasCheckpointServiceTest {
+
+  @Mock
+  private CanvasCheckpointRepository checkpointRepository;
+
+  @Mock
+  private PixelHistoryRepository pixelHistoryRepository;
+
+  @Mock
+  private PixelHistoryExportRepository pixelHistoryExportRepository;
+
+  @Mock
+  private RedisLockService lockService;
+
+  @Mock
+  private RedisLockService.Lease lease;
+
+  private CanvasCheckpointService checkpointService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(lockService.tryAcquire(eq("checkpoint:lock"), any(Duration.class)))
+        .thenReturn(Optional.of(lease));
+    GameProperties gameProperties = new GameProperties();
+    gameProperties.setWidth(10);
+    gameProperties.setHeight(10);
+    checkpointService = new CanvasCheckpointService(checkpointRepository,
+        pixelHistoryRepository, pixelHistoryExportRepository, lockService,
+        gameProperties, new CheckpointProperties());
+  }
+
+  private CanvasCheckpoint checkpoint(long lastHistoryId, int x, int y, int rgb) {
+    CanvasState state = new CanvasState(10, 10);
+    state.apply(lastHistoryId, x, y, rgb, 1);
+    CanvasCheckpoint checkpoint =
+        new CanvasCheckpoint(lastHistoryId, 10, 10, state.toCompressedBytes());
+    checkpoint.setId(1L);
+    return checkpoint;
+  }
+
+  private void replayChange(long fromId, long toId, long id, int x, int y, int rgb) {
+    doAnswer(invocation -> {
+      PixelHistoryExportRepository.ChangeHandler handler = invocation.getArgument(2);
+      handler.accept(id, x, y, rgb, 2);
+      return null;
+    }).when(pixelHistoryExportRepository).forEachChangeInRange(eq(fromId), eq(toId), any());
+  }
+
+  @Test
+  @DisplayName("should extend the previous checkpoint with the settled history")
+  void shouldWriteIncrementalCheckpoint() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(5000L);
+    when(checkpointRepository.findFirstByOrderByLastHistoryIdDesc())
+        .thenReturn(Optional.of(checkpoint(3000L, 1, 1, 0xFF0000)));
+    replayChange(3000L, 4000L, 3500L, 2, 2, 0x00FF00);
+
+    checkpointService.createCheckpoint();
+
+    ArgumentCaptor<CanvasCheckpoint> saved = ArgumentCaptor.forClass(CanvasCheckpoint.class);
+    verify(checkpointRepository).save(saved.capture());
+    CanvasState state = CanvasState.fromCompressedBytes(saved.getValue().getData(), 10, 10, 0);
+    assertEquals(4000L, saved.getValue().getLastHistoryId());
+    assertEquals(0xFF0000, state.getColor(1, 1));
+    assertEquals(0x00FF00, state.getColor(2, 2));
+    verify(checkpointRepository).deleteThinnedOut(eq(48), any(LocalDateTime.class));
+    verify(lease).keepAlive();
+    verify(lease).close();
+  }
+
+  @Test
+  @DisplayName("should skip the checkpoint when another node holds the lock")
+  void shouldSkipWithoutLock() {
+    when(lockService.tryAcquire(eq("checkpoint:lock"), any(Duration.class)))
+        .thenReturn(Optional.empty());
+
+    checkpointService.createCheckpoint();
+
+    verify(pixelHistoryRepository, never()).findMaxId();
+    verify(checkpointRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("should keep the old checkpoints when the same checkpoint was already saved")
+  void shouldIgnoreDuplicateCheckpoint() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(5000L);
+    when(checkpointRepository.findFirstByOrderByLastHistoryIdDesc())
+        .thenReturn(Optional.of(checkpoint(3000L, 1, 1, 0xFF0000)));
+    replayChange(3000L, 4000L, 3500L, 2, 2, 0x00FF00);
+    when(checkpointRepository.save(any()))
+        .thenThrow(new DataIntegrityViolationException("duplicate last_history_id"));
+
+    checkpointService.createCheckpoint();
+
+    verify(checkpointRepository, never()).deleteThinnedOut(anyInt(), any());
+    verify(lease, times(1)).close();
+  }
+
+  @Test
+  @DisplayName("should skip the checkpoint when no new history settled")
+  void shouldSkipWithoutNewHistory() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(3500L);
+    when(checkpointRepository.findFirstByOrderByLastHistoryIdDesc())
+        .thenReturn(Optional.of(checkpoint(3000L, 1, 1, 0xFF0000)));
+
+    checkpointService.createCheckpoint();
+
+    verify(checkpointRepository, never()).save(any());
+    verify(pixelHistoryExportRepository, never())
+        .forEachChangeInRange(anyLong(), anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("should restore a board from the nearest checkpoint and the tail")
+  void shouldRestoreFromCheckpointAndTail() {
+    when(checkpointRepository.findFirstByLastHistoryIdLessThanEqualOrderByLastHistoryIdDesc(
+        3200L)).thenReturn(Optional.of(checkpoint(3000L, 1, 1, 0xFF0000)));
+    replayChange(3000L, 3200L, 3100L, 1, 1, 0x0000FF);
+
+    CanvasState state = checkpointService.restore(3200L);
+
+    assertEquals(0x0000FF, state.getColor(1, 1));
+    assertEquals(3100L, state.getLastHistoryId());
+  }
+
+  @Test
+  @DisplayName("should replay from the start when there is no checkpoint")
+  void shouldRestoreWithoutCheckpoint() {
+    when(checkpointRepository.findFirstByLastHistoryIdLessThanEqualOrderByLastHistoryIdDesc(
+        50L)).thenReturn(Optional.empty());
+    replayChange(0L, 50L, 10L, 3, 4, 0x123456);
+
+    CanvasState state = checkpointService.restore(50L);
+
+    assertEquals(0x123456, state.getColor(3, 4));
+  }
+}
@@ -0,0 +1,81 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.cn.stu.pixelbattle.dto.CooldownReadyNotification;
+import ua.cn.stu.pixelbattle.event.CooldownStartedEvent;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel.Timeout;
+
+/**
+ * Unit tests for {@link CooldownNotificationService}.
+ *
+ * <p>Verifies timer scheduling, replacement and the "ready" push.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CooldownNotificationServiceTest {
+
+  @Mock
+  private HierarchicalTimingWheel timingWheel;
+
+  @Mock
+  private WebSocketSessionRegistry sessionRegistry;
+
+  @InjectMocks
+  private CooldownNotificationService notificationService;
+
+  @Test
+  @DisplayName("should push ready notification when the timer fires")
+  void shouldPushReadyWhenTimerFires() {
+    when(sessionRegistry.isOnline(1L)).thenReturn(true);
+    when(timingWheel.schedule(any(Runnable.class), eq(5L), eq(TimeUnit.SECONDS)))
+        .thenReturn(mock(Timeout.class));
+
+    notificationService.onCooldownStarted(new CooldownStartedEvent(1L, 5));
+
+    ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+    verify(timingWheel).schedule(task.capture(), eq(5L), eq(TimeUnit.SECONDS));
+    task.getValue().run();
+
+    verify(sessionRegistry).sendToUser(
+        eq(1L), eq("/queue/cooldown"), any(CooldownReadyNotification.class));
+  }
+
+  @Test
+  @DisplayName("should cancel previous timer when a new cooldown starts")
+  void shouldCancelPreviousTimer() {
+    Timeout first = mock(Timeout.class);
+    when(sessionRegistry.isOnline(1L)).thenReturn(true);
+    when(timingWheel.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+        .thenReturn(first, mock(Timeout.class));
+
+    notificationService.onCooldownStarted(new CooldownStartedEvent(1L, 5));
+    notificationService.onCooldownStarted(new CooldownStartedEvent(1L, 5));
+
+    verify(first).cancel();
+  }
+
+  @Test
+  @DisplayName("should not schedule timers for offline users")
+  void shouldSkipOfflineUsers() {
+    when(sessionRegistry.isOnline(1L)).thenReturn(false);
+
+    notificationService.onCooldownStarted(new CooldownStartedEvent(1L, 5));
+
+    verify(timingWheel, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+  }
+}
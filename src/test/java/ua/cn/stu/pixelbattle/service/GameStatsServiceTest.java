@@ -0,0 +1,84 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.HyperLogLogOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import ua.cn.stu.pixelbattle.dto.GameStatsResponse;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
+
+/**
+ * Unit tests for {@link GameStatsService}.
+ *
+ * <p>Verifies HyperLogLog feeding and cluster-wide viewer aggregation.
+ */
+@ExtendWith(MockitoExtension.class)
+public class GameStatsServiceTest {
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private HyperLogLogOperations<String, String> hyperLogLogOperations;
+
+  @Mock
+  private HashOperations<String, Object, Object> hashOperations;
+
+  @InjectMocks
+  private GameStatsService gameStatsService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForHyperLogLog()).thenReturn(hyperLogLogOperations);
+    lenient().when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+  }
+
+  @Test
+  @DisplayName("should add placing user to the current minute HyperLogLog")
+  void shouldAddPlacerToHyperLogLog() {
+    gameStatsService.onPixelChanged(
+        new PixelChangedEvent(1, 1, "#FFFFFF", "#000000", 7L, "user", null));
+
+    verify(hyperLogLogOperations).add(startsWith("stats:placers:"), eq("7"));
+  }
+
+  @Test
+  @DisplayName("should sum fresh node reports and skip stale ones")
+  void shouldSumFreshViewerReports() {
+    long now = System.currentTimeMillis();
+    when(hashOperations.entries("stats:viewers")).thenReturn(Map.<Object, Object>of(
+        "node-a", "10:" + now,
+        "node-b", "5:" + (now - 120_000)));
+    when(hyperLogLogOperations.size(any(String[].class))).thenReturn(3L);
+
+    GameStatsResponse stats = gameStatsService.getStats();
+
+    assertEquals(10, stats.getViewers());
+    assertEquals(3, stats.getActivePlayers());
+    verify(hashOperations).delete("stats:viewers", "node-b");
+  }
+
+  @Test
+  @DisplayName("should publish local session count")
+  void shouldPublishLocalSessionCount() {
+    gameStatsService.publishViewers();
+
+    verify(hashOperations).put(eq("stats:viewers"), anyString(), startsWith("0:"));
+  }
+}
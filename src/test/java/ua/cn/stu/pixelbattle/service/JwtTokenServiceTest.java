@@ -4,10 +4,17 @@ package ua.cn.stu.pixelbattle.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -33,6 +40,9 @@ public class JwtTokenServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
   @Mock
   private JwtProperties jwtProperties;
 
@@ -45,7 +55,7 @@ public class JwtTokenServiceTest {
     jwtProperties.setAccessTokenDurationMs(10000L);
     jwtProperties.setRefreshTokenDurationMs(20000L);
 
-    jwtTokenService = new JwtTokenService(userRepository, jwtProperties);
+    jwtTokenService = new JwtTokenService(userRepository, tokenRevocationService, jwtProperties);
   }
 
   @Test
@@ -54,7 +64,7 @@ public class JwtTokenServiceTest {
     String username = "testUser";
     Long userId = 1L;
 
-    String token = jwtTokenService.createToken(username, userId);
+    String token = jwtTokenService.createToken(username, userId, "USER");
 
     assertNotNull(token);
     assertTrue(jwtTokenService.validateToken(token));
@@ -84,7 +94,7 @@ public class JwtTokenServiceTest {
 
     IllegalStateException ex =
         assertThrows(IllegalStateException.class,
-            () -> new JwtTokenService(userRepository, props));
+            () -> new JwtTokenService(userRepository, tokenRevocationService, props));
 
     assertTrue(ex.getMessage().contains("JWT secret is not configured"));
   }
@@ -118,10 +128,74 @@ public class JwtTokenServiceTest {
   @Test
   @DisplayName("should handle expired or tampered token gracefully")
   void validateTokenWithException() {
-    String token = jwtTokenService.createToken("user", 1L);
+    String token = jwtTokenService.createToken("user", 1L, "USER");
 
     // I change the real valid token
     String brokenToken = "xyz" + token + "xyz";
     assertFalse(jwtTokenService.validateToken(brokenToken));
   }
+
+  @Test
+  @DisplayName("should build principal from claims without loading the user")
+  void authenticateFromClaims() {
+    String token = jwtTokenService.createToken("admin", 2L, "ADMIN");
+
+    CustomUserDetails details = jwtTokenService.authenticate(token);
+
+    assertEquals(Long.valueOf(2L), details.getId());
+    assertEquals("admin", details.getUsername());
+    assertEquals("ADMIN", details.getRole());
+    assertSame(details, jwtTokenService.authenticate(token));
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  @DisplayName("should reject tampered token on authenticate")
+  void authenticateTamperedToken() {
+    String token = jwtTokenService.createToken("user", 1L, "USER");
+
+    assertThrows(JWTVerificationException.class,
+        () -> jwtTokenService.authenticate(token + "x"));
+  }
+
+  @Test
+  @DisplayName("should return the token expiry with the principal")
+  void verifyReturnsExpiry() {
+    String token = jwtTokenService.createToken("user", 1L, "USER");
+
+    JwtTokenService.VerifiedToken verified = jwtTokenService.verify(token);
+
+    assertEquals(JWT.decode(token).getExpiresAt().getTime(), verified.getExpiresAtMs());
+    assertSame(verified.getDetails(), jwtTokenService.authenticate(token));
+  }
+
+  @Test
+  @DisplayName("should reject revoked token even when its principal is cached")
+  void authenticateRevokedToken() {
+    String token = jwtTokenService.createToken("user", 1L, "USER");
+    String jti = JWT.decode(token).getId();
+    jwtTokenService.authenticate(token);
+
+    when(tokenRevocationService.isRevoked(jti)).thenReturn(true);
+
+    assertThrows(JWTVerificationException.class, () -> jwtTokenService.authenticate(token));
+  }
+
+  @Test
+  @DisplayName("should revoke token by its id until it expires")
+  void revokeToken() {
+    String token = jwtTokenService.createToken("user", 1L, "USER");
+
+    jwtTokenService.revoke(token);
+
+    verify(tokenRevocationService).revoke(eq(JWT.decode(token).getId()), anyLong());
+  }
+
+  @Test
+  @DisplayName("should ignore revocation of an invalid token")
+  void revokeInvalidToken() {
+    jwtTokenService.revoke("invalid.token.value");
+
+    verifyNoInteractions(tokenRevocationService);
+  }
 }
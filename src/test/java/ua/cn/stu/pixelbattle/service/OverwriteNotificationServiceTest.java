@@ -0,0 +1,81 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.cn.stu.pixelbattle.dto.OverwriteNotification;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
+
+/**
+ * Unit tests for {@link OverwriteNotificationService}.
+ *
+ * <p>Verifies per-user batching and skipping of self-overwrites and offline owners.
+ */
+@ExtendWith(MockitoExtension.class)
+public class OverwriteNotificationServiceTest {
+
+  @Mock
+  private WebSocketSessionRegistry sessionRegistry;
+
+  @InjectMocks
+  private OverwriteNotificationService notificationService;
+
+  private static PixelChangedEvent change(int x, Long userId, Long previousOwnerId) {
+    return new PixelChangedEvent(x, 0, "#FFFFFF", "#000000", userId, "painter", previousOwnerId);
+  }
+
+  @Test
+  @DisplayName("should batch overwrites of the same owner into one message per tick")
+  void shouldBatchOverwritesPerOwner() {
+    when(sessionRegistry.isOnline(2L)).thenReturn(true);
+
+    for (int x = 0; x < OverwriteNotificationService.MAX_PIXELS_PER_BATCH + 5; x++) {
+      notificationService.onPixelChanged(change(x, 1L, 2L));
+    }
+    notificationService.flush();
+
+    ArgumentCaptor<OverwriteNotification> captor =
+        ArgumentCaptor.forClass(OverwriteNotification.class);
+    verify(sessionRegistry).sendToUser(eq(2L), eq("/queue/overwritten"), captor.capture());
+    assertEquals(OverwriteNotificationService.MAX_PIXELS_PER_BATCH,
+        captor.getValue().getPixels().size());
+    assertEquals(OverwriteNotificationService.MAX_PIXELS_PER_BATCH + 5,
+        captor.getValue().getTotal());
+  }
+
+  @Test
+  @DisplayName("should not notify when user overwrites own pixel")
+  void shouldNotNotifySelfOverwrite() {
+    lenient().when(sessionRegistry.isOnline(1L)).thenReturn(true);
+
+    notificationService.onPixelChanged(change(0, 1L, 1L));
+    notificationService.flush();
+
+    verify(sessionRegistry, never()).sendToUser(anyLong(), anyString(), any());
+  }
+
+  @Test
+  @DisplayName("should not notify offline owners")
+  void shouldNotNotifyOfflineOwner() {
+    when(sessionRegistry.isOnline(2L)).thenReturn(false);
+
+    notificationService.onPixelChanged(change(0, 1L, 2L));
+    notificationService.flush();
+
+    verify(sessionRegistry, never()).sendToUser(anyLong(), anyString(), any());
+  }
+}
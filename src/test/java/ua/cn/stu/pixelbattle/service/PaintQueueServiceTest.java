@@ -0,0 +1,142 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import ua.cn.stu.pixelbattle.config.GameProperties;
+import ua.cn.stu.pixelbattle.config.PaintQueueProperties;
+import ua.cn.stu.pixelbattle.dto.PixelChangeRequest;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.model.Pixel;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel;
+import ua.cn.stu.pixelbattle.util.HierarchicalTimingWheel.Timeout;
+
+/**
+ * Unit tests for {@link PaintQueueService}.
+ *
+ * <p>Verifies queue limits, skipping of already colored cells and rescheduling
+ * on cooldown.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PaintQueueServiceTest {
+
+  @Mock
+  private PixelService pixelService;
+
+  @Mock
+  private HierarchicalTimingWheel timingWheel;
+
+  private PaintQueueProperties paintQueueProperties;
+  private PaintQueueService paintQueueService;
+
+  @BeforeEach
+  void setUp() {
+    GameProperties gameProperties = new GameProperties();
+    gameProperties.setWidth(100);
+    gameProperties.setHeight(100);
+    gameProperties.setCooldown(1);
+    paintQueueProperties = new PaintQueueProperties();
+    paintQueueProperties.setMaxSize(3);
+    paintQueueProperties.setWorkerThreads(1);
+
+    paintQueueService = new PaintQueueService(
+        pixelService, timingWheel, gameProperties, paintQueueProperties);
+    paintQueueService.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    paintQueueService.stop();
+  }
+
+  private Runnable captureScheduledTask(int invocation, long delayMs) {
+    ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+    verify(timingWheel, times(invocation))
+        .schedule(task.capture(), eq(delayMs), eq(TimeUnit.MILLISECONDS));
+    return task.getValue();
+  }
+
+  @Test
+  @DisplayName("should skip cells that already have the target color")
+  void shouldSkipAlreadyColoredCells() {
+    when(pixelService.getRemainingCooldownMillis(1L)).thenReturn(500L, 1000L);
+    when(timingWheel.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+        .thenReturn(mock(Timeout.class));
+    when(pixelService.getPixel(1, 1)).thenReturn(new Pixel(1, 1, "#000000", "user", 1L));
+    when(pixelService.getPixel(2, 2)).thenReturn(null);
+
+    paintQueueService.enqueue(1L, List.of(
+        new PixelChangeRequest(1, 1, "#000000"),
+        new PixelChangeRequest(2, 2, "#FF0000")));
+    captureScheduledTask(1, 500L).run();
+
+    verify(pixelService, timeout(1000)).changePixel(2, 2, "#FF0000", 1L);
+    verify(pixelService, never()).changePixel(eq(1), eq(1), any(), anyLong());
+    verify(timingWheel, timeout(1000)).schedule(any(Runnable.class), eq(1000L), any());
+  }
+
+  @Test
+  @DisplayName("should keep placement and reschedule when cooldown is active")
+  void shouldRescheduleOnCooldown() {
+    when(pixelService.getRemainingCooldownMillis(1L)).thenReturn(500L, 700L);
+    when(timingWheel.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+        .thenReturn(mock(Timeout.class));
+    doThrow(new ApiException("Wait", HttpStatus.TOO_MANY_REQUESTS))
+        .when(pixelService).changePixel(anyInt(), anyInt(), any(), anyLong());
+
+    paintQueueService.enqueue(1L, List.of(new PixelChangeRequest(3, 3, "#FF0000")));
+    captureScheduledTask(1, 500L).run();
+
+    verify(timingWheel, timeout(1000)).schedule(any(Runnable.class), eq(700L), any());
+    assertEquals(1, paintQueueService.getQueue(1L).getPending());
+  }
+
+  @Test
+  @DisplayName("should reject placements beyond the queue limit")
+  void shouldRejectQueueOverflow() {
+    PixelChangeRequest pixel = new PixelChangeRequest(1, 1, "#000000");
+
+    ApiException ex = assertThrows(ApiException.class, () ->
+        paintQueueService.enqueue(1L, List.of(pixel, pixel, pixel, pixel)));
+
+    assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    assertEquals(0, paintQueueService.getQueue(1L).getPending());
+  }
+
+  @Test
+  @DisplayName("should cancel pending attempt when queue is cleared")
+  void shouldCancelTimerOnClear() {
+    Timeout pending = mock(Timeout.class);
+    when(pixelService.getRemainingCooldownMillis(1L)).thenReturn(500L);
+    when(timingWheel.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+        .thenReturn(pending);
+
+    paintQueueService.enqueue(1L, List.of(new PixelChangeRequest(1, 1, "#000000")));
+    paintQueueService.clear(1L);
+
+    verify(pending).cancel();
+    assertEquals(0, paintQueueService.getQueue(1L).getPending());
+  }
+}
@@ -0,0 +1,119 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ua.cn.stu.pixelbattle.config.PasswordHashingProperties;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+
+/**
+ * Unit tests for {@link PasswordHashingService}.
+ *
+ * <p>Verifies delegation to the encoder, metrics and fast rejection on overflow.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PasswordHashingServiceTest {
+
+  @Mock
+  private PasswordEncoder passwordEncoder;
+
+  private SimpleMeterRegistry meterRegistry;
+  private PasswordHashingService passwordHashingService;
+
+  @BeforeEach
+  void setUp() {
+    PasswordHashingProperties properties = new PasswordHashingProperties();
+    properties.setThreads(1);
+    properties.setQueueCapacity(1);
+    properties.setRetryAfterSeconds(3);
+    properties.setMaxWaitMs(5000);
+    meterRegistry = new SimpleMeterRegistry();
+    passwordHashingService =
+        new PasswordHashingService(passwordEncoder, properties, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    passwordHashingService.shutdown();
+  }
+
+  @Test
+  @DisplayName("should hash on the executor and record duration")
+  void shouldEncodeAndRecordMetrics() {
+    when(passwordEncoder.encode("secret")).thenReturn("hash");
+
+    assertEquals("hash", passwordHashingService.encode("secret"));
+    assertEquals(1, meterRegistry.get("auth.hashing.duration")
+        .tag("operation", "encode").timer().count());
+    assertEquals(1, meterRegistry.get("auth.hashing.queue").timer().count());
+  }
+
+  @Test
+  @DisplayName("should reject with 503 and Retry-After when the queue is full")
+  void shouldRejectWhenQueueIsFull() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(passwordEncoder.matches("slow", "hash")).thenAnswer(invocation -> {
+      started.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return true;
+    });
+
+    Thread running = new Thread(() -> passwordHashingService.matches("slow", "hash"));
+    Thread queued = new Thread(() -> passwordHashingService.matches("slow", "hash"));
+    running.start();
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    queued.start();
+    while (meterRegistry.get("auth.hashing.queue.size").gauge().value() < 1) {
+      Thread.sleep(5);
+    }
+
+    final ApiException ex = assertThrows(ApiException.class,
+        () -> passwordHashingService.matches("slow", "hash"));
+    release.countDown();
+    running.join();
+    queued.join();
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+    assertEquals(Integer.valueOf(3), ex.getRetryAfterSeconds());
+    assertEquals(1.0, meterRegistry.get("auth.hashing.rejected").counter().count());
+  }
+
+  @Test
+  @DisplayName("should give up with 503 when the hash is not ready in time")
+  void shouldRejectWhenWaitTimesOut() throws InterruptedException {
+    PasswordHashingProperties properties = new PasswordHashingProperties();
+    properties.setThreads(1);
+    properties.setMaxWaitMs(50);
+    PasswordHashingService impatient =
+        new PasswordHashingService(passwordEncoder, properties, meterRegistry);
+    CountDownLatch release = new CountDownLatch(1);
+    when(passwordEncoder.matches("slow", "hash")).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return true;
+    });
+
+    try {
+      ApiException ex = assertThrows(ApiException.class,
+          () -> impatient.matches("slow", "hash"));
+      assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+    } finally {
+      release.countDown();
+      impatient.shutdown();
+    }
+  }
+}
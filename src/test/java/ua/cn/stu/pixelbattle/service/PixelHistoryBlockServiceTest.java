@@ -0,0 +1,154 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.model.PixelHistory;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+
+/**
+ * Unit tests for {@link PixelHistoryBlockService}.
+ *
+ * <p>Verifies that sealed blocks are cached locally and in Redis while the tail block is
+ * always read from the database.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PixelHistoryBlockServiceTest {
+
+  @Mock
+  private PixelHistoryRepository pixelHistoryRepository;
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  @Mock
+  private RedisLockService lockService;
+
+  @Mock
+  private RedisLockService.Lease lease;
+
+  private PixelHistoryBlockService blockService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    blockService = new PixelHistoryBlockService(
+        pixelHistoryRepository, redisTemplate, new ObjectMapper(), lockService);
+  }
+
+  private PixelHistory record(long id) {
+    PixelHistory history = new PixelHistory();
+    history.setId(id);
+    history.setCoordinateX(1);
+    history.setCoordinateY(2);
+    history.setNewColor("#ABCDEF");
+    return history;
+  }
+
+  @Test
+  @DisplayName("should seal a block once the history is a full block past its end")
+  void shouldSealCompleteBlock() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(3000L);
+    when(lockService.tryAcquire(eq("history:block:1:lease"), any(Duration.class)))
+        .thenReturn(Optional.of(lease));
+    when(pixelHistoryRepository.findRange(1000L, 2000L)).thenReturn(List.of(record(1001L)));
+
+    PixelHistoryBlockService.HistoryBlock first = blockService.getBlock(1);
+    final PixelHistoryBlockService.HistoryBlock second = blockService.getBlock(1);
+
+    assertTrue(first.isSealed());
+    assertEquals("\"h1\"", first.getEtag());
+    assertEquals("[{\"id\":1001,\"x\":1,\"y\":2,\"new_color\":\"#ABCDEF\"}]",
+        new String(first.getBody(), StandardCharsets.UTF_8));
+    assertArrayEquals(first.getBody(), second.getBody());
+    verify(valueOperations).set(anyString(), anyString(), any(Duration.class));
+    verify(pixelHistoryRepository, times(1)).findRange(1000L, 2000L);
+    verify(lease).close();
+  }
+
+  @Test
+  @DisplayName("should wait for the node holding the lease instead of querying")
+  void shouldWaitForOtherNodeLoadingBlock() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(3000L);
+    when(valueOperations.get("history:block:1")).thenReturn(null, "[]");
+    when(lockService.tryAcquire(eq("history:block:1:lease"), any(Duration.class)))
+        .thenReturn(Optional.empty());
+
+    PixelHistoryBlockService.HistoryBlock block = blockService.getBlock(1);
+
+    assertTrue(block.isSealed());
+    assertEquals("[]", new String(block.getBody(), StandardCharsets.UTF_8));
+    verify(pixelHistoryRepository, never()).findRange(1000L, 2000L);
+  }
+
+  @Test
+  @DisplayName("should serve a block sealed by another node from Redis")
+  void shouldServeSharedBlockFromRedis() {
+    when(valueOperations.get("history:block:4")).thenReturn("[]");
+
+    PixelHistoryBlockService.HistoryBlock block = blockService.getBlock(4);
+
+    assertTrue(block.isSealed());
+    assertEquals("[]", new String(block.getBody(), StandardCharsets.UTF_8));
+    verifyNoInteractions(pixelHistoryRepository);
+  }
+
+  @Test
+  @DisplayName("should not cache the still growing tail block")
+  void shouldNotCacheTailBlock() {
+    when(pixelHistoryRepository.findMaxId()).thenReturn(1500L);
+    when(pixelHistoryRepository.findRange(1000L, 2000L)).thenReturn(List.of(record(1500L)));
+
+    PixelHistoryBlockService.HistoryBlock block = blockService.getBlock(1);
+    blockService.getBlock(1);
+
+    assertFalse(block.isSealed());
+    assertEquals("\"h1-1500\"", block.getEtag());
+    verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    verify(pixelHistoryRepository, times(2)).findRange(1000L, 2000L);
+    verifyNoInteractions(lockService);
+  }
+
+  @Test
+  @DisplayName("should reject a negative block index")
+  void shouldRejectNegativeIndex() {
+    assertThrows(ApiException.class, () -> blockService.getBlock(-1));
+  }
+
+  @Test
+  @DisplayName("should reject an index whose block IDs would overflow")
+  void shouldRejectOverflowingIndex() {
+    assertThrows(ApiException.class, () -> blockService.getBlock(Long.MAX_VALUE / 1000));
+
+    verifyNoInteractions(pixelHistoryRepository, redisTemplate, lockService);
+  }
+}
@@ -0,0 +1,113 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.cn.stu.pixelbattle.config.HistoryPartitionProperties;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryPartitionRepository;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryPartitionRepository.HistoryPartition;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
+
+/**
+ * Unit tests for {@link PixelHistoryPartitionService}.
+ *
+ * <p>Verifies that upcoming partitions are created, old ones archived, and that only
+ * the node holding the lock runs maintenance.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PixelHistoryPartitionServiceTest {
+
+  @Mock
+  private PixelHistoryPartitionRepository partitionRepository;
+
+  @Mock
+  private PixelHistoryRepository pixelHistoryRepository;
+
+  @Mock
+  private RedisLockService lockService;
+
+  @Mock
+  private RedisLockService.Lease lease;
+
+  private PixelHistoryPartitionService partitionService;
+
+  @BeforeEach
+  void setUp() {
+    HistoryPartitionProperties properties = new HistoryPartitionProperties();
+    properties.setSize(100);
+    properties.setPremake(2);
+    properties.setHotPartitions(3);
+    partitionService = new PixelHistoryPartitionService(
+        partitionRepository, pixelHistoryRepository, lockService, properties);
+  }
+
+  @Test
+  @DisplayName("should create partitions ahead of the newest history ID")
+  void shouldCreateUpcomingPartitions() {
+    when(lockService.tryAcquire(eq("history:partitions:lock"), any(Duration.class)))
+        .thenReturn(Optional.of(lease));
+    when(pixelHistoryRepository.findMaxId()).thenReturn(250L);
+    when(partitionRepository.findUpperBound()).thenReturn(300L);
+
+    partitionService.maintain();
+
+    verify(partitionRepository).createPartition(300L, 400L);
+    verify(partitionRepository).createPartition(400L, 500L);
+    verify(partitionRepository, never()).createPartition(500L, 600L);
+    verify(lease).close();
+  }
+
+  @Test
+  @DisplayName("should archive partitions behind the hot window")
+  void shouldArchiveOldPartitions() {
+    HistoryPartition old = new HistoryPartition("pixel_history_0", 0, 100);
+    when(lockService.tryAcquire(eq("history:partitions:lock"), any(Duration.class)))
+        .thenReturn(Optional.of(lease));
+    when(pixelHistoryRepository.findMaxId()).thenReturn(450L);
+    when(partitionRepository.findUpperBound()).thenReturn(700L);
+    when(partitionRepository.findHotPartitionsEndingBefore(150L)).thenReturn(List.of(old));
+
+    partitionService.maintain();
+
+    verify(partitionRepository).archivePartition(old);
+  }
+
+  @Test
+  @DisplayName("should skip maintenance when another node holds the lock")
+  void shouldSkipWithoutLock() {
+    when(lockService.tryAcquire(eq("history:partitions:lock"), any(Duration.class)))
+        .thenReturn(Optional.empty());
+
+    partitionService.maintain();
+
+    verifyNoInteractions(partitionRepository, pixelHistoryRepository, lease);
+  }
+
+  @Test
+  @DisplayName("should not archive anything while the history is young")
+  void shouldNotArchiveYoungHistory() {
+    when(lockService.tryAcquire(eq("history:partitions:lock"), any(Duration.class)))
+        .thenReturn(Optional.of(lease));
+    when(pixelHistoryRepository.findMaxId()).thenReturn(50L);
+    when(partitionRepository.findUpperBound()).thenReturn(300L);
+
+    partitionService.maintain();
+
+    verify(partitionRepository, never()).createPartition(anyLong(), anyLong());
+    verify(partitionRepository, never()).archivePartition(any());
+  }
+}
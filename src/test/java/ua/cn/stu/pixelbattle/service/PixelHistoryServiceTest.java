@@ -3,8 +3,15 @@ package ua.cn.stu.pixelbattle.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
@@ -12,12 +19,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import ua.cn.stu.pixelbattle.config.HistoryExportProperties;
 import ua.cn.stu.pixelbattle.dto.PixelHistoryDto;
 import ua.cn.stu.pixelbattle.exception.ApiException;
 import ua.cn.stu.pixelbattle.model.PixelHistory;
 import ua.cn.stu.pixelbattle.model.User;
+import ua.cn.stu.pixelbattle.repository.PixelHistoryExportRepository;
 import ua.cn.stu.pixelbattle.repository.PixelHistoryRepository;
 import ua.cn.stu.pixelbattle.security.CustomUserDetails;
 
@@ -38,6 +48,12 @@ public class PixelHistoryServiceTest {
   @Mock
   private PixelHistoryRepository pixelHistoryRepository;
 
+  @Mock
+  private PixelHistoryExportRepository pixelHistoryExportRepository;
+
+  @Spy
+  private HistoryExportProperties exportProperties = new HistoryExportProperties();
+
   @InjectMocks
   private PixelHistoryService pixelHistoryService;
 
@@ -226,4 +242,86 @@ public class PixelHistoryServiceTest {
     );
     assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
   }
-}
\ No newline at end of file
+
+  // ---------- EXPORT ----------
+
+  @Test
+  @DisplayName("should write exported rows as NDJSON lines")
+  void shouldWriteExportAsNdjson() throws Exception {
+    doAnswer(invocation -> {
+      PixelHistoryExportRepository.RowHandler handler = invocation.getArgument(3);
+      handler.accept(11L, 1, 2, "#FF0000");
+      handler.accept(12L, 3, 4, "#00FF00");
+      return null;
+    }).when(pixelHistoryExportRepository)
+        .forEachInRange(eq(10L), eq(Long.MAX_VALUE), anyLong(), any());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pixelHistoryService.exportRange(10L, null).writeTo(out);
+
+    assertEquals("{\"id\":11,\"x\":1,\"y\":2,\"new_color\":\"#FF0000\"}\n"
+            + "{\"id\":12,\"x\":3,\"y\":4,\"new_color\":\"#00FF00\"}\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("should reject an export range that ends before it starts")
+  void shouldRejectInvalidExportRange() {
+    ApiException ex = assertThrows(
+        ApiException.class,
+        () -> pixelHistoryService.exportRange(10L, 5L)
+    );
+    assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    verifyNoInteractions(pixelHistoryExportRepository);
+  }
+
+  @Test
+  @DisplayName("should reject exports beyond the concurrency limit until one is released")
+  void shouldLimitConcurrentExports() {
+    exportProperties.setMaxConcurrent(1);
+    PixelHistoryService.HistoryExport running = pixelHistoryService.exportRange(0L, null);
+
+    ApiException ex = assertThrows(
+        ApiException.class,
+        () -> pixelHistoryService.exportRange(0L, null)
+    );
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+    assertEquals(Integer.valueOf(30), ex.getRetryAfterSeconds());
+
+    // closing twice releases the slot once
+    running.close();
+    running.close();
+    PixelHistoryService.HistoryExport next = pixelHistoryService.exportRange(0L, null);
+    assertThrows(ApiException.class, () -> pixelHistoryService.exportRange(0L, null));
+    next.close();
+  }
+
+  @Test
+  @DisplayName("should keep the export slot until a running export has finished")
+  void shouldHoldSlotWhileExportRuns() throws Exception {
+    exportProperties.setMaxConcurrent(1);
+    PixelHistoryService.HistoryExport running = pixelHistoryService.exportRange(0L, null);
+    doAnswer(invocation -> {
+      // a timed-out request completes while the query is still streaming
+      running.close();
+      assertThrows(ApiException.class, () -> pixelHistoryService.exportRange(0L, null));
+      return null;
+    }).when(pixelHistoryExportRepository)
+        .forEachInRange(eq(0L), eq(Long.MAX_VALUE), anyLong(), any());
+
+    running.writeTo(new ByteArrayOutputStream());
+
+    pixelHistoryService.exportRange(0L, null).close();
+  }
+
+  @Test
+  @DisplayName("should not run an export that was closed before it started")
+  void shouldSkipClosedExport() throws Exception {
+    PixelHistoryService.HistoryExport export = pixelHistoryService.exportRange(0L, null);
+
+    export.close();
+    export.writeTo(new ByteArrayOutputStream());
+
+    verifyNoInteractions(pixelHistoryExportRepository);
+  }
+}
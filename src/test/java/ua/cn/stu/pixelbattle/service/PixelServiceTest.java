@@ -9,7 +9,6 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
@@ -24,11 +23,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
@@ -37,6 +38,8 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import ua.cn.stu.pixelbattle.config.GameProperties;
 import ua.cn.stu.pixelbattle.dto.GameInfoResponse;
 import ua.cn.stu.pixelbattle.dto.PixelResponse;
+import ua.cn.stu.pixelbattle.event.CooldownStartedEvent;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
 import ua.cn.stu.pixelbattle.exception.ApiException;
 import ua.cn.stu.pixelbattle.model.Pixel;
 import ua.cn.stu.pixelbattle.model.PixelHistory;
@@ -83,6 +86,12 @@ public class PixelServiceTest {
   @Mock
   private SimpMessagingTemplate messagingTemplate;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private TerritoryService territoryService;
+
   @InjectMocks
   PixelService pixelService;
 
@@ -102,14 +111,17 @@ public class PixelServiceTest {
         pixelHistoryRepository,
         userRepository,
         messagingTemplate,
-        gameProperties
+        gameProperties,
+        eventPublisher,
+        territoryService
     );
   }
 
   @AfterEach
   void tearDown() {
     reset(userRepository, redisTemplate, stringRedisTemplate,
-        pixelHistoryRepository, gameProperties, messagingTemplate);
+        pixelHistoryRepository, gameProperties, messagingTemplate, eventPublisher,
+        territoryService);
   }
 
 
@@ -118,7 +130,7 @@ public class PixelServiceTest {
   @DisplayName("should return pixel when found")
   void shouldReturnPixelWhenFound() {
 
-    Pixel pixel = new Pixel(1, 2, "#FF0000", "user");
+    Pixel pixel = new Pixel(1, 2, "#FF0000", "user", 1L);
     when(valueOperations.get("pixel:1:2")).thenReturn(pixel);
     Pixel result = pixelService.getPixel(1, 2);
 
@@ -166,7 +178,7 @@ public class PixelServiceTest {
     user.setId(1L);
     user.setRole("ADMIN");
 
-    Pixel pixel = new Pixel(1, 2, "#FFF000", "userTest");
+    Pixel pixel = new Pixel(1, 2, "#FFF000", "userTest", 2L);
 
     when(userRepository.findById(1L)).thenReturn(Optional.of(user));
     when(valueOperations.get("pixel:1:2")).thenReturn(pixel);
@@ -176,7 +188,8 @@ public class PixelServiceTest {
 
     verify(pixelHistoryRepository, never()).save(any());
     verify(userRepository, never()).save(any());
-    verify(valueOperations, never()).set(anyString(), any(Pixel.class));
+    verify(territoryService, never()).paintCell(anyString(), any(Pixel.class));
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
 
   }
 
@@ -188,14 +201,13 @@ public class PixelServiceTest {
     user.setUsername("user");
     user.setRole("USER");
 
-    Pixel oldPixel = new Pixel(1, 2, "#FFFFFF", "user");
+    Pixel oldPixel = new Pixel(1, 2, "#FFFFFF", "user", 1L);
 
     // configs
     when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
     // redis
     when(valueOperations.get("pixel:1:2")).thenReturn(oldPixel);
-    doNothing().when(valueOperations).set(anyString(), any(Pixel.class));
 
 
     when(stringValueOperations.setIfAbsent(
@@ -208,7 +220,7 @@ public class PixelServiceTest {
     pixelService.changePixel(1, 2, "#FF0000", 1L);
 
 
-    verify(valueOperations).set("pixel:1:2", new Pixel(1, 2, "#FF0000", "user"));
+    verify(territoryService).paintCell("pixel:1:2", new Pixel(1, 2, "#FF0000", "user", 1L));
     verify(pixelHistoryRepository).save(any(PixelHistory.class));
     verify(userRepository).save(user);
     verify(messagingTemplate).convertAndSend(eq("/topic/pixels"), any(Object.class));
@@ -253,7 +265,7 @@ public class PixelServiceTest {
     pixelService.changePixel(5, 5, "#123456", 1L);
 
     verify(pixelHistoryRepository).save(any(PixelHistory.class));
-    verify(valueOperations).set(eq("pixel:5:5"), any(Pixel.class));
+    verify(territoryService).paintCell(eq("pixel:5:5"), any(Pixel.class));
     verify(userRepository).save(user);
     verify(messagingTemplate).convertAndSend(eq("/topic/pixels"), any(PixelResponse.class));
   }
@@ -266,7 +278,7 @@ public class PixelServiceTest {
     admin.setUsername("adminUser");
     admin.setRole("ADMIN");
 
-    Pixel oldPixel = new Pixel(1, 2, "#AAAAAA", "someone");
+    Pixel oldPixel = new Pixel(1, 2, "#AAAAAA", "someone", 2L);
 
     when(userRepository.findById(1L)).thenReturn(Optional.of(admin));
     when(valueOperations.get("pixel:1:2")).thenReturn(oldPixel);
@@ -274,12 +286,57 @@ public class PixelServiceTest {
     pixelService.changePixel(1, 2, "#BBBBBB", 1L);
 
     verify(stringValueOperations, never()).setIfAbsent(anyString(), anyString(), anyLong(), any());
-    verify(valueOperations).set(eq("pixel:1:2"), any(Pixel.class));
+    verify(territoryService).paintCell(eq("pixel:1:2"), any(Pixel.class));
     verify(pixelHistoryRepository).save(any(PixelHistory.class));
     verify(userRepository).save(admin);
     verify(messagingTemplate).convertAndSend(eq("/topic/pixels"), any(PixelResponse.class));
   }
 
+  @Test
+  @DisplayName("should publish change event with previous owner")
+  void shouldPublishChangeEventWithPreviousOwner() {
+    User admin = new User();
+    admin.setId(1L);
+    admin.setUsername("adminUser");
+    admin.setRole("ADMIN");
+
+    when(userRepository.findById(1L)).thenReturn(Optional.of(admin));
+    when(valueOperations.get("pixel:1:2")).thenReturn(new Pixel(1, 2, "#AAAAAA", "someone", 2L));
+
+    pixelService.changePixel(1, 2, "#BBBBBB", 1L);
+
+    ArgumentCaptor<PixelChangedEvent> captor = ArgumentCaptor.forClass(PixelChangedEvent.class);
+    verify(eventPublisher).publishEvent(captor.capture());
+    PixelChangedEvent event = captor.getValue();
+    assertEquals(Long.valueOf(2L), event.getPreviousOwnerId());
+    assertEquals(Long.valueOf(1L), event.getUserId());
+    assertEquals("#AAAAAA", event.getOldColor());
+    assertEquals("#BBBBBB", event.getNewColor());
+  }
+
+
+  @Test
+  @DisplayName("should publish cooldown start even when color is the same")
+  void shouldPublishCooldownStartedForSameColor() {
+    User user = new User();
+    user.setId(1L);
+    user.setUsername("user");
+    user.setRole("USER");
+
+    when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+    when(stringValueOperations.setIfAbsent(anyString(), anyString(), anyLong(), any()))
+        .thenReturn(true);
+    when(valueOperations.get("pixel:1:2")).thenReturn(new Pixel(1, 2, "#FF0000", "user", 1L));
+
+    pixelService.changePixel(1, 2, "#FF0000", 1L);
+
+    ArgumentCaptor<CooldownStartedEvent> captor =
+        ArgumentCaptor.forClass(CooldownStartedEvent.class);
+    verify(eventPublisher).publishEvent(captor.capture());
+    assertEquals(Long.valueOf(1L), captor.getValue().getUserId());
+    assertEquals(10, captor.getValue().getCooldownSeconds());
+  }
+
 
   // -------------------GET ALL PIXELS----------------------------------
 
@@ -302,8 +359,8 @@ public class PixelServiceTest {
   void shouldReturnListOfPixelsWhenDataExists() {
     Set<String> keys = Set.of("pixel:1:1", "pixel:2:2");
 
-    Pixel pixel1 = new Pixel(1, 1, "#FFFFFF", "user1");
-    Pixel pixel2 = new Pixel(2, 2, "#000000", "user2");
+    Pixel pixel1 = new Pixel(1, 1, "#FFFFFF", "user1", 1L);
+    Pixel pixel2 = new Pixel(2, 2, "#000000", "user2", 2L);
 
     when(redisTemplate.keys("pixel:*")).thenReturn(keys);
     when(redisTemplate.opsForValue()).thenReturn(valueOperations);
@@ -0,0 +1,151 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import ua.cn.stu.pixelbattle.dto.PlayerLeaderboardResponse;
+import ua.cn.stu.pixelbattle.dto.PlayerScoreDto;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
+import ua.cn.stu.pixelbattle.repository.UserRepository;
+
+/**
+ * Unit tests for {@link PlayerLeaderboardService}.
+ *
+ * <p>Verifies score updates, cached pages, the around-me window and seeding.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PlayerLeaderboardServiceTest {
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private ZSetOperations<String, String> zsetOperations;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @InjectMocks
+  private PlayerLeaderboardService playerLeaderboardService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForZSet()).thenReturn(zsetOperations);
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+  }
+
+  private Set<TypedTuple<String>> tuples(String... usernames) {
+    Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+    double score = 100;
+    for (String username : usernames) {
+      tuples.add(new DefaultTypedTuple<>(username, score--));
+    }
+    return tuples;
+  }
+
+  @Test
+  @DisplayName("should increment the placing user's score")
+  void shouldIncrementScoreOnPlacement() {
+    playerLeaderboardService.onPixelChanged(
+        new PixelChangedEvent(1, 1, "#FFFFFF", "#000000", 7L, "alice", null));
+
+    verify(zsetOperations).incrementScore("leaderboard:players", "alice", 1);
+  }
+
+  @Test
+  @DisplayName("should serve repeated page requests from the cache")
+  void shouldCachePages() {
+    when(zsetOperations.reverseRangeWithScores("leaderboard:players", 0, 1))
+        .thenReturn(tuples("alice", "bob"));
+    when(zsetOperations.zCard("leaderboard:players")).thenReturn(5L);
+
+    PlayerLeaderboardResponse first = playerLeaderboardService.getLeaderboard(0, 2, false, null);
+    PlayerLeaderboardResponse second = playerLeaderboardService.getLeaderboard(0, 2, false, null);
+
+    assertEquals(List.of(new PlayerScoreDto(1, "alice", 100), new PlayerScoreDto(2, "bob", 99)),
+        first.getEntries());
+    assertEquals(5, second.getTotalPlayers());
+    assertNull(first.getMe());
+    verify(zsetOperations, times(1)).reverseRangeWithScores("leaderboard:players", 0, 1);
+  }
+
+  @Test
+  @DisplayName("should return the window around the caller")
+  void shouldReturnWindowAroundCaller() {
+    when(zsetOperations.reverseRank("leaderboard:players", "carol")).thenReturn(9L);
+    when(zsetOperations.score("leaderboard:players", "carol")).thenReturn(50.0);
+    when(zsetOperations.reverseRangeWithScores("leaderboard:players", 8, 10))
+        .thenReturn(tuples("bob", "carol", "dave"));
+    when(zsetOperations.zCard("leaderboard:players")).thenReturn(20L);
+
+    PlayerLeaderboardResponse response =
+        playerLeaderboardService.getLeaderboard(0, 3, true, "carol");
+
+    assertEquals(new PlayerScoreDto(10, "carol", 50), response.getMe());
+    assertEquals(9, response.getEntries().get(0).getRank());
+    assertEquals("carol", response.getEntries().get(1).getUsername());
+  }
+
+  @Test
+  @DisplayName("should reject invalid paging parameters")
+  void shouldRejectInvalidPaging() {
+    assertThrows(IllegalArgumentException.class,
+        () -> playerLeaderboardService.getLeaderboard(-1, 10, false, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> playerLeaderboardService.getLeaderboard(0, 0, false, null));
+  }
+
+  @Test
+  @DisplayName("should seed scores with ZADD GT so live scores are only raised")
+  void shouldSeedFromUsers() {
+    UserRepository.PlacementCount count = mock(UserRepository.PlacementCount.class);
+    when(count.getUsername()).thenReturn("alice");
+    when(count.getPixelChangesCount()).thenReturn(12);
+    when(valueOperations.setIfAbsent("leaderboard:players:seeded", "1")).thenReturn(true);
+    when(userRepository.streamPlacementCounts()).thenReturn(Stream.of(count));
+
+    playerLeaderboardService.seed();
+
+    verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("leaderboard:players")),
+        eq("12"), eq("alice"));
+  }
+
+  @Test
+  @DisplayName("should skip seeding when another node already seeded")
+  void shouldSkipSeedingWhenAlreadySeeded() {
+    when(valueOperations.setIfAbsent("leaderboard:players:seeded", "1")).thenReturn(false);
+
+    playerLeaderboardService.seed();
+
+    verify(userRepository, never()).streamPlacementCounts();
+  }
+}
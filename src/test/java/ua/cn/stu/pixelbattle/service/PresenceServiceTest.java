@@ -0,0 +1,118 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import ua.cn.stu.pixelbattle.config.GameProperties;
+import ua.cn.stu.pixelbattle.config.PresenceProperties;
+import ua.cn.stu.pixelbattle.dto.PresenceFrame;
+
+/**
+ * Unit tests for {@link PresenceService}.
+ *
+ * <p>Verifies sampling, region grouping and the per-tick bandwidth budget.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PresenceServiceTest {
+
+  @Mock
+  private SimpMessagingTemplate messagingTemplate;
+
+  private PresenceProperties presenceProperties;
+
+  private PresenceService presenceService;
+
+  @BeforeEach
+  void setUp() {
+    GameProperties gameProperties = new GameProperties();
+    gameProperties.setWidth(1000);
+    gameProperties.setHeight(1000);
+
+    presenceProperties = new PresenceProperties();
+    presenceProperties.setRegionSize(100);
+    presenceProperties.setMaxCursorsPerRegion(2);
+    presenceProperties.setMaxCursorsPerTick(10);
+
+    presenceService = new PresenceService(messagingTemplate, presenceProperties, gameProperties);
+  }
+
+  @Test
+  @DisplayName("should publish only the latest sample per session to its region")
+  void shouldPublishLatestSampleToRegion() {
+    presenceService.recordCursor("s1", 10, 10);
+    presenceService.recordCursor("s1", 150, 20);
+
+    presenceService.publishFrames();
+
+    ArgumentCaptor<PresenceFrame> captor = ArgumentCaptor.forClass(PresenceFrame.class);
+    verify(messagingTemplate).convertAndSend(eq("/topic/presence/1-0"), captor.capture());
+    int[] cursors = captor.getValue().getCursors();
+    assertEquals(3, cursors.length);
+    assertArrayEquals(new int[] {150, 20}, new int[] {cursors[1], cursors[2]});
+  }
+
+  @Test
+  @DisplayName("should not publish anything when no cursor moved")
+  void shouldNotPublishWhenNoSamples() {
+    presenceService.recordCursor("s1", 10, 10);
+    presenceService.publishFrames();
+    presenceService.publishFrames();
+
+    verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("should cap cursors per region")
+  void shouldCapCursorsPerRegion() {
+    presenceService.recordCursor("s1", 1, 1);
+    presenceService.recordCursor("s2", 2, 2);
+    presenceService.recordCursor("s3", 3, 3);
+
+    presenceService.publishFrames();
+
+    ArgumentCaptor<PresenceFrame> captor = ArgumentCaptor.forClass(PresenceFrame.class);
+    verify(messagingTemplate).convertAndSend(eq("/topic/presence/0-0"), captor.capture());
+    assertEquals(2 * 3, captor.getValue().getCursors().length);
+  }
+
+  @Test
+  @DisplayName("should ignore cursors outside the board")
+  void shouldIgnoreCursorsOutsideBoard() {
+    presenceService.recordCursor("s1", -1, 5);
+    presenceService.recordCursor("s2", 5, 1000);
+
+    presenceService.publishFrames();
+
+    verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("should drop pending cursor on disconnect")
+  void shouldDropCursorOnDisconnect() {
+    presenceService.recordCursor("s1", 10, 10);
+    SessionDisconnectEvent event = mock(SessionDisconnectEvent.class);
+    when(event.getSessionId()).thenReturn("s1");
+
+    presenceService.onDisconnect(event);
+    presenceService.publishFrames();
+
+    verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+  }
+}
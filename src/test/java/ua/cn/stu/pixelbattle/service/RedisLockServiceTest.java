@@ -0,0 +1,104 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Unit tests for {@link RedisLockService}.
+ *
+ * <p>Verifies that locks are taken with a token and that renewal and release only act
+ * on the caller's own token.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RedisLockServiceTest {
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  @InjectMocks
+  private RedisLockService lockService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+  }
+
+  @Test
+  @DisplayName("should return empty when another node holds the lock")
+  void shouldNotAcquireHeldLock() {
+    when(valueOperations.setIfAbsent(eq("job:lock"), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    assertTrue(lockService.tryAcquire("job:lock", Duration.ofMinutes(1)).isEmpty());
+  }
+
+  @Test
+  @DisplayName("should release the lock by comparing its own token")
+  @SuppressWarnings("unchecked")
+  void shouldReleaseWithOwnToken() {
+    ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+    when(valueOperations.setIfAbsent(eq("job:lock"), token.capture(), any(Duration.class)))
+        .thenReturn(true);
+
+    Optional<RedisLockService.Lease> lease =
+        lockService.tryAcquire("job:lock", Duration.ofMinutes(1));
+    lease.orElseThrow().close();
+
+    verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("job:lock")),
+        eq(token.getValue()));
+    verify(redisTemplate, never()).delete(anyString());
+  }
+
+  @Test
+  @DisplayName("should not renew a lock that was taken recently")
+  @SuppressWarnings("unchecked")
+  void shouldNotRenewEarly() {
+    when(valueOperations.setIfAbsent(eq("job:lock"), anyString(), any(Duration.class)))
+        .thenReturn(true);
+
+    lockService.tryAcquire("job:lock", Duration.ofMinutes(1)).orElseThrow().keepAlive();
+
+    verify(redisTemplate, never()).execute(any(RedisScript.class), any(List.class),
+        any(Object[].class));
+  }
+
+  @Test
+  @DisplayName("should fail when a lock due for renewal was lost")
+  @SuppressWarnings("unchecked")
+  void shouldFailWhenLockLost() {
+    when(valueOperations.setIfAbsent(eq("job:lock"), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    when(redisTemplate.execute(any(RedisScript.class), eq(List.of("job:lock")),
+        anyString(), eq("0"))).thenReturn(0L);
+
+    RedisLockService.Lease lease =
+        lockService.tryAcquire("job:lock", Duration.ZERO).orElseThrow();
+
+    assertThrows(IllegalStateException.class, lease::keepAlive);
+  }
+}
@@ -3,15 +3,19 @@ package ua.cn.stu.pixelbattle.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,9 +25,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import ua.cn.stu.pixelbattle.config.JwtProperties;
+import ua.cn.stu.pixelbattle.dto.UserSessionResponse;
 import ua.cn.stu.pixelbattle.model.User;
 import ua.cn.stu.pixelbattle.repository.UserRepository;
 
@@ -35,7 +42,9 @@ import ua.cn.stu.pixelbattle.repository.UserRepository;
  * <ul>
  *     <li>Creating and storing refresh tokens</li>
  *     <li>Verifying token expiration</li>
+ *     <li>Consuming tokens on rotation</li>
  *     <li>Deleting tokens by token or by user ID</li>
+ *     <li>Caching session lookups</li>
  * </ul>
  */
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +59,12 @@ public class RefreshTokenServiceTest {
   @Mock
   private ValueOperations<String, String> valueOperations;
 
+  @Mock
+  private SetOperations<String, String> setOperations;
+
+  @Mock
+  private HashOperations<String, Object, Object> hashOperations;
+
   @Mock
   private JwtProperties jwtProperties;
 
@@ -60,6 +75,8 @@ public class RefreshTokenServiceTest {
   void setUp() {
     lenient().when(jwtProperties.getRefreshTokenDurationMs()).thenReturn(10000L);
     lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+    lenient().when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
   }
 
   @Test
@@ -72,6 +89,8 @@ public class RefreshTokenServiceTest {
 
     assertNotNull(token);
     verify(valueOperations).set(eq("refresh:" + token), eq(userId.toString()), any(Duration.class));
+    verify(setOperations).add("refresh:user:1", token);
+    verify(redisTemplate).expire(eq("refresh:user:1"), any(Duration.class));
   }
 
   @Test
@@ -110,30 +129,82 @@ public class RefreshTokenServiceTest {
     assertEquals("Refresh token expired or invalid", ex.getMessage());
   }
 
+  @Test
+  @DisplayName("should consume token atomically and remove it from user index")
+  void consume() {
+    when(valueOperations.getAndDelete("refresh:token123")).thenReturn("1");
+
+    Long result = refreshTokenService.consume("token123");
+
+    assertEquals(Long.valueOf(1L), result);
+    verify(setOperations).remove("refresh:user:1", "token123");
+    verify(redisTemplate).delete("session:token123");
+  }
+
+  @Test
+  @DisplayName("should throw when consuming an already used token")
+  void consumeUsedToken() {
+    when(valueOperations.getAndDelete("refresh:token123")).thenReturn(null);
+
+    RuntimeException ex =
+        assertThrows(RuntimeException.class, () -> refreshTokenService.consume("token123"));
+    assertEquals("Refresh token expired or invalid", ex.getMessage());
+    verifyNoInteractions(setOperations);
+  }
+
   @Test
   @DisplayName("should delete token by value")
   void deleteByToken() {
     String token = "token123";
+    when(valueOperations.getAndDelete("refresh:" + token)).thenReturn("1");
 
     refreshTokenService.deleteByToken(token);
 
-    verify(redisTemplate).delete("refresh:" + token);
+    verify(setOperations).remove("refresh:user:1", token);
+    verify(redisTemplate).delete("session:" + token);
   }
 
   @Test
-  @DisplayName("should delete all tokens for user")
+  @DisplayName("should delete all tokens for user using the user index")
   void deleteByUserId() {
-    var keys = Set.of("refresh:token1", "refresh:token2", "refresh:token3");
-    when(redisTemplate.keys("refresh:*")).thenReturn(keys);
-    when(redisTemplate.opsForValue().get("refresh:token1")).thenReturn("1");
-    when(redisTemplate.opsForValue().get("refresh:token2")).thenReturn("2");
-    when(redisTemplate.opsForValue().get("refresh:token3")).thenReturn("1");
+    when(setOperations.members("refresh:user:1")).thenReturn(Set.of("token1"));
 
     refreshTokenService.deleteByUserId(1L);
 
-    verify(redisTemplate).delete("refresh:token1");
-    verify(redisTemplate, never()).delete("refresh:token2");
-    verify(redisTemplate).delete("refresh:token3");
+    verify(redisTemplate).delete(
+        List.of("refresh:token1", "session:token1", "refresh:user:1"));
+    verify(redisTemplate, never()).keys(any());
+  }
+
+  @Test
+  @DisplayName("should read cached session from hash")
+  void findCachedSession() {
+    when(hashOperations.entries("session:token123")).thenReturn(
+        Map.<Object, Object>of("id", "1", "username", "user"));
+
+    UserSessionResponse session = refreshTokenService.findCachedSession("token123");
+
+    assertEquals(Long.valueOf(1L), session.getId());
+    assertEquals("user", session.getUsername());
+  }
+
+  @Test
+  @DisplayName("should return null when session is not cached")
+  void findCachedSessionMiss() {
+    when(hashOperations.entries("session:token123")).thenReturn(Map.of());
+
+    assertNull(refreshTokenService.findCachedSession("token123"));
+  }
+
+  @Test
+  @DisplayName("should cache session in one script guarded by the refresh token")
+  void cacheSession() {
+    refreshTokenService.cacheSession("token123", new UserSessionResponse(1L, "user"));
+
+    verify(redisTemplate).execute(RefreshTokenService.CACHE_SESSION_SCRIPT,
+        List.of("refresh:token123", "session:token123"), "1", "user",
+        String.valueOf(jwtProperties.getSessionCacheTtlMs()));
+    verifyNoInteractions(hashOperations);
   }
 
 }
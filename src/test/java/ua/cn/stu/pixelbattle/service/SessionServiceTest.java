@@ -3,7 +3,10 @@ package ua.cn.stu.pixelbattle.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import jakarta.servlet.http.Cookie;
@@ -26,6 +29,7 @@ import ua.cn.stu.pixelbattle.model.User;
  * <p>Verifies main session-related scenarios:
  * <ul>
  *   <li>Valid token handling and response creation</li>
+ *   <li>Serving cached sessions without a database lookup</li>
  *   <li>Error handling when cookies or tokens are missing</li>
  *   <li>Handling expired or invalid tokens</li>
  *   <li>Handling user-not-found scenarios</li>
@@ -66,6 +70,22 @@ public class SessionServiceTest {
     assertEquals("testUser", response.getUsername());
     verify(refreshTokenService).verifyExpiration("abc123");
     verify(userService).getUserById(1L);
+    verify(refreshTokenService).cacheSession("abc123", response);
+  }
+
+  @Test
+  @DisplayName("should return cached session without database lookup")
+  void shouldReturnCachedSession() {
+    Cookie[] cookies = { new Cookie("refreshToken", "abc123") };
+    when(request.getCookies()).thenReturn(cookies);
+    UserSessionResponse cached = new UserSessionResponse(1L, "testUser");
+    when(refreshTokenService.findCachedSession("abc123")).thenReturn(cached);
+
+    UserSessionResponse response = sessionService.getSessionResponse(request);
+
+    assertEquals(cached, response);
+    verify(refreshTokenService, never()).verifyExpiration(any());
+    verifyNoInteractions(userService);
   }
 
   @Test
@@ -0,0 +1,168 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import ua.cn.stu.pixelbattle.dto.TeamLeaderboardResponse;
+import ua.cn.stu.pixelbattle.dto.TeamScoreDelta;
+import ua.cn.stu.pixelbattle.event.PixelChangedEvent;
+
+/**
+ * Unit tests for {@link TeamLeaderboardService}.
+ *
+ * <p>Verifies batched score flushing and its retry after a failure, top-N with own rank,
+ * the top list cache, and cleanup of deleted teams.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TeamLeaderboardServiceTest {
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private ZSetOperations<String, String> zsetOperations;
+
+  @Mock
+  private TeamService teamService;
+
+  @Mock
+  private SimpMessagingTemplate messagingTemplate;
+
+  @InjectMocks
+  private TeamLeaderboardService teamLeaderboardService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForZSet()).thenReturn(zsetOperations);
+  }
+
+  private PixelChangedEvent placement(Long userId) {
+    return new PixelChangedEvent(1, 1, "#FFFFFF", "#000000", userId, "user", null);
+  }
+
+  @Test
+  @DisplayName("should flush accumulated placements with one increment per team")
+  void shouldFlushAccumulatedPlacements() {
+    when(teamService.findTeamId(1L)).thenReturn(Optional.of(5L));
+    when(teamService.findTeamId(2L)).thenReturn(Optional.empty());
+    when(zsetOperations.incrementScore("leaderboard:teams", "5", 2)).thenReturn(42.0);
+
+    teamLeaderboardService.onPixelChanged(placement(1L));
+    teamLeaderboardService.onPixelChanged(placement(1L));
+    teamLeaderboardService.onPixelChanged(placement(2L));
+    teamLeaderboardService.flush();
+
+    verify(messagingTemplate).convertAndSend("/topic/leaderboard/teams",
+        List.of(new TeamScoreDelta(5L, 2, 42)));
+  }
+
+  @Test
+  @DisplayName("should keep the placements of a failed flush for the next one")
+  void shouldRetryFailedFlush() {
+    when(teamService.findTeamId(1L)).thenReturn(Optional.of(5L));
+    when(zsetOperations.incrementScore("leaderboard:teams", "5", 2))
+        .thenThrow(new RedisConnectionFailureException("down"))
+        .thenReturn(42.0);
+
+    teamLeaderboardService.onPixelChanged(placement(1L));
+    teamLeaderboardService.onPixelChanged(placement(1L));
+    assertThrows(RedisConnectionFailureException.class, teamLeaderboardService::flush);
+    teamLeaderboardService.flush();
+
+    verify(zsetOperations, times(2)).incrementScore("leaderboard:teams", "5", 2);
+    verify(messagingTemplate).convertAndSend("/topic/leaderboard/teams",
+        List.of(new TeamScoreDelta(5L, 2, 42)));
+  }
+
+  @Test
+  @DisplayName("should not touch Redis when nothing changed")
+  void shouldSkipEmptyFlush() {
+    teamLeaderboardService.flush();
+
+    verify(zsetOperations, never()).incrementScore(anyString(), anyString(), anyDouble());
+    verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+  }
+
+  @Test
+  @DisplayName("should return top teams with the caller's rank outside the top")
+  void shouldReturnTopAndOwnRank() {
+    Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+    tuples.add(new DefaultTypedTuple<>("5", 100.0));
+    when(zsetOperations.reverseRangeWithScores("leaderboard:teams", 0, 0)).thenReturn(tuples);
+    when(teamService.findTeamNames(List.of(5L))).thenReturn(Map.of(5L, "red"));
+    when(teamService.findTeamId(1L)).thenReturn(Optional.of(7L));
+    when(zsetOperations.reverseRank("leaderboard:teams", "7")).thenReturn(3L);
+    when(zsetOperations.score("leaderboard:teams", "7")).thenReturn(10.0);
+    when(teamService.findTeamNames(List.of(7L))).thenReturn(Map.of(7L, "blue"));
+
+    TeamLeaderboardResponse response = teamLeaderboardService.getLeaderboard(1, 1L);
+
+    assertEquals(1, response.getTop().size());
+    assertEquals("red", response.getTop().get(0).getName());
+    assertEquals(1, response.getTop().get(0).getRank());
+    assertEquals(4, response.getMyTeam().getRank());
+    assertEquals(10, response.getMyTeam().getScore());
+  }
+
+  @Test
+  @DisplayName("should serve the top list from cache within its lifetime")
+  void shouldCacheTopList() {
+    Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+    tuples.add(new DefaultTypedTuple<>("5", 100.0));
+    when(zsetOperations.reverseRangeWithScores("leaderboard:teams", 0, 9)).thenReturn(tuples);
+    when(teamService.findTeamNames(List.of(5L))).thenReturn(Map.of(5L, "red"));
+
+    teamLeaderboardService.getLeaderboard(10, null);
+    teamLeaderboardService.getLeaderboard(10, null);
+
+    verify(zsetOperations, times(1)).reverseRangeWithScores("leaderboard:teams", 0, 9);
+  }
+
+  @Test
+  @DisplayName("should drop deleted teams and rank the remaining ones without gaps")
+  void shouldDropDeletedTeams() {
+    Set<TypedTuple<String>> withDeleted = new LinkedHashSet<>();
+    withDeleted.add(new DefaultTypedTuple<>("9", 100.0));
+    withDeleted.add(new DefaultTypedTuple<>("5", 50.0));
+    Set<TypedTuple<String>> refilled = new LinkedHashSet<>();
+    refilled.add(new DefaultTypedTuple<>("5", 50.0));
+    when(zsetOperations.reverseRangeWithScores("leaderboard:teams", 0, 9))
+        .thenReturn(withDeleted, refilled);
+    when(teamService.findTeamNames(List.of(9L, 5L))).thenReturn(Map.of(5L, "red"));
+    when(teamService.findTeamNames(List.of(5L))).thenReturn(Map.of(5L, "red"));
+
+    TeamLeaderboardResponse response = teamLeaderboardService.getLeaderboard(10, null);
+
+    assertEquals(1, response.getTop().size());
+    assertEquals(1, response.getTop().get(0).getRank());
+    assertNull(response.getMyTeam());
+    verify(zsetOperations).remove("leaderboard:teams", "9");
+  }
+}
@@ -0,0 +1,252 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ua.cn.stu.pixelbattle.dto.TeamInfoResponse;
+import ua.cn.stu.pixelbattle.dto.TeamMemberDto;
+import ua.cn.stu.pixelbattle.dto.TeamMembershipDto;
+import ua.cn.stu.pixelbattle.exception.ApiException;
+import ua.cn.stu.pixelbattle.model.Team;
+import ua.cn.stu.pixelbattle.model.User;
+import ua.cn.stu.pixelbattle.repository.TeamRepository;
+
+/**
+ * Unit tests for {@link TeamService}.
+ *
+ * <p>Verifies membership lookups through the indexed query, the user to team cache
+ * and its invalidation after join and leave commit, and paginated team info.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TeamServiceTest {
+
+  @Mock
+  private TeamRepository teamRepo;
+
+  @InjectMocks
+  private TeamService teamService;
+
+  private User user(Long id) {
+    User user = new User();
+    user.setId(id);
+    user.setUsername("user" + id);
+    return user;
+  }
+
+  @Test
+  @DisplayName("should look up the team id once and serve it from cache")
+  void shouldCacheTeamIdLookup() {
+    when(teamRepo.findTeamIdByMemberId(1L)).thenReturn(Optional.of(5L));
+
+    assertEquals(Optional.of(5L), teamService.findTeamId(1L));
+    assertEquals(Optional.of(5L), teamService.findTeamId(1L));
+
+    verify(teamRepo, times(1)).findTeamIdByMemberId(1L);
+    verify(teamRepo, never()).findAll();
+  }
+
+  @Test
+  @DisplayName("should return null when user is not in a team")
+  void shouldReturnNullWithoutTeam() {
+    when(teamRepo.findTeamIdByMemberId(1L)).thenReturn(Optional.empty());
+
+    assertNull(teamService.getTeamByMember(user(1L)));
+  }
+
+  @Test
+  @DisplayName("should join team and invalidate cached membership")
+  void shouldJoinTeamAndInvalidateCache() {
+    Team team = Team.builder().id(5L).name("red").build();
+    when(teamRepo.findByName("red")).thenReturn(Optional.of(team));
+    when(teamRepo.findTeamIdByMemberId(1L))
+        .thenReturn(Optional.empty(), Optional.empty(), Optional.of(5L));
+
+    assertEquals(Optional.empty(), teamService.findTeamId(1L));
+    teamService.joinTeam(user(1L), "red");
+
+    verify(teamRepo).addMember(5L, 1L);
+    verify(teamRepo, never()).save(any());
+    assertEquals(Optional.of(5L), teamService.findTeamId(1L));
+  }
+
+  @Test
+  @DisplayName("should invalidate cached membership only after the join commits")
+  void shouldInvalidateCacheAfterCommit() {
+    Team team = Team.builder().id(5L).name("red").build();
+    when(teamRepo.findByName("red")).thenReturn(Optional.of(team));
+    when(teamRepo.findTeamIdByMemberId(1L))
+        .thenReturn(Optional.empty(), Optional.empty(), Optional.of(5L));
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      assertEquals(Optional.empty(), teamService.findTeamId(1L));
+      teamService.joinTeam(user(1L), "red");
+      assertEquals(Optional.empty(), teamService.findTeamId(1L));
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(Optional.of(5L), teamService.findTeamId(1L));
+  }
+
+  @Test
+  @DisplayName("should reject a join that violates the one team per user index")
+  void shouldRejectConcurrentJoin() {
+    when(teamRepo.findByName("red")).thenReturn(Optional.of(Team.builder().id(5L).build()));
+    when(teamRepo.findTeamIdByMemberId(1L)).thenReturn(Optional.empty());
+    doThrow(new DataIntegrityViolationException("duplicate"))
+        .when(teamRepo).addMember(5L, 1L);
+
+    ApiException ex = assertThrows(ApiException.class,
+        () -> teamService.joinTeam(user(1L), "red"));
+
+    assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    assertEquals("User already belongs to another team", ex.getMessage());
+  }
+
+  @Test
+  @DisplayName("should reject join when user is already in a team")
+  void shouldRejectJoinWhenAlreadyInTeam() {
+    when(teamRepo.findByName("red")).thenReturn(Optional.of(Team.builder().name("red").build()));
+    when(teamRepo.findTeamIdByMemberId(1L)).thenReturn(Optional.of(7L));
+
+    ApiException ex = assertThrows(ApiException.class,
+        () -> teamService.joinTeam(user(1L), "red"));
+
+    assertEquals("User already belongs to another team", ex.getMessage());
+    verify(teamRepo, never()).addMember(any(), any());
+  }
+
+  @Test
+  @DisplayName("should delete team when last member leaves")
+  void shouldDeleteEmptyTeamOnLeave() {
+    when(teamRepo.findTeamIdByMemberId(1L)).thenReturn(Optional.of(5L));
+    when(teamRepo.countMembers(5L)).thenReturn(0L);
+
+    teamService.leaveCurrentTeam(user(1L));
+
+    verify(teamRepo).removeMember(5L, 1L);
+    verify(teamRepo).deleteById(5L);
+    verify(teamRepo, never()).findById(any());
+  }
+
+  @Test
+  @DisplayName("should keep team when other members remain after leave")
+  void shouldKeepTeamWithRemainingMembers() {
+    when(teamRepo.findTeamIdByMemberId(1L)).thenReturn(Optional.of(5L));
+    when(teamRepo.countMembers(5L)).thenReturn(2L);
+
+    teamService.leaveCurrentTeam(user(1L));
+
+    verify(teamRepo).removeMember(5L, 1L);
+    verify(teamRepo, never()).deleteById(any());
+  }
+
+  @Test
+  @DisplayName("should throw when leaving without a team")
+  void shouldThrowWhenLeavingWithoutTeam() {
+    when(teamRepo.findTeamIdByMemberId(1L)).thenReturn(Optional.empty());
+
+    ApiException ex = assertThrows(ApiException.class,
+        () -> teamService.leaveCurrentTeam(user(1L)));
+
+    assertEquals("You are not in any team", ex.getMessage());
+  }
+
+  @Test
+  @DisplayName("should load team names once and leave out deleted teams")
+  void shouldCacheTeamNames() {
+    when(teamRepo.findAllById(any()))
+        .thenReturn(List.of(Team.builder().id(5L).name("red").build()));
+
+    assertEquals(Map.of(5L, "red"), teamService.findTeamNames(List.of(5L, 9L)));
+    assertEquals(Map.of(5L, "red"), teamService.findTeamNames(List.of(5L, 9L)));
+
+    verify(teamRepo, times(1)).findAllById(any());
+  }
+
+  @Test
+  @DisplayName("should load the teams of many users once and leave out users without one")
+  void shouldCacheTeamIdsOfUsers() {
+    when(teamRepo.findMemberships(any()))
+        .thenReturn(List.of(new TeamMembershipDto(1L, 5L)));
+
+    assertEquals(Map.of(1L, 5L), teamService.findTeamIds(List.of(1L, 2L)));
+    assertEquals(Map.of(1L, 5L), teamService.findTeamIds(List.of(1L, 2L)));
+    assertEquals(Optional.of(5L), teamService.findTeamId(1L));
+
+    verify(teamRepo, times(1)).findMemberships(any());
+    verify(teamRepo, never()).findTeamIdByMemberId(any());
+  }
+
+  @Test
+  @DisplayName("should load the member's team by cached id")
+  void shouldLoadTeamByMember() {
+    Team team = Team.builder().id(5L).name("red").build();
+    when(teamRepo.findTeamIdByMemberId(1L)).thenReturn(Optional.of(5L));
+    when(teamRepo.findById(5L)).thenReturn(Optional.of(team));
+
+    assertSame(team, teamService.getTeamByMember(user(1L)));
+  }
+
+  @Test
+  @DisplayName("should return a member page with cursor and database count")
+  void shouldReturnMemberPageWithCursor() {
+    Team team = Team.builder().id(5L).name("red").build();
+    when(teamRepo.findMembersAfter(5L, 0L, PageRequest.of(0, 3))).thenReturn(List.of(
+        new TeamMemberDto(1L, "a"), new TeamMemberDto(4L, "b"), new TeamMemberDto(9L, "c")));
+    when(teamRepo.countMembers(5L)).thenReturn(3L);
+
+    TeamInfoResponse info = teamService.getTeamInfo(team, 0, 2);
+
+    assertEquals(List.of("a", "b"), info.getMembers());
+    assertEquals(3L, info.getMemberCount());
+    assertEquals(Long.valueOf(4L), info.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("should return null cursor on the last member page")
+  void shouldReturnNullCursorOnLastPage() {
+    Team team = Team.builder().id(5L).name("red").build();
+    when(teamRepo.findMembersAfter(5L, 4L, PageRequest.of(0, 3)))
+        .thenReturn(List.of(new TeamMemberDto(9L, "c")));
+    when(teamRepo.countMembers(5L)).thenReturn(3L);
+
+    TeamInfoResponse info = teamService.getTeamInfo(team, 4L, 2);
+
+    assertEquals(List.of("c"), info.getMembers());
+    assertNull(info.getNextCursor());
+  }
+
+  @Test
+  @DisplayName("should reject non-positive member page size")
+  void shouldRejectNonPositiveLimit() {
+    Team team = Team.builder().id(5L).name("red").build();
+
+    assertThrows(IllegalArgumentException.class, () -> teamService.getTeamInfo(team, 0, 0));
+  }
+}
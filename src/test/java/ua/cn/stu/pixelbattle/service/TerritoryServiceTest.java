@@ -0,0 +1,109 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import ua.cn.stu.pixelbattle.config.GameProperties;
+import ua.cn.stu.pixelbattle.dto.TeamTerritoryDto;
+import ua.cn.stu.pixelbattle.model.Pixel;
+
+/**
+ * Unit tests for {@link TerritoryService}.
+ *
+ * <p>Verifies that placements write the pixel and claim its cell for the placer's team
+ * in one script and that territory is read from the per-team counters.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TerritoryServiceTest {
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private HashOperations<String, Object, Object> hashOperations;
+
+  @Mock
+  private TeamService teamService;
+
+  @Mock
+  private GameProperties gameProperties;
+
+  private final RedisSerializer<Pixel> pixelSerializer =
+      new Jackson2JsonRedisSerializer<>(Pixel.class);
+
+  private TerritoryService territoryService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+    lenient().when(gameProperties.getWidth()).thenReturn(100);
+    territoryService =
+        new TerritoryService(redisTemplate, teamService, gameProperties, pixelSerializer);
+  }
+
+  private String json(Pixel pixel) {
+    return new String(pixelSerializer.serialize(pixel), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  @DisplayName("should write the pixel and claim its cell for the placer's team in one script")
+  void shouldClaimCellForTeam() {
+    Pixel pixel = new Pixel(3, 2, "#000000", "user", 7L);
+    when(teamService.findTeamId(7L)).thenReturn(Optional.of(5L));
+
+    territoryService.paintCell("pixel:3:2", pixel);
+
+    verify(redisTemplate).execute(TerritoryService.WRITE_PIXEL_SCRIPT,
+        List.of("pixel:3:2", "territory:owners", "territory:counts",
+            "board:last-history-id", "board:rebuild:dirty"), json(pixel), "203", "5");
+  }
+
+  @Test
+  @DisplayName("should release the cell when the placer has no team")
+  void shouldReleaseCellWithoutTeam() {
+    Pixel pixel = new Pixel(0, 0, "#000000", "user", 7L);
+    when(teamService.findTeamId(7L)).thenReturn(Optional.empty());
+
+    territoryService.paintCell("pixel:0:0", pixel);
+
+    verify(redisTemplate).execute(TerritoryService.WRITE_PIXEL_SCRIPT,
+        List.of("pixel:0:0", "territory:owners", "territory:counts",
+            "board:last-history-id", "board:rebuild:dirty"), json(pixel), "0", "0");
+  }
+
+  @Test
+  @DisplayName("should return territory sorted by size and drop deleted teams")
+  void shouldReturnSortedTerritory() {
+    Map<Object, Object> counts = new LinkedHashMap<>();
+    counts.put("5", "10");
+    counts.put("6", "30");
+    counts.put("9", "4");
+    when(hashOperations.entries("territory:counts")).thenReturn(counts);
+    when(teamService.findTeamNames(List.of(5L, 6L, 9L)))
+        .thenReturn(Map.of(5L, "red", 6L, "blue"));
+
+    List<TeamTerritoryDto> territory = territoryService.getTerritory();
+
+    assertEquals(List.of(
+        new TeamTerritoryDto(6L, "blue", 30),
+        new TeamTerritoryDto(5L, "red", 10)), territory);
+    verify(hashOperations).delete("territory:counts", "9");
+  }
+}
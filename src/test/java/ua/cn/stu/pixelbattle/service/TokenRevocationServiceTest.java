@@ -0,0 +1,102 @@
+package ua.cn.stu.pixelbattle.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Unit tests for {@link TokenRevocationService}.
+ *
+ * <p>Verifies that revocations are stored and published, and that Redis is only asked
+ * for ids the local filter may contain.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  @Mock
+  private RedisMessageListenerContainer listenerContainer;
+
+  @InjectMocks
+  private TokenRevocationService tokenRevocationService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+  }
+
+  @Test
+  @DisplayName("should store revoked id with remaining lifetime and publish it")
+  void shouldStoreAndPublishRevocation() {
+    tokenRevocationService.revoke("jti-1", System.currentTimeMillis() + 60_000);
+
+    verify(valueOperations).set(eq("revoked:jti:jti-1"), eq("1"), any(Duration.class));
+    verify(redisTemplate).convertAndSend("revoked-tokens", "jti-1");
+  }
+
+  @Test
+  @DisplayName("should skip revocation of an expired token")
+  void shouldSkipExpiredToken() {
+    tokenRevocationService.revoke("jti-1", System.currentTimeMillis() - 1);
+
+    verify(redisTemplate, never()).convertAndSend(any(), any());
+  }
+
+  @Test
+  @DisplayName("should answer unknown ids without asking Redis")
+  void shouldNotQueryRedisForUnknownId() {
+    assertFalse(tokenRevocationService.isRevoked("jti-unknown"));
+
+    verify(redisTemplate, never()).hasKey(any());
+  }
+
+  @Test
+  @DisplayName("should confirm ids published by other nodes in Redis")
+  void shouldConfirmPublishedRevocation() {
+    Message message = mock(Message.class);
+    when(message.getBody()).thenReturn("jti-2".getBytes(StandardCharsets.UTF_8));
+    when(redisTemplate.hasKey("revoked:jti:jti-2")).thenReturn(true);
+
+    tokenRevocationService.onMessage(message, null);
+
+    assertTrue(tokenRevocationService.isRevoked("jti-2"));
+  }
+
+  @Test
+  @DisplayName("should keep revocations for one rotation and drop them after two")
+  void shouldExpireRevocationsWithRotation() {
+    tokenRevocationService.revoke("jti-3", System.currentTimeMillis() + 60_000);
+    when(redisTemplate.hasKey("revoked:jti:jti-3")).thenReturn(true);
+
+    tokenRevocationService.rotate();
+    assertTrue(tokenRevocationService.isRevoked("jti-3"));
+
+    tokenRevocationService.rotate();
+    assertFalse(tokenRevocationService.isRevoked("jti-3"));
+  }
+}
@@ -0,0 +1,57 @@
+package ua.cn.stu.pixelbattle.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link BloomFilter}.
+ */
+public class BloomFilterTest {
+
+  @Test
+  @DisplayName("should never report added values as absent")
+  void shouldContainAllAddedValues() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("user" + i);
+    }
+
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain("user" + i));
+    }
+  }
+
+  @Test
+  @DisplayName("should keep false positives near the configured rate")
+  void shouldKeepFalsePositiveRateLow() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("user" + i);
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (filter.mightContain("other" + i)) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+  }
+
+  @Test
+  @DisplayName("should report values as absent in an empty filter")
+  void shouldBeEmptyInitially() {
+    assertFalse(new BloomFilter(100, 0.01).mightContain("anyone"));
+  }
+
+  @Test
+  @DisplayName("should reject invalid parameters")
+  void shouldRejectInvalidParameters() {
+    assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+    assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+  }
+}
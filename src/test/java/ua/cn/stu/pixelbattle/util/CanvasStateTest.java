@@ -0,0 +1,60 @@
+package ua.cn.stu.pixelbattle.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CanvasState}.
+ */
+public class CanvasStateTest {
+
+  @Test
+  @DisplayName("should apply changes and ignore cells outside the board")
+  void shouldApplyChanges() {
+    CanvasState state = new CanvasState(10, 5);
+
+    state.apply(1, 2, 3, 0xFF0000, 7);
+    state.apply(2, 2, 3, 0x00FF00, 8);
+    state.apply(3, 10, 0, 0x0000FF, 9);
+
+    assertEquals(0x00FF00, state.getColor(2, 3));
+    assertEquals(8, state.getUserId(2, 3));
+    assertEquals(CanvasState.EMPTY, state.getColor(0, 0));
+    assertEquals(3, state.getLastHistoryId());
+  }
+
+  @Test
+  @DisplayName("should restore a compressed board exactly")
+  void shouldRoundTripCompressedBoard() {
+    CanvasState state = new CanvasState(1000, 1000);
+    for (int i = 0; i < 10_000; i++) {
+      state.apply(i + 1, i % 1000, i / 10, i * 31, i % 50);
+    }
+
+    byte[] data = state.toCompressedBytes();
+    CanvasState restored = CanvasState.fromCompressedBytes(data, 1000, 1000, 42);
+
+    assertTrue(data.length < 1000 * 1000 * 12 / 10);
+    assertEquals(42, restored.getLastHistoryId());
+    for (int i = 0; i < 10_000; i++) {
+      int x = i % 1000;
+      int y = i / 10;
+      assertEquals(state.getColor(x, y), restored.getColor(x, y));
+      assertEquals(state.getUserId(x, y), restored.getUserId(x, y));
+    }
+    assertEquals(CanvasState.EMPTY, restored.getColor(0, 999));
+  }
+
+  @Test
+  @DisplayName("should reject data written for a different board size")
+  void shouldRejectMismatchedSize() {
+    byte[] data = new CanvasState(10, 10).toCompressedBytes();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> CanvasState.fromCompressedBytes(data, 20, 20, 0));
+  }
+}
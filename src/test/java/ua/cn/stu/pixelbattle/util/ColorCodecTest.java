@@ -0,0 +1,38 @@
+package ua.cn.stu.pixelbattle.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ColorCodec}.
+ */
+public class ColorCodecTest {
+
+  @Test
+  @DisplayName("should pack hex colors into RGB integers")
+  void shouldPackHexColors() {
+    assertEquals(0xFFFFFF, ColorCodec.toRgb("#FFFFFF"));
+    assertEquals(0x000000, ColorCodec.toRgb("#000000"));
+    assertEquals(0xABCDEF, ColorCodec.toRgb("#abcdef"));
+  }
+
+  @Test
+  @DisplayName("should format RGB integers as upper-case hex colors")
+  void shouldFormatRgbIntegers() {
+    assertEquals("#FFFFFF", ColorCodec.toHex(0xFFFFFF));
+    assertEquals("#00000A", ColorCodec.toHex(0x00000A));
+    assertEquals("#ABCDEF", ColorCodec.toHex(ColorCodec.toRgb("#abcdef")));
+  }
+
+  @Test
+  @DisplayName("should reject malformed colors")
+  void shouldRejectMalformedColors() {
+    assertThrows(IllegalArgumentException.class, () -> ColorCodec.toRgb("FFFFFF"));
+    assertThrows(IllegalArgumentException.class, () -> ColorCodec.toRgb("#FFF"));
+    assertThrows(IllegalArgumentException.class, () -> ColorCodec.toRgb("#GGGGGG"));
+    assertThrows(IllegalArgumentException.class, () -> ColorCodec.toRgb(null));
+  }
+}
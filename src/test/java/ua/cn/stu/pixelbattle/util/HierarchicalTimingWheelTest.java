@@ -0,0 +1,78 @@
+package ua.cn.stu.pixelbattle.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link HierarchicalTimingWheel}.
+ *
+ * <p>Uses a tiny wheel (4 slots, 3 levels, 5 ms tick) so that cascading and
+ * overflow are exercised within milliseconds.
+ */
+public class HierarchicalTimingWheelTest {
+
+  private HierarchicalTimingWheel wheel;
+
+  @BeforeEach
+  void setUp() {
+    wheel = new HierarchicalTimingWheel("test-timer", 5, 2, 3, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    wheel.close();
+  }
+
+  @Test
+  @DisplayName("should run task not earlier than its delay")
+  void shouldRunTaskAfterDelay() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    long start = System.nanoTime();
+
+    wheel.schedule(latch::countDown, 30, TimeUnit.MILLISECONDS);
+
+    assertTrue(latch.await(2, TimeUnit.SECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+  }
+
+  @Test
+  @DisplayName("should cascade timers from higher levels and beyond wheel range")
+  void shouldCascadeLongTimers() throws InterruptedException {
+    // 64 ticks is the full range of this wheel, 400 ms = 80 ticks overflows it
+    CountDownLatch latch = new CountDownLatch(2);
+    final long start = System.nanoTime();
+
+    wheel.schedule(latch::countDown, 150, TimeUnit.MILLISECONDS);
+    wheel.schedule(latch::countDown, 400, TimeUnit.MILLISECONDS);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(400));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  @DisplayName("should not run cancelled task")
+  void shouldNotRunCancelledTask() throws InterruptedException {
+    AtomicBoolean ran = new AtomicBoolean();
+    CountDownLatch later = new CountDownLatch(1);
+
+    HierarchicalTimingWheel.Timeout timeout =
+        wheel.schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+    wheel.schedule(later::countDown, 60, TimeUnit.MILLISECONDS);
+
+    assertTrue(timeout.cancel());
+    assertFalse(timeout.cancel());
+    assertTrue(later.await(2, TimeUnit.SECONDS));
+    assertFalse(ran.get());
+    assertFalse(timeout.isExpired());
+  }
+}